@@ -0,0 +1,64 @@
+-- Benchmark: busca parcial por título com e sem o índice de trigramas.
+--
+-- Cria uma cópia da tabela album com 1 milhão de linhas em um schema
+-- temporário, executa a consulta gerada por AlbumRepository.buscarPorFiltro
+-- com filtro de título sem o índice de trigramas (enable_bitmapscan = off) e
+-- com ele, e remove tudo ao final. Compare o "Execution Time" e o plano
+-- (Seq Scan x Bitmap Index Scan em idx_album_titulo_trgm) de cada bloco.
+--
+--   docker compose exec -T db psql -U admin -d artistas_db < benchmark/busca-trigram.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS benchmark_busca CASCADE;
+CREATE SCHEMA benchmark_busca;
+SET search_path TO benchmark_busca, public;
+
+CREATE TABLE album (
+    id     BIGSERIAL PRIMARY KEY,
+    titulo VARCHAR(200) NOT NULL
+);
+
+INSERT INTO album (titulo)
+SELECT 'Album ' || md5(g::text) || ' ' || (ARRAY['rock', 'jazz', 'samba', 'forro', 'metal'])[1 + g % 5]
+FROM generate_series(1, 1000000) AS g;
+
+CREATE INDEX idx_album_titulo_id ON album (titulo, id);
+CREATE INDEX idx_album_titulo_trgm ON album USING gin (LOWER(titulo) gin_trgm_ops);
+ANALYZE album;
+
+\timing on
+
+-- 1) Varredura sequencial (sem índice de trigramas)
+SET enable_bitmapscan = off;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, titulo FROM album
+WHERE LOWER(titulo) LIKE '%abc12%' ESCAPE '\'
+ORDER BY titulo, id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM album WHERE LOWER(titulo) LIKE '%abc12%' ESCAPE '\';
+
+-- 2) Índice GIN de trigramas
+RESET enable_bitmapscan;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, titulo FROM album
+WHERE LOWER(titulo) LIKE '%abc12%' ESCAPE '\'
+ORDER BY titulo, id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM album WHERE LOWER(titulo) LIKE '%abc12%' ESCAPE '\';
+
+-- 3) Ordenação por relevância (buscarPorTituloPorRelevancia)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, titulo FROM album
+WHERE LOWER(titulo) LIKE '%abc12%' ESCAPE '\'
+ORDER BY similarity(LOWER(titulo), 'abc12') DESC, titulo, id
+LIMIT 10;
+
+\timing off
+
+RESET search_path;
+DROP SCHEMA benchmark_busca CASCADE;
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Carga: gera QUANTIDADE álbuns em NDJSON (padrão: 100 mil), importa por
+# POST /v1/importacao/albuns e mede o tempo da requisição, que só responde
+# depois de gravar todos os lotes. Os álbuns ficam no banco; cada execução usa
+# um prefixo de título próprio.
+#
+#   API=http://localhost:8080 QUANTIDADE=100000 ./benchmark/importacao-albuns.sh
+#
+# O arquivo gerado precisa caber em quarkus.http.limits.max-body-size (10M por
+# padrão): 100 mil linhas ocupam cerca de 7 MB.
+set -euo pipefail
+
+API=${API:-http://localhost:8080}
+QUANTIDADE=${QUANTIDADE:-100000}
+ARTISTA_ID=${ARTISTA_ID:-1}
+USUARIO=${USUARIO:-admin}
+SENHA=${SENHA:-admin123}
+
+arquivo=$(mktemp)
+resposta=$(mktemp)
+trap 'rm -f "$arquivo" "$resposta"' EXIT
+
+awk -v n="$QUANTIDADE" -v artista="$ARTISTA_ID" -v prefixo="Carga $(date +%s)" 'BEGIN {
+    for (i = 1; i <= n; i++) {
+        printf "{\"titulo\":\"%s %07d\",\"anoLancamento\":%d,\"artistaIds\":[%d]}\n", prefixo, i, 1950 + i % 75, artista
+    }
+}' > "$arquivo"
+echo "Arquivo: $QUANTIDADE linhas, $(wc -c < "$arquivo") bytes"
+
+token=$(curl -sf -X POST "$API/v1/auth/login" \
+    -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$USUARIO\",\"senha\":\"$SENHA\"}" \
+    | sed -n 's/.*"accessToken" *: *"\([^"]*\)".*/\1/p')
+if [ -z "$token" ]; then
+    echo "Falha no login em $API" >&2
+    exit 1
+fi
+
+segundos=$(curl -sf -o "$resposta" -w '%{time_total}' \
+    -H "Authorization: Bearer $token" \
+    -H 'Content-Type: application/x-ndjson' \
+    --data-binary @"$arquivo" \
+    "$API/v1/importacao/albuns")
+
+echo "Tempo total: ${segundos}s"
+grep -o '"\(linhas\|importados\|totalErros\)" *: *[0-9]*' "$resposta"
@@ -2,6 +2,8 @@ package org.projetoseletivo.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +14,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "album")
+@Cacheable
 @Getter
 @Setter
 @Builder
@@ -20,7 +23,8 @@ import java.util.Set;
 public class Album {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "album_seq")
+    @SequenceGenerator(name = "album_seq", sequenceName = "album_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "titulo", nullable = false, length = 200)
@@ -36,10 +40,12 @@ public class Album {
     private LocalDateTime atualizadoEm;
 
     @ManyToMany(mappedBy = "albuns")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private Set<Artista> artistas = new HashSet<>();
 
     @OneToMany(mappedBy = "album", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private List<AlbumImagem> imagens = new ArrayList<>();
 
@@ -6,12 +6,17 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Entity
 @Table(name = "album_imagem")
+@Cacheable
 @Getter
 @Setter
 @Builder
@@ -20,7 +25,8 @@ import java.time.LocalDateTime;
 public class AlbumImagem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "album_imagem_seq")
+    @SequenceGenerator(name = "album_imagem_seq", sequenceName = "album_imagem_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,9 +42,21 @@ public class AlbumImagem {
     @Column(name = "content_type", length = 100)
     private String contentType;
 
+    /**
+     * SHA-256 do conteúdo, em hexadecimal. Nulo para imagens enviadas direto
+     * ao MinIO, cujos bytes não passam pela API.
+     */
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
     @Column(name = "criado_em", updatable = false)
     private LocalDateTime criadoEm;
 
+    @OneToMany(mappedBy = "imagem", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @Builder.Default
+    private List<AlbumImagemVariante> variantes = new ArrayList<>();
+
     @PrePersist
     protected void onCreate() {
         criadoEm = LocalDateTime.now();
@@ -0,0 +1,58 @@
+package org.projetoseletivo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.projetoseletivo.domain.enums.VarianteImagem;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versão redimensionada de uma imagem de capa, gravada no MinIO ao lado da
+ * original.
+ */
+@Entity
+@Table(name = "album_imagem_variante")
+@Cacheable
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumImagemVariante {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "album_imagem_id", nullable = false)
+    private AlbumImagem imagem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variante", nullable = false, length = 20)
+    private VarianteImagem variante;
+
+    @Column(name = "largura", nullable = false)
+    private Integer largura;
+
+    @Column(name = "altura", nullable = false)
+    private Integer altura;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "criado_em", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
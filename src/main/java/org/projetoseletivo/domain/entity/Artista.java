@@ -2,6 +2,8 @@ package org.projetoseletivo.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.projetoseletivo.domain.enums.TipoArtista;
 
 import java.time.LocalDateTime;
@@ -11,6 +13,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "artista")
+@Cacheable
 @Getter
 @Setter
 @Builder
@@ -21,7 +24,8 @@ public class Artista {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artista_seq")
+    @SequenceGenerator(name = "artista_seq", sequenceName = "artista_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome", nullable = false, length = 200)
@@ -38,6 +42,7 @@ public class Artista {
     private LocalDateTime atualizadoEm;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "artista_album", joinColumns = @JoinColumn(name = "artista_id"), inverseJoinColumns = @JoinColumn(name = "album_id"))
     @Builder.Default
     private Set<Album> albuns = new HashSet<>();
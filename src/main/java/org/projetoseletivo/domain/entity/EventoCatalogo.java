@@ -0,0 +1,52 @@
+package org.projetoseletivo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alteração do catálogo registrada no outbox. O id é o offset do feed.
+ * {@code dados} guarda o estado da entidade após a alteração em JSON (o
+ * mesmo DTO da API). Nas remoções é nulo para artistas e, para álbuns, guarda
+ * o id, o título e os artistas do removido.
+ */
+@Entity
+@Table(name = "evento_catalogo")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCatalogo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoEventoCatalogo tipo;
+
+    @Column(name = "entidade_id", nullable = false)
+    private Long entidadeId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "dados")
+    private String dados;
+
+    @Column(name = "criado_em", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
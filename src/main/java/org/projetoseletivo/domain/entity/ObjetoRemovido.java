@@ -0,0 +1,43 @@
+package org.projetoseletivo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Objeto do MinIO aguardando remoção. As linhas são inseridas por gatilho ao
+ * apagar imagens e variantes, e pela reconciliação do bucket.
+ */
+@Entity
+@Table(name = "objeto_removido")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjetoRemovido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "tentativas", nullable = false)
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    @Column(name = "criado_em", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package org.projetoseletivo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Upload multipart de capa em andamento no MinIO. As partes enviadas não são
+ * gravadas no banco: o MinIO é a fonte da verdade e informa quais já chegaram.
+ */
+@Entity
+@Table(name = "upload_multipart")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadMultipart {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "album_id", nullable = false)
+    private Album album;
+
+    @Column(name = "upload_id", nullable = false, unique = true, length = 200)
+    private String uploadId;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "criado_em", updatable = false)
+    private LocalDateTime criadoEm;
+
+    /**
+     * Início da conclusão ou do aborto em andamento; null enquanto o upload
+     * aceita partes.
+     */
+    @Column(name = "finalizando_em")
+    private LocalDateTime finalizandoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package org.projetoseletivo.domain.enums;
+
+/**
+ * Formato do arquivo de importação em lote: NDJSON (um objeto JSON por linha)
+ * ou CSV com cabeçalho.
+ */
+public enum FormatoImportacao {
+    NDJSON,
+    CSV;
+
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    public static final String MEDIA_TYPE_CSV = "text/csv";
+
+    /**
+     * Formato correspondente ao Content-Type da requisição.
+     */
+    public static FormatoImportacao doContentType(String contentType) {
+        if (contentType != null && contentType.startsWith(MEDIA_TYPE_CSV)) {
+            return CSV;
+        }
+        if (contentType != null && contentType.startsWith(MEDIA_TYPE_NDJSON)) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Content-Type não suportado na importação: " + contentType
+                + ". Use " + MEDIA_TYPE_NDJSON + " ou " + MEDIA_TYPE_CSV);
+    }
+}
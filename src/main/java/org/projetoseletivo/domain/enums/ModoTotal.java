@@ -0,0 +1,22 @@
+package org.projetoseletivo.domain.enums;
+
+import java.util.Locale;
+
+/**
+ * Como o total de elementos é calculado nas listagens: EXATO (COUNT no banco),
+ * ESTIMADO (estatísticas do PostgreSQL ou contagem em cache) ou NENHUM (sem
+ * contagem; apenas indica se existe próxima página).
+ */
+public enum ModoTotal {
+    EXATO,
+    ESTIMADO,
+    NENHUM;
+
+    /**
+     * Conversão usada nos parâmetros de consulta, aceitando minúsculas
+     * (ex.: total=estimado).
+     */
+    public static ModoTotal fromString(String valor) {
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,21 @@
+package org.projetoseletivo.domain.enums;
+
+/**
+ * O que fazer quando a fila de saída de uma sessão WebSocket está cheia
+ * (cliente lento).
+ */
+public enum PoliticaFilaCheia {
+    /**
+     * Descarta a mensagem pendente mais antiga para abrir espaço.
+     */
+    DESCARTAR_MAIS_ANTIGA,
+    /**
+     * Substitui a mensagem pendente sobre a mesma entidade pela nova; sem
+     * mensagem equivalente, descarta a mais antiga.
+     */
+    COALESCER,
+    /**
+     * Fecha a sessão; o cliente reconecta e ressincroniza.
+     */
+    DESCONECTAR
+}
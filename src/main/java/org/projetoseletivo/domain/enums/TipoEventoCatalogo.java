@@ -0,0 +1,13 @@
+package org.projetoseletivo.domain.enums;
+
+/**
+ * Tipo de alteração registrada no feed de eventos do catálogo.
+ */
+public enum TipoEventoCatalogo {
+    ARTISTA_CRIADO,
+    ARTISTA_ATUALIZADO,
+    ARTISTA_REMOVIDO,
+    ALBUM_CRIADO,
+    ALBUM_ATUALIZADO,
+    ALBUM_REMOVIDO
+}
@@ -0,0 +1,21 @@
+package org.projetoseletivo.domain.enums;
+
+/**
+ * Variantes de tamanho geradas para cada imagem de capa. O lado é a maior
+ * dimensão da variante; a proporção da original é mantida e imagens menores
+ * não são ampliadas.
+ */
+public enum VarianteImagem {
+    MINIATURA(160),
+    MEDIA(640);
+
+    private final int lado;
+
+    VarianteImagem(int lado) {
+        this.lado = lado;
+    }
+
+    public int getLado() {
+        return lado;
+    }
+}
@@ -0,0 +1,24 @@
+package org.projetoseletivo.dto.request;
+
+import java.nio.file.Path;
+
+/**
+ * Arquivo de imagem recebido no upload, já gravado em disco pelo servidor
+ * HTTP. O conteúdo é lido do disco em streaming no envio ao MinIO.
+ */
+public record ArquivoImagem(Path caminho, String nomeArquivo, long tamanho, String contentType) {
+
+    /**
+     * Extensão do nome original, ou "jpg" quando não houver.
+     */
+    public String extensao() {
+        return extensao(nomeArquivo);
+    }
+
+    public static String extensao(String nomeArquivo) {
+        if (nomeArquivo == null || !nomeArquivo.contains(".")) {
+            return "jpg";
+        }
+        return nomeArquivo.substring(nomeArquivo.lastIndexOf(".") + 1);
+    }
+}
@@ -0,0 +1,20 @@
+package org.projetoseletivo.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de requisição para confirmar uma capa enviada direto ao MinIO.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmacaoUploadRequest {
+
+    @NotBlank(message = "objectKey é obrigatório")
+    private String objectKey;
+}
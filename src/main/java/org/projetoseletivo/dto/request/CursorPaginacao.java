@@ -0,0 +1,42 @@
+package org.projetoseletivo.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por chave (keyset).
+ *
+ * Guarda a chave de ordenação (título do álbum ou nome do artista) e o ID do
+ * último registro entregue; a próxima página começa imediatamente após esse par.
+ */
+public record CursorPaginacao(String chave, Long id) {
+
+    private static final String SEPARADOR = ":";
+
+    /**
+     * Codifica o cursor em Base64 URL-safe para uso em query string.
+     */
+    public String codificar() {
+        String valor = id + SEPARADOR + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente.
+     *
+     * @throws IllegalArgumentException se o cursor estiver malformado
+     */
+    public static CursorPaginacao decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorPaginacao(valor.substring(separador + 1), Long.valueOf(valor.substring(0, separador)));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException e erros de Base64 também são IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
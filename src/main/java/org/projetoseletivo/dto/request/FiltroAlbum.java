@@ -0,0 +1,63 @@
+package org.projetoseletivo.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.projetoseletivo.domain.enums.TipoArtista;
+
+import java.util.Locale;
+
+/**
+ * Filtros combináveis da listagem de álbuns. Campos nulos (ou em branco) são
+ * ignorados; os demais são aplicados juntos (AND).
+ *
+ * Nome e tipo do artista se referem ao mesmo artista: "artista=Linkin&tipo=BANDA"
+ * retorna álbuns de uma banda cujo nome contém "Linkin".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroAlbum {
+
+    private String titulo;
+
+    private String nomeArtista;
+
+    private TipoArtista tipoArtista;
+
+    /**
+     * Ano de lançamento mínimo (inclusive).
+     */
+    private Integer anoInicio;
+
+    /**
+     * Ano de lançamento máximo (inclusive).
+     */
+    private Integer anoFim;
+
+    public boolean possuiTitulo() {
+        return titulo != null && !titulo.isBlank();
+    }
+
+    public boolean possuiNomeArtista() {
+        return nomeArtista != null && !nomeArtista.isBlank();
+    }
+
+    public boolean possuiFiltro() {
+        return possuiTitulo() || possuiNomeArtista() || tipoArtista != null || anoInicio != null || anoFim != null;
+    }
+
+    /**
+     * Chave que identifica a combinação de filtros, usada no cache de totais.
+     */
+    public String chave() {
+        return String.join("|",
+                possuiTitulo() ? titulo.toLowerCase(Locale.ROOT) : "",
+                possuiNomeArtista() ? nomeArtista.toLowerCase(Locale.ROOT) : "",
+                tipoArtista != null ? tipoArtista.name() : "",
+                anoInicio != null ? anoInicio.toString() : "",
+                anoFim != null ? anoFim.toString() : "");
+    }
+}
@@ -0,0 +1,23 @@
+package org.projetoseletivo.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de requisição para autorizar o envio de uma capa direto ao MinIO.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadDiretoRequest {
+
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    private String nomeArquivo;
+
+    @NotBlank(message = "Content-Type é obrigatório")
+    private String contentType;
+}
@@ -0,0 +1,22 @@
+package org.projetoseletivo.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de requisição para iniciar um upload multipart de capa.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadMultipartRequest {
+
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    private String nomeArquivo;
+
+    private String contentType;
+}
@@ -0,0 +1,16 @@
+package org.projetoseletivo.dto.response;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+/**
+ * Metadados de um arquivo de imagem servido pelo proxy. Com {@code arquivo}
+ * preenchido o conteúdo está no cache em disco; senão deve ser lido do MinIO.
+ */
+public record ConteudoImagem(String objectKey, Path arquivo, long tamanho, String etag, String contentType,
+        ZonedDateTime ultimaAlteracao, String cacheControl) {
+
+    public boolean emCache() {
+        return arquivo != null;
+    }
+}
@@ -0,0 +1,17 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+/**
+ * Linha do arquivo de importação que não foi importada.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoResponse {
+
+    private Long linha;
+    private String erro;
+}
@@ -0,0 +1,29 @@
+package org.projetoseletivo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento do feed de alterações do catálogo. {@code dados} é o álbum ou artista
+ * após a alteração, no mesmo formato da API. Nas remoções vem nulo para
+ * artistas e, para álbuns, só com o id, o título e os artistas do removido.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCatalogoResponse {
+
+    private Long id;
+    private TipoEventoCatalogo tipo;
+    private Long entidadeId;
+
+    @JsonRawValue
+    private String dados;
+
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,20 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Página do feed de eventos. {@code proximoOffset} é o valor de aPartirDe
+ * da próxima leitura; igual ao offset pedido quando não há eventos novos.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEventosResponse {
+
+    private List<EventoCatalogoResponse> eventos;
+    private Long proximoOffset;
+}
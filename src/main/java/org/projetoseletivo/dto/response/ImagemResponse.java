@@ -3,6 +3,7 @@ package org.projetoseletivo.dto.response;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Getter
@@ -18,4 +19,10 @@ public class ImagemResponse {
     private String contentType;
     private String url;
     private LocalDateTime criadoEm;
+
+    /**
+     * Versões redimensionadas, geradas após o upload. Vazia enquanto ainda não
+     * foram geradas; nesse caso use a URL da original.
+     */
+    private List<VarianteResponse> variantes;
 }
@@ -0,0 +1,22 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Relatório da importação em lote. {@code erros} traz no máximo
+ * {@code importacao.erros.maximo} linhas; {@code totalErros} conta todas.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoResponse {
+
+    private Long linhas;
+    private Long importados;
+    private Long totalErros;
+    private List<ErroImportacaoResponse> erros;
+}
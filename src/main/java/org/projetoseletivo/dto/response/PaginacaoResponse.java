@@ -1,5 +1,6 @@
 package org.projetoseletivo.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
@@ -10,17 +11,28 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginacaoResponse<T> {
 
 
-    private int pagina;
+    private Integer pagina;
     private int tamanhoPagina;
-    private long totalElementos;
-    private int totalPaginas;
+    private Long totalElementos;
+    private Integer totalPaginas;
     private boolean primeira;
     private boolean ultima;
     private List<T> conteudo;
 
+    /**
+     * Indica que totalElementos/totalPaginas são aproximados (total=ESTIMADO).
+     */
+    private Boolean totalEstimado;
+
+    /**
+     * Cursor para a próxima página na paginação por chave; ausente na última página.
+     */
+    private String proximoCursor;
+
     public static <T> PaginacaoResponse<T> of(List<T> conteudo, int pagina, int tamanhoPagina, long totalElementos) {
         int totalPaginas = (int) Math.ceil((double) totalElementos / tamanhoPagina);
         return PaginacaoResponse.<T>builder()
@@ -33,4 +45,46 @@ public class PaginacaoResponse<T> {
                 .conteudo(conteudo)
                 .build();
     }
+
+    /**
+     * Página com total aproximado. Uma página incompleta é sempre a última,
+     * mesmo que a estimativa indique o contrário.
+     */
+    public static <T> PaginacaoResponse<T> estimado(List<T> conteudo, int pagina, int tamanhoPagina,
+            long totalEstimado) {
+        PaginacaoResponse<T> response = of(conteudo, pagina, tamanhoPagina, totalEstimado);
+        response.setTotalEstimado(true);
+        response.setUltima(response.isUltima() || conteudo.size() < tamanhoPagina);
+        return response;
+    }
+
+    /**
+     * Página sem total (total=NENHUM); a última página é determinada buscando um
+     * registro além do tamanho da página.
+     */
+    public static <T> PaginacaoResponse<T> semTotal(List<T> conteudo, int pagina, int tamanhoPagina,
+            boolean ultima) {
+        return PaginacaoResponse.<T>builder()
+                .pagina(pagina)
+                .tamanhoPagina(tamanhoPagina)
+                .primeira(pagina == 0)
+                .ultima(ultima)
+                .conteudo(conteudo)
+                .build();
+    }
+
+    /**
+     * Página da paginação por chave: não há número de página nem total, apenas o
+     * cursor da próxima página.
+     */
+    public static <T> PaginacaoResponse<T> porCursor(List<T> conteudo, int tamanhoPagina, boolean primeira,
+            String proximoCursor) {
+        return PaginacaoResponse.<T>builder()
+                .tamanhoPagina(tamanhoPagina)
+                .primeira(primeira)
+                .ultima(proximoCursor == null)
+                .conteudo(conteudo)
+                .proximoCursor(proximoCursor)
+                .build();
+    }
 }
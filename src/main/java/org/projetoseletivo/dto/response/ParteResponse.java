@@ -0,0 +1,16 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParteResponse {
+
+    private Integer numero;
+    private String etag;
+    private Long tamanho;
+}
@@ -0,0 +1,23 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+/**
+ * Situação da fila de saída de uma sessão WebSocket. {@code atrasoMs} é a
+ * idade da notificação pendente mais antiga; {@code assinaturas}, quantos
+ * tópicos a sessão assinou (0 recebe tudo).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoNotificacaoResponse {
+
+    private String sessaoId;
+    private Integer pendentes;
+    private Long atrasoMs;
+    private Long enviadas;
+    private Long descartadas;
+    private Integer assinaturas;
+}
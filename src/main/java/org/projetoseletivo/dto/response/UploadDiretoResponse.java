@@ -0,0 +1,25 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Formulário pré-assinado para envio de uma capa direto ao MinIO: o cliente
+ * faz um POST multipart em {@code url} com todos os {@code campos} e, por
+ * último, o arquivo no campo "file".
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadDiretoResponse {
+
+    private String url;
+    private String objectKey;
+    private Map<String, String> campos;
+    private Long tamanhoMaximo;
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,23 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Estado de um upload multipart: limites de tamanho das partes e as partes
+ * que o MinIO já recebeu, para o cliente retomar de onde parou.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadMultipartResponse {
+
+    private String uploadId;
+    private String objectKey;
+    private Long tamanhoMinimoParte;
+    private Long tamanhoMaximoParte;
+    private List<ParteResponse> partes;
+}
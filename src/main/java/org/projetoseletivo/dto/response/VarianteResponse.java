@@ -0,0 +1,20 @@
+package org.projetoseletivo.dto.response;
+
+import lombok.*;
+import org.projetoseletivo.domain.enums.VarianteImagem;
+
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarianteResponse {
+
+    private VarianteImagem variante;
+    private Integer largura;
+    private Integer altura;
+    private String objectKey;
+    private String contentType;
+    private String url;
+}
@@ -0,0 +1,55 @@
+package org.projetoseletivo.dto.response;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+/**
+ * Versão de um recurso para GET condicional: ETag derivada dos componentes
+ * informados (timestamps, contagens, versão do catálogo) e data da última
+ * alteração, usada no Last-Modified (nula quando o recurso não tem uma).
+ */
+public record VersaoRecurso(String etag, LocalDateTime ultimaAlteracao) {
+
+    public static VersaoRecurso de(LocalDateTime ultimaAlteracao, Object... componentes) {
+        String assinatura = Arrays.stream(componentes)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return new VersaoRecurso(resumir(assinatura), ultimaAlteracao);
+    }
+
+    /**
+     * Nova versão com componentes adicionais, mantendo a data de alteração.
+     */
+    public VersaoRecurso com(Object... componentes) {
+        Object[] todos = new Object[componentes.length + 1];
+        todos[0] = etag;
+        System.arraycopy(componentes, 0, todos, 1, componentes.length);
+        return de(ultimaAlteracao, todos);
+    }
+
+    /**
+     * Nova versão com componentes adicionais e a data de alteração avançada até
+     * {@code inicio}, se for anterior. Sem data de alteração, continua sem.
+     */
+    public VersaoRecurso aPartirDe(LocalDateTime inicio, Object... componentes) {
+        VersaoRecurso versao = com(componentes);
+        if (ultimaAlteracao == null || !ultimaAlteracao.isBefore(inicio)) {
+            return versao;
+        }
+        return new VersaoRecurso(versao.etag, inicio);
+    }
+
+    private static String resumir(String assinatura) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(assinatura.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -5,10 +5,12 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.projetoseletivo.domain.entity.Album;
 import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.AlbumImagemVariante;
 import org.projetoseletivo.domain.entity.Artista;
 import org.projetoseletivo.dto.request.AlbumRequest;
 import org.projetoseletivo.dto.response.AlbumResponse;
 import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.VarianteResponse;
 
 import java.util.List;
 import java.util.Set;
@@ -49,12 +51,32 @@ public interface AlbumMapper {
             return null;
         }
         return imagens.stream()
-                .map(img -> ImagemResponse.builder()
-                        .id(img.getId())
-                        .bucket(img.getBucket())
-                        .objectKey(img.getObjectKey())
-                        .contentType(img.getContentType())
-                        .criadoEm(img.getCriadoEm())
+                .map(this::mapImagem)
+                .collect(Collectors.toList());
+    }
+
+    default ImagemResponse mapImagem(AlbumImagem imagem) {
+        return ImagemResponse.builder()
+                .id(imagem.getId())
+                .bucket(imagem.getBucket())
+                .objectKey(imagem.getObjectKey())
+                .contentType(imagem.getContentType())
+                .criadoEm(imagem.getCriadoEm())
+                .variantes(mapVariantes(imagem.getVariantes()))
+                .build();
+    }
+
+    default List<VarianteResponse> mapVariantes(List<AlbumImagemVariante> variantes) {
+        if (variantes == null) {
+            return List.of();
+        }
+        return variantes.stream()
+                .map(variante -> VarianteResponse.builder()
+                        .variante(variante.getVariante())
+                        .largura(variante.getLargura())
+                        .altura(variante.getAltura())
+                        .objectKey(variante.getObjectKey())
+                        .contentType(variante.getContentType())
                         .build())
                 .collect(Collectors.toList());
     }
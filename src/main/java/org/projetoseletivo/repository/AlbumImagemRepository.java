@@ -3,8 +3,14 @@ package org.projetoseletivo.repository;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.AlbumImagemVariante;
+import org.projetoseletivo.domain.enums.VarianteImagem;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repositório para operações de persistência da entidade AlbumImagem.
@@ -13,10 +19,114 @@ import java.util.List;
 public class AlbumImagemRepository implements PanacheRepository<AlbumImagem> {
 
     /**
-     * Busca imagens por ID do álbum.
+     * Primeira chave dos locks de transação por objeto (forma de duas chaves
+     * do pg_advisory_xact_lock, que não colide com os locks de uma chave).
+     */
+    private static final int LOCK_OBJETOS = 7_301_002;
+
+    /**
+     * Busca imagens por ID do álbum, com as variantes carregadas.
      */
     public List<AlbumImagem> buscarPorAlbumId(Long albumId) {
-        return list("album.id", albumId);
+        return list("SELECT DISTINCT i FROM AlbumImagem i LEFT JOIN FETCH i.variantes WHERE i.album.id = ?1",
+                albumId);
+    }
+
+    /**
+     * Chave no MinIO da imagem (ou de uma variante dela) do álbum informado.
+     * Imagem e variantes vêm do cache de segundo nível, sem consulta ao banco
+     * para capas acessadas com frequência.
+     */
+    public Optional<String> buscarObjectKey(Long albumId, Long imagemId, VarianteImagem variante) {
+        return findByIdOptional(imagemId)
+                .filter(imagem -> imagem.getAlbum().getId().equals(albumId))
+                .flatMap(imagem -> variante == null
+                        ? Optional.of(imagem.getObjectKey())
+                        : imagem.getVariantes().stream()
+                                .filter(atual -> atual.getVariante() == variante)
+                                .map(AlbumImagemVariante::getObjectKey)
+                                .findFirst());
+    }
+
+    /**
+     * Chave no MinIO de uma imagem já gravada com o mesmo conteúdo.
+     */
+    public Optional<String> buscarObjectKeyPorHash(String hashConteudo) {
+        return find("hashConteudo", hashConteudo).firstResultOptional().map(AlbumImagem::getObjectKey);
+    }
+
+    /**
+     * Variantes já geradas para o objeto por outra imagem que compartilha o
+     * mesmo conteúdo.
+     */
+    public List<AlbumImagemVariante> buscarVariantesPorObjectKey(String objectKey, Long excetoImagemId) {
+        return getEntityManager()
+                .createQuery("SELECT v FROM AlbumImagemVariante v WHERE v.imagem.objectKey = :objectKey"
+                        + " AND v.imagem.id <> :imagemId ORDER BY v.imagem.id, v.variante", AlbumImagemVariante.class)
+                .setParameter("objectKey", objectKey)
+                .setParameter("imagemId", excetoImagemId)
+                .getResultList();
+    }
+
+    /**
+     * Contagem de referências de um objeto do MinIO: imagens e variantes
+     * gravadas com a chave. Um objeto só pode ser removido quando chega a zero.
+     */
+    public long contarReferencias(String objectKey) {
+        long variantes = getEntityManager()
+                .createQuery("SELECT count(v) FROM AlbumImagemVariante v WHERE v.objectKey = :objectKey", Long.class)
+                .setParameter("objectKey", objectKey)
+                .getSingleResult();
+        return count("objectKey", objectKey) + variantes;
+    }
+
+    /**
+     * Dentre as chaves informadas, as que ainda são referenciadas por alguma
+     * imagem ou variante.
+     */
+    public Set<String> buscarObjectKeysReferenciadas(Collection<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> referenciadas = new HashSet<>(getEntityManager()
+                .createQuery("SELECT i.objectKey FROM AlbumImagem i WHERE i.objectKey IN :objectKeys", String.class)
+                .setParameter("objectKeys", objectKeys)
+                .getResultList());
+        referenciadas.addAll(getEntityManager()
+                .createQuery("SELECT v.objectKey FROM AlbumImagemVariante v WHERE v.objectKey IN :objectKeys",
+                        String.class)
+                .setParameter("objectKeys", objectKeys)
+                .getResultList());
+        return referenciadas;
+    }
+
+    /**
+     * Obtém os locks de transação das chaves num único comando, em ordem para
+     * não haver deadlock. Quem grava referências usa o lock compartilhado e
+     * quem remove objetos do MinIO, o exclusivo: a conferência das
+     * referências antes da remoção espera as referências novas serem
+     * confirmadas. Os locks são liberados no commit ou rollback.
+     */
+    public void bloquearObjectKeys(Collection<String> objectKeys, boolean exclusivo) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        String funcao = exclusivo ? "pg_advisory_xact_lock" : "pg_advisory_xact_lock_shared";
+        // O agregado consome a subconsulta já ordenada: os locks são obtidos na ordem das chaves
+        getEntityManager()
+                .createNativeQuery("SELECT count(" + funcao + "(?1, chave)) FROM"
+                        + " (SELECT DISTINCT hashtext(objeto) AS chave FROM unnest(CAST(?2 AS text[])) AS objeto"
+                        + " ORDER BY chave) AS chaves")
+                .setParameter(1, LOCK_OBJETOS)
+                .setParameter(2, objectKeys.toArray(String[]::new))
+                .getSingleResult();
+    }
+
+    /**
+     * Indica se o objeto já está registrado como imagem de algum álbum.
+     */
+    public boolean existePorObjectKey(String objectKey) {
+        return count("objectKey", objectKey) > 0;
     }
 
     /**
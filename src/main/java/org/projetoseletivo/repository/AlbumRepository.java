@@ -4,11 +4,25 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.projetoseletivo.domain.entity.Album;
-import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.dto.request.FiltroAlbum;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de persistência da entidade Album.
@@ -17,52 +31,145 @@ import java.util.Optional;
 public class AlbumRepository implements PanacheRepository<Album> {
 
         /**
-         * Lista álbuns com paginação, ordenados alfabeticamente por título.
+         * Lista álbuns ordenados alfabeticamente por título, retornando no máximo
+         * {@code limite} registros a partir da posição {@code primeiro}.
          */
-        public List<Album> listarTodos(int pagina, int tamanhoPagina) {
-                return findAll(Sort.ascending("titulo"))
-                                .page(Page.of(pagina, tamanhoPagina))
-                                .list();
+        public List<Album> listarTodos(int primeiro, int limite) {
+                return carregarAssociacoes(findAll(Sort.ascending("titulo"))
+                                .range(primeiro, primeiro + limite - 1)
+                                .list());
         }
 
         /**
-         * Busca álbuns por título (parcial, case-insensitive), ordenados
-         * alfabeticamente.
+         * Lista álbuns por chave (keyset) a partir do último par (título, ID)
+         * entregue, ordenados por título e ID. A busca começa direto na posição do
+         * cursor, então o custo não cresce com a profundidade da página.
          */
-        public List<Album> buscarPorTitulo(String titulo, int pagina, int tamanhoPagina) {
-                return find("LOWER(titulo) LIKE LOWER(?1)", Sort.ascending("titulo"), "%" + titulo + "%")
-                                .page(Page.of(pagina, tamanhoPagina))
-                                .list();
+        public List<Album> listarAposCursor(String titulo, Long id, int limite) {
+                Sort ordenacao = Sort.ascending("titulo", "id");
+                if (id == null) {
+                        return carregarAssociacoes(findAll(ordenacao).page(Page.ofSize(limite)).list());
+                }
+                return carregarAssociacoes(find("(titulo, id) > (?1, ?2)", ordenacao, titulo, id)
+                                .page(Page.ofSize(limite))
+                                .list());
         }
 
         /**
-         * Busca álbuns por nome do artista, ordenados alfabeticamente por título.
+         * Busca álbuns aplicando em uma única consulta todos os filtros informados,
+         * ordenados por título e ID, a partir da posição {@code primeiro}. Com
+         * {@code relevancia} e título informado, ordena pela similaridade de
+         * trigramas com o título buscado (pg_trgm), mais relevantes primeiro.
          */
-        public List<Album> buscarPorNomeArtista(String nomeArtista, int pagina, int tamanhoPagina) {
-                return find("SELECT DISTINCT a FROM Album a JOIN a.artistas art WHERE LOWER(art.nome) LIKE LOWER(?1)",
-                                Sort.ascending("titulo"), "%" + nomeArtista + "%")
-                                .page(Page.of(pagina, tamanhoPagina))
-                                .list();
-        }
+        public List<Album> buscarPorFiltro(FiltroAlbum filtro, boolean relevancia, int primeiro, int limite) {
+                CondicoesAlbum condicoes = new CondicoesAlbum(filtro);
 
-        /**
-         * Busca álbuns por tipo de artista (SOLO ou BANDA), ordenados alfabeticamente
-         * por título.
-         */
-        public List<Album> buscarPorTipoArtista(TipoArtista tipo, int pagina, int tamanhoPagina) {
-                return find("SELECT DISTINCT a FROM Album a JOIN a.artistas art WHERE art.tipo = ?1",
-                                Sort.ascending("titulo"), tipo)
-                                .page(Page.of(pagina, tamanhoPagina))
-                                .list();
+                String ordenacao = " ORDER BY a.titulo, a.id";
+                if (relevancia && filtro.possuiTitulo()) {
+                        condicoes.parametros.put("termo", PadraoBusca.normalizar(filtro.getTitulo()));
+                        ordenacao = " ORDER BY function('similarity', LOWER(a.titulo), :termo) DESC, a.titulo, a.id";
+                }
+
+                TypedQuery<Album> query = getEntityManager()
+                                .createQuery("SELECT a FROM Album a" + condicoes.where + ordenacao, Album.class);
+                condicoes.parametros.forEach(query::setParameter);
+
+                return carregarAssociacoes(query.setFirstResult(primeiro)
+                                .setMaxResults(limite)
+                                .getResultList());
         }
 
         /**
-         * Busca álbum por ID com artistas e imagens carregados.
+         * Busca álbum por ID com artistas e imagens carregados. O resultado fica
+         * no cache de consultas; álbum e coleções vêm do cache de segundo nível.
          */
         public Optional<Album> buscarPorIdCompleto(Long id) {
                 return find("SELECT a FROM Album a LEFT JOIN FETCH a.artistas LEFT JOIN FETCH a.imagens WHERE a.id = ?1",
                                 id)
-                                .firstResultOptional();
+                                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                                .singleResultOptional();
+        }
+
+        /**
+         * Carrega vários álbuns por ID de uma vez: os que já estão na sessão ou
+         * no cache de segundo nível não vão ao banco, e os demais vêm em uma única
+         * consulta. IDs inexistentes ficam fora do mapa.
+         */
+        public Map<Long, Album> buscarPorIds(Collection<Long> ids) {
+                List<Long> distintos = ids.stream().distinct().toList();
+                if (distintos.isEmpty()) {
+                        return Map.of();
+                }
+
+                Map<Long, Album> encontrados = new LinkedHashMap<>();
+                for (Album album : getSession().findMultiple(Album.class, distintos)) {
+                        if (album != null) {
+                                encontrados.put(album.getId(), album);
+                        }
+                }
+                return encontrados;
+        }
+
+        /**
+         * Percorre os álbuns por ID com um cursor no servidor ({@code tamanhoLote}
+         * linhas por ida ao banco), entregando ao consumidor lotes com artistas,
+         * imagens e variantes já carregados. O contexto de persistência é limpo a
+         * cada lote, então a memória não cresce com o tamanho do catálogo. Exige
+         * transação ativa: sem ela o driver do PostgreSQL ignora o fetch size.
+         *
+         * Com {@code desde}, só entram álbuns criados ou alterados a partir desse
+         * momento, inclusive por alteração de artista ou nova imagem.
+         */
+        public void percorrerParaExportacao(LocalDateTime desde, int tamanhoLote, Consumer<List<Album>> consumidor) {
+                String where = desde == null ? "" : " WHERE coalesce(a.atualizadoEm, a.criadoEm) >= :desde"
+                                + " OR EXISTS (SELECT 1 FROM a.artistas art WHERE coalesce(art.atualizadoEm, art.criadoEm) >= :desde)"
+                                + " OR EXISTS (SELECT 1 FROM a.imagens i WHERE i.criadoEm >= :desde)";
+                TypedQuery<Album> query = getEntityManager()
+                                .createQuery("SELECT a FROM Album a" + where + " ORDER BY a.id", Album.class)
+                                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanhoLote);
+                if (desde != null) {
+                        query.setParameter("desde", desde);
+                }
+
+                // Somente leitura e fora do cache de segundo nível: uma exportação
+                // completa não deve expulsar do cache as entradas mais acessadas
+                Session sessao = getSession();
+                sessao.setDefaultReadOnly(true);
+                sessao.setCacheMode(CacheMode.IGNORE);
+
+                List<Album> lote = new ArrayList<>(tamanhoLote);
+                try (Stream<Album> albuns = query.getResultStream()) {
+                        Iterator<Album> iterador = albuns.iterator();
+                        while (iterador.hasNext()) {
+                                lote.add(iterador.next());
+                                if (lote.size() == tamanhoLote || !iterador.hasNext()) {
+                                        consumidor.accept(carregarAssociacoes(lote));
+                                        lote = new ArrayList<>(tamanhoLote);
+                                        sessao.clear();
+                                }
+                        }
+                }
+        }
+
+        /**
+         * Versão de um álbum para GET condicional, sem carregar o grafo: última
+         * alteração entre o álbum, seus artistas, imagens e variantes, e a
+         * quantidade de artistas e imagens (para detectar remoções).
+         */
+        public Optional<VersaoRecurso> buscarVersao(Long id) {
+                return getEntityManager()
+                                .createQuery("SELECT greatest(coalesce(a.atualizadoEm, a.criadoEm), "
+                                                + "(SELECT max(coalesce(art.atualizadoEm, art.criadoEm)) FROM a.artistas art), "
+                                                + "(SELECT max(i.criadoEm) FROM a.imagens i), "
+                                                + "(SELECT max(v.criadoEm) FROM a.imagens i JOIN i.variantes v)), "
+                                                + "(SELECT count(art) FROM a.artistas art), "
+                                                + "(SELECT count(i) FROM a.imagens i) "
+                                                + "FROM Album a WHERE a.id = ?1", Object[].class)
+                                .setParameter(1, id)
+                                .getResultStream()
+                                .findFirst()
+                                .map(linha -> VersaoRecurso.de((LocalDateTime) linha[0], "album", id, linha[0], linha[1],
+                                                linha[2]));
         }
 
         /**
@@ -73,32 +180,101 @@ public class AlbumRepository implements PanacheRepository<Album> {
         }
 
         /**
-         * Conta álbuns por título.
+         * Estimativa do total de álbuns a partir das estatísticas do PostgreSQL
+         * (pg_class.reltuples), sem percorrer a tabela. Retorna -1 se a tabela
+         * ainda não foi analisada.
          */
-        public long contarPorTitulo(String titulo) {
-                return count("LOWER(titulo) LIKE LOWER(?1)", "%" + titulo + "%");
+        public long estimarTotal() {
+                Number estimativa = (Number) getEntityManager()
+                                .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = 'album'::regclass")
+                                .getSingleResult();
+                return estimativa.longValue();
         }
 
         /**
-         * Conta álbuns por tipo de artista.
+         * Conta os álbuns que atendem a todos os filtros informados.
          */
-        public long contarPorTipoArtista(TipoArtista tipo) {
-                return getEntityManager()
-                                .createQuery("SELECT COUNT(DISTINCT a) FROM Album a JOIN a.artistas art WHERE art.tipo = :tipo",
-                                                Long.class)
-                                .setParameter("tipo", tipo)
-                                .getSingleResult();
+        public long contarPorFiltro(FiltroAlbum filtro) {
+                CondicoesAlbum condicoes = new CondicoesAlbum(filtro);
+
+                TypedQuery<Long> query = getEntityManager()
+                                .createQuery("SELECT COUNT(a) FROM Album a" + condicoes.where, Long.class);
+                condicoes.parametros.forEach(query::setParameter);
+
+                return query.getSingleResult();
         }
 
         /**
-         * Conta álbuns por nome do artista.
+         * Inicializa artistas, imagens e variantes de uma página de álbuns com uma consulta
+         * por coleção, evitando um carregamento lazy por álbum no mapeamento.
+         * As coleções são buscadas separadamente para não gerar produto cartesiano.
          */
-        public long contarPorNomeArtista(String nomeArtista) {
-                return getEntityManager()
-                                .createQuery(
-                                                "SELECT COUNT(DISTINCT a) FROM Album a JOIN a.artistas art WHERE LOWER(art.nome) LIKE LOWER(:nome)",
-                                                Long.class)
-                                .setParameter("nome", "%" + nomeArtista + "%")
-                                .getSingleResult();
+        private List<Album> carregarAssociacoes(List<Album> albuns) {
+                if (albuns.isEmpty()) {
+                        return albuns;
+                }
+
+                List<Long> ids = albuns.stream().map(Album::getId).toList();
+                getEntityManager()
+                                .createQuery("SELECT DISTINCT a FROM Album a LEFT JOIN FETCH a.artistas WHERE a.id IN ?1",
+                                                Album.class)
+                                .setParameter(1, ids)
+                                .getResultList();
+                getEntityManager()
+                                .createQuery("SELECT DISTINCT a FROM Album a LEFT JOIN FETCH a.imagens WHERE a.id IN ?1",
+                                                Album.class)
+                                .setParameter(1, ids)
+                                .getResultList();
+                getEntityManager()
+                                .createQuery("SELECT DISTINCT i FROM AlbumImagem i LEFT JOIN FETCH i.variantes "
+                                                + "WHERE i.album.id IN ?1", AlbumImagem.class)
+                                .setParameter(1, ids)
+                                .getResultList();
+                return albuns;
+        }
+
+        /**
+         * Monta a cláusula WHERE e os parâmetros nomeados a partir dos filtros
+         * informados. Nome e tipo do artista entram no mesmo EXISTS para se
+         * referirem ao mesmo artista; o EXISTS evita o DISTINCT que o JOIN com
+         * artista_album exigiria.
+         */
+        private static final class CondicoesAlbum {
+
+                private final Map<String, Object> parametros = new LinkedHashMap<>();
+                private final String where;
+
+                CondicoesAlbum(FiltroAlbum filtro) {
+                        List<String> condicoes = new ArrayList<>();
+
+                        if (filtro.possuiTitulo()) {
+                                condicoes.add("LOWER(a.titulo) LIKE :titulo " + PadraoBusca.ESCAPE);
+                                parametros.put("titulo", PadraoBusca.contem(filtro.getTitulo()));
+                        }
+                        if (filtro.getAnoInicio() != null) {
+                                condicoes.add("a.anoLancamento >= :anoInicio");
+                                parametros.put("anoInicio", filtro.getAnoInicio());
+                        }
+                        if (filtro.getAnoFim() != null) {
+                                condicoes.add("a.anoLancamento <= :anoFim");
+                                parametros.put("anoFim", filtro.getAnoFim());
+                        }
+
+                        List<String> condicoesArtista = new ArrayList<>();
+                        if (filtro.possuiNomeArtista()) {
+                                condicoesArtista.add("LOWER(art.nome) LIKE :nomeArtista " + PadraoBusca.ESCAPE);
+                                parametros.put("nomeArtista", PadraoBusca.contem(filtro.getNomeArtista()));
+                        }
+                        if (filtro.getTipoArtista() != null) {
+                                condicoesArtista.add("art.tipo = :tipoArtista");
+                                parametros.put("tipoArtista", filtro.getTipoArtista());
+                        }
+                        if (!condicoesArtista.isEmpty()) {
+                                condicoes.add("EXISTS (SELECT 1 FROM Artista art JOIN art.albuns alb WHERE alb = a AND "
+                                                + String.join(" AND ", condicoesArtista) + ")");
+                        }
+
+                        where = condicoes.isEmpty() ? "" : " WHERE " + String.join(" AND ", condicoes);
+                }
         }
 }
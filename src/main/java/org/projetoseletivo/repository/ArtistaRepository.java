@@ -2,15 +2,30 @@ package org.projetoseletivo.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.projetoseletivo.domain.entity.Artista;
 import org.projetoseletivo.domain.enums.Ordem;
 import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Repositório para operações de persistência da entidade Artista.
+ *
+ * As listagens paginadas são feitas em duas fases: primeiro a página de IDs é
+ * resolvida no banco (LIMIT/OFFSET sobre a tabela artista, a partir da posição
+ * {@code primeiro}, com no máximo {@code limite} registros), depois os álbuns
+ * são carregados apenas para esses IDs. Combinar JOIN FETCH com paginação faria
+ * o Hibernate paginar em memória.
  */
 @ApplicationScoped
 public class ArtistaRepository implements PanacheRepository<Artista> {
@@ -18,44 +33,87 @@ public class ArtistaRepository implements PanacheRepository<Artista> {
     /**
      * Busca artistas por nome (parcial, case-insensitive) com ordenação e álbuns.
      */
-    public List<Artista> buscarPorNome(String nome, Ordem ordem, int pagina, int tamanhoPagina) {
-        String orderDirection = ordem == Ordem.DESC ? "DESC" : "ASC";
-        String query = "SELECT DISTINCT a FROM Artista a LEFT JOIN FETCH a.albuns WHERE LOWER(a.nome) LIKE LOWER(?1) ORDER BY a.nome "
-                + orderDirection;
-
-        return getEntityManager().createQuery(query, Artista.class)
-                .setParameter(1, "%" + nome + "%")
-                .setFirstResult(pagina * tamanhoPagina)
-                .setMaxResults(tamanhoPagina)
-                .getResultList();
+    public List<Artista> buscarPorNome(String nome, Ordem ordem, int primeiro, int limite) {
+        TypedQuery<Long> query = getEntityManager()
+                .createQuery("SELECT a.id FROM Artista a WHERE LOWER(a.nome) LIKE ?1 " + PadraoBusca.ESCAPE + " "
+                        + ordenacao(ordem), Long.class)
+                .setParameter(1, PadraoBusca.contem(nome));
+
+        return carregarComAlbuns(paginar(query, primeiro, limite));
+    }
+
+    /**
+     * Busca artistas por nome (parcial, case-insensitive) ordenados pela
+     * similaridade de trigramas com o termo (pg_trgm), mais relevantes primeiro.
+     */
+    public List<Artista> buscarPorNomePorRelevancia(String nome, int primeiro, int limite) {
+        TypedQuery<Long> query = getEntityManager()
+                .createQuery("SELECT a.id FROM Artista a WHERE LOWER(a.nome) LIKE ?1 " + PadraoBusca.ESCAPE
+                        + " ORDER BY function('similarity', LOWER(a.nome), ?2) DESC, a.nome, a.id", Long.class)
+                .setParameter(1, PadraoBusca.contem(nome))
+                .setParameter(2, PadraoBusca.normalizar(nome));
+
+        return carregarComAlbuns(paginar(query, primeiro, limite));
     }
 
     /**
      * Busca todos os artistas com paginação, ordenação e álbuns.
      */
-    public List<Artista> listarTodos(Ordem ordem, int pagina, int tamanhoPagina) {
-        String orderDirection = ordem == Ordem.DESC ? "DESC" : "ASC";
-        String query = "SELECT DISTINCT a FROM Artista a LEFT JOIN FETCH a.albuns ORDER BY a.nome " + orderDirection;
+    public List<Artista> listarTodos(Ordem ordem, int primeiro, int limite) {
+        TypedQuery<Long> query = getEntityManager()
+                .createQuery("SELECT a.id FROM Artista a " + ordenacao(ordem), Long.class);
 
-        return getEntityManager().createQuery(query, Artista.class)
-                .setFirstResult(pagina * tamanhoPagina)
-                .setMaxResults(tamanhoPagina)
-                .getResultList();
+        return carregarComAlbuns(paginar(query, primeiro, limite));
+    }
+
+    /**
+     * Lista artistas por chave (keyset) a partir do último par (nome, ID)
+     * entregue. A direção da ordenação precisa ser a mesma usada na página
+     * anterior.
+     */
+    public List<Artista> listarAposCursor(Ordem ordem, String nome, Long id, int limite) {
+        TypedQuery<Long> query;
+        if (id == null) {
+            query = getEntityManager()
+                    .createQuery("SELECT a.id FROM Artista a " + ordenacao(ordem), Long.class);
+        } else {
+            String comparacao = ordem == Ordem.DESC ? "<" : ">";
+            query = getEntityManager()
+                    .createQuery("SELECT a.id FROM Artista a WHERE (a.nome, a.id) " + comparacao + " (?1, ?2) "
+                            + ordenacao(ordem), Long.class)
+                    .setParameter(1, nome)
+                    .setParameter(2, id);
+        }
+
+        return carregarComAlbuns(query.setMaxResults(limite).getResultList());
     }
 
     /**
      * Busca artistas por tipo (SOLO ou BANDA) com álbuns.
      */
-    public List<Artista> buscarPorTipo(TipoArtista tipo, Ordem ordem, int pagina, int tamanhoPagina) {
-        String orderDirection = ordem == Ordem.DESC ? "DESC" : "ASC";
-        String query = "SELECT DISTINCT a FROM Artista a LEFT JOIN FETCH a.albuns WHERE a.tipo = ?1 ORDER BY a.nome "
-                + orderDirection;
-
-        return getEntityManager().createQuery(query, Artista.class)
-                .setParameter(1, tipo)
-                .setFirstResult(pagina * tamanhoPagina)
-                .setMaxResults(tamanhoPagina)
-                .getResultList();
+    public List<Artista> buscarPorTipo(TipoArtista tipo, Ordem ordem, int primeiro, int limite) {
+        TypedQuery<Long> query = getEntityManager()
+                .createQuery("SELECT a.id FROM Artista a WHERE a.tipo = ?1 " + ordenacao(ordem), Long.class)
+                .setParameter(1, tipo);
+
+        return carregarComAlbuns(paginar(query, primeiro, limite));
+    }
+
+    /**
+     * Versão de um artista para GET condicional, sem carregar o grafo: última
+     * alteração entre o artista e seus álbuns, e a quantidade de álbuns (para
+     * detectar remoções).
+     */
+    public Optional<VersaoRecurso> buscarVersao(Long id) {
+        return getEntityManager()
+                .createQuery("SELECT greatest(coalesce(a.atualizadoEm, a.criadoEm), "
+                        + "(SELECT max(coalesce(alb.atualizadoEm, alb.criadoEm)) FROM a.albuns alb)), "
+                        + "(SELECT count(alb) FROM a.albuns alb) "
+                        + "FROM Artista a WHERE a.id = ?1", Object[].class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .map(linha -> VersaoRecurso.de((LocalDateTime) linha[0], "artista", id, linha[0], linha[1]));
     }
 
     /**
@@ -65,11 +123,23 @@ public class ArtistaRepository implements PanacheRepository<Artista> {
         return count();
     }
 
+    /**
+     * Estimativa do total de artistas a partir das estatísticas do PostgreSQL
+     * (pg_class.reltuples), sem percorrer a tabela. Retorna -1 se a tabela
+     * ainda não foi analisada.
+     */
+    public long estimarTotal() {
+        Number estimativa = (Number) getEntityManager()
+                .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = 'artista'::regclass")
+                .getSingleResult();
+        return estimativa.longValue();
+    }
+
     /**
      * Conta artistas por nome.
      */
     public long contarPorNome(String nome) {
-        return count("LOWER(nome) LIKE LOWER(?1)", "%" + nome + "%");
+        return count("LOWER(nome) LIKE ?1 " + PadraoBusca.ESCAPE, PadraoBusca.contem(nome));
     }
 
     /**
@@ -80,10 +150,71 @@ public class ArtistaRepository implements PanacheRepository<Artista> {
     }
 
     /**
-     * Busca artista por ID com álbuns carregados.
+     * Busca artista por ID com álbuns carregados. O resultado fica no cache de
+     * consultas; artista e coleção vêm do cache de segundo nível.
      */
     public Optional<Artista> buscarPorIdComAlbuns(Long id) {
         return find("SELECT a FROM Artista a LEFT JOIN FETCH a.albuns WHERE a.id = ?1", id)
-                .firstResultOptional();
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .singleResultOptional();
+    }
+
+    /**
+     * Carrega vários artistas por ID de uma vez: os que já estão na sessão ou
+     * no cache de segundo nível não vão ao banco, e os demais vêm em uma única
+     * consulta. IDs inexistentes ficam fora do mapa.
+     */
+    public Map<Long, Artista> buscarPorIds(Collection<Long> ids) {
+        List<Long> distintos = ids.stream().distinct().toList();
+        if (distintos.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Artista> encontrados = new LinkedHashMap<>();
+        for (Artista artista : getSession().findMultiple(Artista.class, distintos)) {
+            if (artista != null) {
+                encontrados.put(artista.getId(), artista);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Ordena por nome e desempata por ID para que a paginação seja estável entre
+     * páginas quando houver nomes repetidos.
+     */
+    private String ordenacao(Ordem ordem) {
+        String direcao = ordem == Ordem.DESC ? "DESC" : "ASC";
+        return "ORDER BY a.nome " + direcao + ", a.id " + direcao;
+    }
+
+    private List<Long> paginar(TypedQuery<Long> query, int primeiro, int limite) {
+        return query.setFirstResult(primeiro)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    /**
+     * Segunda fase da paginação: carrega os artistas da página com seus álbuns
+     * em uma única consulta e preserva a ordem dos IDs recebidos.
+     */
+    private List<Artista> carregarComAlbuns(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Artista> artistas = getEntityManager()
+                .createQuery("SELECT DISTINCT a FROM Artista a LEFT JOIN FETCH a.albuns WHERE a.id IN ?1",
+                        Artista.class)
+                .setParameter(1, ids)
+                .getResultList();
+
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posicoes.put(ids.get(i), i);
+        }
+        return artistas.stream()
+                .sorted(Comparator.comparing(artista -> posicoes.get(artista.getId())))
+                .toList();
     }
 }
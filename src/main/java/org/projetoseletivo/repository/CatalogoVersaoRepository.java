@@ -0,0 +1,45 @@
+package org.projetoseletivo.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Repositório da versão do catálogo: a soma dos incrementos em
+ * {@code catalogo_versao}, uma linha por transação que escreveu em artista,
+ * album, artista_album, album_imagem ou album_imagem_variante (gravada por
+ * gatilhos do banco).
+ */
+@ApplicationScoped
+public class CatalogoVersaoRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Versão atual. Só conta as transações confirmadas, então a versão lida
+     * nunca inclui uma escrita cujos dados ainda não estão visíveis.
+     */
+    public long buscarAtual() {
+        Number versao = (Number) entityManager
+                .createNativeQuery("SELECT coalesce(sum(incremento), 0) FROM catalogo_versao")
+                .getSingleResult();
+        return versao.longValue();
+    }
+
+    /**
+     * Soma as linhas das transações confirmadas na linha base (xid 0), num
+     * único comando: quem lê a versão vê o total antes ou depois, nunca um
+     * valor intermediário.
+     */
+    public void compactar() {
+        entityManager
+                .createNativeQuery("WITH removidas AS ("
+                        + " DELETE FROM catalogo_versao WHERE xid <> '0' RETURNING incremento)"
+                        + " INSERT INTO catalogo_versao (xid, incremento)"
+                        + " SELECT '0', sum(incremento) FROM removidas HAVING count(*) > 0"
+                        + " ON CONFLICT (xid) DO UPDATE"
+                        + " SET incremento = catalogo_versao.incremento + EXCLUDED.incremento")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,96 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.projetoseletivo.domain.entity.EventoCatalogo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório do outbox de eventos do catálogo.
+ */
+@ApplicationScoped
+public class EventoCatalogoRepository implements PanacheRepository<EventoCatalogo> {
+
+    /**
+     * Grava o evento. A coluna {@code xid} recebe a transação corrente, que
+     * define a posição do evento no feed (ver {@link #buscarApos}).
+     */
+    public void registrar(EventoCatalogo evento) {
+        persist(evento);
+    }
+
+    /**
+     * Envia um aviso no canal pela transação corrente. O PostgreSQL só o
+     * entrega aos ouvintes quando a transação confirma.
+     */
+    public void notificar(String canal, String payload) {
+        getEntityManager()
+                .createNativeQuery("SELECT pg_notify(?1, ?2)")
+                .setParameter(1, canal)
+                .setParameter(2, payload)
+                .getSingleResult();
+    }
+
+    /**
+     * Transação que gravou o evento, a posição dele no feed.
+     *
+     * @return vazio se o evento não existe (removido pela retenção)
+     */
+    public Optional<String> buscarTransacao(long id) {
+        List<?> transacao = getEntityManager()
+                .createNativeQuery("SELECT CAST(xid AS text) FROM evento_catalogo WHERE id = ?1")
+                .setParameter(1, id)
+                .getResultList();
+        return transacao.isEmpty() ? Optional.empty() : Optional.of((String) transacao.get(0));
+    }
+
+    /**
+     * Eventos posteriores à posição ({@code transacao}, {@code id}), na ordem
+     * de confirmação. Os ids vêm da sequência e não são confirmados em ordem;
+     * em vez de serializar as escritas, só são lidos eventos de transações
+     * abaixo do horizonte do snapshot ({@code pg_snapshot_xmin}), todas já
+     * encerradas: um evento confirmado depois sempre tem posição maior que
+     * os já lidos. Uma transação longa aberta atrasa o feed até encerrar.
+     *
+     * @param transacao xid do último evento lido; "0" para ler do início
+     */
+    @SuppressWarnings("unchecked")
+    public List<EventoCatalogo> buscarApos(String transacao, long id, int limite) {
+        return getEntityManager()
+                .createNativeQuery("SELECT * FROM evento_catalogo"
+                        + " WHERE (xid, id) > (CAST(?1 AS xid8), ?2)"
+                        + " AND xid < pg_snapshot_xmin(pg_current_snapshot())"
+                        + " ORDER BY xid, id LIMIT ?3", EventoCatalogo.class)
+                .setParameter(1, transacao)
+                .setParameter(2, id)
+                .setParameter(3, limite)
+                .getResultList();
+    }
+
+    /**
+     * Remove os eventos criados antes de {@code limite}. A remoção vai até a
+     * posição do mais recente deles no feed, então o que sobra é sempre um
+     * sufixo do feed: um consumidor cujo offset ainda existe não perdeu nada.
+     */
+    public long removerAnterioresA(LocalDateTime limite) {
+        List<?> ultimo = getEntityManager()
+                .createNativeQuery("SELECT CAST(xid AS text), id FROM evento_catalogo"
+                        + " WHERE criado_em < ?1 AND xid < pg_snapshot_xmin(pg_current_snapshot())"
+                        + " ORDER BY xid DESC, id DESC LIMIT 1")
+                .setParameter(1, limite)
+                .getResultList();
+        if (ultimo.isEmpty()) {
+            return 0;
+        }
+
+        Object[] posicao = (Object[]) ultimo.get(0);
+        return getEntityManager()
+                .createNativeQuery("DELETE FROM evento_catalogo WHERE (xid, id) <= (CAST(?1 AS xid8), ?2)")
+                .setParameter(1, posicao[0])
+                .setParameter(2, ((Number) posicao[1]).longValue())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,29 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.projetoseletivo.domain.entity.ObjetoRemovido;
+
+import java.util.List;
+
+/**
+ * Repositório da fila de objetos do MinIO a remover.
+ */
+@ApplicationScoped
+public class ObjetoRemovidoRepository implements PanacheRepository<ObjetoRemovido> {
+
+    /**
+     * Próximo lote pendente, bloqueado até o fim da transação. Linhas já
+     * bloqueadas por outra instância são puladas (SKIP LOCKED), então várias
+     * instâncias processam a fila sem repetir objetos.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ObjetoRemovido> bloquearLote(int tamanho, int tentativasMaximas) {
+        return getEntityManager()
+                .createNativeQuery("SELECT * FROM objeto_removido WHERE tentativas < ?1 ORDER BY id LIMIT ?2"
+                        + " FOR UPDATE SKIP LOCKED", ObjetoRemovido.class)
+                .setParameter(1, tentativasMaximas)
+                .setParameter(2, tamanho)
+                .getResultList();
+    }
+}
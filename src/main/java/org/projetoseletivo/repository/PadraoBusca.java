@@ -0,0 +1,36 @@
+package org.projetoseletivo.repository;
+
+import java.util.Locale;
+
+/**
+ * Monta padrões LIKE para busca parcial case-insensitive.
+ *
+ * O termo é convertido para minúsculas no Java, para que a consulta compare
+ * {@code LOWER(coluna) LIKE ?} e use os índices de trigramas sobre LOWER(coluna),
+ * e os curingas digitados pelo usuário (% e _) são escapados.
+ */
+final class PadraoBusca {
+
+    static final String ESCAPE = "ESCAPE '\\'";
+
+    private PadraoBusca() {
+    }
+
+    /**
+     * Padrão "contém": %termo%.
+     */
+    static String contem(String termo) {
+        return "%" + escapar(normalizar(termo)) + "%";
+    }
+
+    /**
+     * Termo em minúsculas, usado no cálculo de similaridade.
+     */
+    static String normalizar(String termo) {
+        return termo.toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapar(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,51 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.projetoseletivo.domain.entity.UploadMultipart;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório dos uploads multipart em andamento.
+ */
+@ApplicationScoped
+public class UploadMultipartRepository implements PanacheRepository<UploadMultipart> {
+
+    /**
+     * Busca o upload pelo uploadId do MinIO, restrito ao álbum informado.
+     */
+    public Optional<UploadMultipart> buscarPorUploadId(Long albumId, String uploadId) {
+        return find("album.id = ?1 and uploadId = ?2", albumId, uploadId).firstResultOptional();
+    }
+
+    /**
+     * Marca o início da conclusão ou do aborto do upload. Só uma chamada
+     * consegue: a linha fica bloqueada pelo UPDATE até o commit, e as demais
+     * encontram a marca. Uma finalização iniciada antes de {@code abandonadaAntesDe}
+     * foi interrompida e pode ser retomada.
+     *
+     * @return false se outra finalização está em andamento
+     */
+    public boolean marcarFinalizacao(Long id, LocalDateTime abandonadaAntesDe) {
+        return update("finalizandoEm = ?1 where id = ?2 and (finalizandoEm is null or finalizandoEm < ?3)",
+                LocalDateTime.now(), id, abandonadaAntesDe) == 1;
+    }
+
+    /**
+     * Desfaz a marca de {@link #marcarFinalizacao} após uma falha, para que o
+     * upload possa ser concluído ou abortado de novo.
+     */
+    public void liberarFinalizacao(Long id) {
+        update("finalizandoEm = null where id = ?1", id);
+    }
+
+    /**
+     * Uploads criados antes de {@code limite}, os mais antigos primeiro.
+     */
+    public List<UploadMultipart> buscarCriadosAntesDe(LocalDateTime limite, int quantidade) {
+        return find("criadoEm < ?1 order by criadoEm", limite).page(0, quantidade).list();
+    }
+}
@@ -1,31 +1,47 @@
 package org.projetoseletivo.resource;
 
+import io.vertx.ext.web.RoutingContext;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.PathPart;
 import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
-import org.projetoseletivo.domain.entity.Album;
 import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.enums.VarianteImagem;
+import org.projetoseletivo.dto.request.ArquivoImagem;
+import org.projetoseletivo.dto.request.ConfirmacaoUploadRequest;
+import org.projetoseletivo.dto.request.UploadDiretoRequest;
+import org.projetoseletivo.dto.request.UploadMultipartRequest;
+import org.projetoseletivo.dto.response.ConteudoImagem;
 import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.ParteResponse;
+import org.projetoseletivo.dto.response.UploadMultipartResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
 import org.projetoseletivo.repository.AlbumImagemRepository;
 import org.projetoseletivo.repository.AlbumRepository;
+import org.projetoseletivo.service.AlbumImagemService;
+import org.projetoseletivo.service.ImagemCacheService;
 import org.projetoseletivo.service.MinioService;
+import org.projetoseletivo.service.UploadMultipartService;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Resource REST para upload de imagens de capa dos álbuns.
@@ -44,10 +60,21 @@ public class AlbumImagemResource {
     @Inject
     AlbumImagemRepository albumImagemRepository;
 
+    @Inject
+    AlbumImagemService albumImagemService;
+
+    @Inject
+    UploadMultipartService uploadMultipartService;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    ImagemCacheService imagemCacheService;
+
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
-    @Transactional
     @Operation(summary = "Upload de imagens", description = "Faz upload de uma ou mais imagens de capa do álbum")
     @APIResponse(responseCode = "201", description = "Imagens enviadas com sucesso")
     @APIResponse(responseCode = "404", description = "Álbum não encontrado")
@@ -57,8 +84,7 @@ public class AlbumImagemResource {
             @RestForm("arquivos") List<FileUpload> arquivos) {
 
         // Verificar se álbum existe
-        Optional<Album> albumOpt = albumRepository.findByIdOptional(albumId);
-        if (albumOpt.isEmpty()) {
+        if (albumRepository.findByIdOptional(albumId).isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("{\"erro\": \"Álbum não encontrado\"}")
                     .build();
@@ -70,50 +96,24 @@ public class AlbumImagemResource {
                     .build();
         }
 
-        Album album = albumOpt.get();
-        List<ImagemResponse> imagensEnviadas = new ArrayList<>();
-
-        for (FileUpload arquivo : arquivos) {
-            try (FileInputStream fis = new FileInputStream(arquivo.uploadedFile().toFile())) {
-                // Gerar nome único para o arquivo
-                String extensao = getExtensao(arquivo.fileName());
-                String objectKey = String.format("album-%d/%s.%s",
-                        albumId,
-                        UUID.randomUUID().toString(),
-                        extensao);
-
-                // Upload para MinIO
-                minioService.upload(objectKey, fis, arquivo.size(), arquivo.contentType());
-
-                // Salvar referência no banco
-                AlbumImagem imagem = AlbumImagem.builder()
-                        .album(album)
-                        .bucket(minioService.getBucketName())
-                        .objectKey(objectKey)
-                        .contentType(arquivo.contentType())
-                        .build();
-
-                albumImagemRepository.persist(imagem);
-
-                // Gerar URL pré-assinada
-                String url = minioService.gerarUrlPreAssinada(imagem.getBucket(), objectKey);
-
-                imagensEnviadas.add(ImagemResponse.builder()
-                        .id(imagem.getId())
-                        .bucket(imagem.getBucket())
-                        .objectKey(imagem.getObjectKey())
-                        .contentType(imagem.getContentType())
-                        .url(url)
-                        .criadoEm(imagem.getCriadoEm())
-                        .build());
-
-            } catch (IOException e) {
-                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity("{\"erro\": \"Erro ao processar arquivo: " + arquivo.fileName() + "\"}")
-                        .build();
-            }
+        List<ArquivoImagem> imagens = arquivos.stream()
+                .map(arquivo -> new ArquivoImagem(arquivo.uploadedFile(), arquivo.fileName(), arquivo.size(),
+                        arquivo.contentType()))
+                .toList();
+
+        // Envio ao MinIO em paralelo, fora de transação; gravação em lote no final
+        List<ImagemResponse> imagensEnviadas;
+        try {
+            imagensEnviadas = albumImagemService.enviar(albumId, imagens);
+        } catch (IOException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                    .build();
         }
 
+        // Gerar URLs pré-assinadas em lote
+        minioService.preencherUrls(imagensEnviadas);
+
         return Response.status(Response.Status.CREATED).entity(imagensEnviadas).build();
     }
 
@@ -132,24 +132,246 @@ public class AlbumImagemResource {
 
         List<AlbumImagem> imagens = albumImagemRepository.buscarPorAlbumId(albumId);
 
-        List<ImagemResponse> responses = imagens.stream()
-                .map(img -> ImagemResponse.builder()
-                        .id(img.getId())
-                        .bucket(img.getBucket())
-                        .objectKey(img.getObjectKey())
-                        .contentType(img.getContentType())
-                        .url(minioService.gerarUrlPreAssinada(img.getBucket(), img.getObjectKey()))
-                        .criadoEm(img.getCriadoEm())
-                        .build())
-                .collect(Collectors.toList());
+        List<ImagemResponse> responses = albumMapper.mapImagens(imagens);
+        minioService.preencherUrls(responses);
 
         return Response.ok(responses).build();
     }
 
-    private String getExtensao(String fileName) {
-        if (fileName == null || !fileName.contains(".")) {
-            return "jpg";
+    @GET
+    @Path("/{imagemId}/conteudo")
+    @Produces(MediaType.WILDCARD)
+    @Operation(summary = "Conteúdo da imagem", description = "Serve a imagem (ou uma variante) pela API, para clientes sem acesso ao MinIO. Suporta Range e ETag")
+    @APIResponse(responseCode = "200", description = "Imagem completa")
+    @APIResponse(responseCode = "206", description = "Trecho pedido no cabeçalho Range")
+    @APIResponse(responseCode = "304", description = "Não modificada (If-None-Match)")
+    @APIResponse(responseCode = "404", description = "Imagem não encontrada")
+    @APIResponse(responseCode = "416", description = "Range fora do tamanho da imagem")
+    public Response conteudo(
+            @PathParam("albumId") Long albumId,
+            @PathParam("imagemId") Long imagemId,
+            @Parameter(description = "Variante redimensionada (MINIATURA, MEDIA); vazio para a original")
+            @QueryParam("variante") VarianteImagem variante,
+            @HeaderParam("Range") String range,
+            @HeaderParam("If-Range") String ifRange,
+            @Context Request request,
+            @Context RoutingContext contexto) {
+
+        Optional<ConteudoImagem> conteudoOpt = albumImagemRepository.buscarObjectKey(albumId, imagemId, variante)
+                .flatMap(imagemCacheService::abrir);
+        if (conteudoOpt.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"erro\": \"Imagem não encontrada\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+
+        ConteudoImagem conteudo = conteudoOpt.get();
+        // O arquivo do cache fica reservado até o fim do envio, mesmo se a
+        // entrada for removida enquanto isso
+        contexto.addEndHandler(fim -> imagemCacheService.liberar(conteudo));
+
+        EntityTag etag = new EntityTag(conteudo.etag());
+        Date ultimaAlteracao = Date.from(conteudo.ultimaAlteracao().toInstant());
+
+        Response.ResponseBuilder naoModificada = request.evaluatePreconditions(ultimaAlteracao, etag);
+        if (naoModificada != null) {
+            return naoModificada.header(HttpHeaders.CACHE_CONTROL, conteudo.cacheControl()).build();
+        }
+
+        // If-Range com outra versão: o cliente recebe o arquivo inteiro
+        boolean rangeValido = ifRange == null || ifRange.equals(etag.toString());
+        Optional<IntervaloBytes> intervalo = rangeValido
+                ? IntervaloBytes.interpretar(range, conteudo.tamanho())
+                : Optional.empty();
+        if (intervalo.isPresent() && !intervalo.get().satisfazivel()) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + conteudo.tamanho())
+                    .build();
+        }
+
+        long inicio = intervalo.map(IntervaloBytes::inicio).orElse(0L);
+        long tamanho = intervalo.map(IntervaloBytes::tamanho).orElse(conteudo.tamanho());
+
+        Response.ResponseBuilder resposta = intervalo.isPresent()
+                ? Response.status(Response.Status.PARTIAL_CONTENT)
+                        .header("Content-Range", intervalo.get().contentRange(conteudo.tamanho()))
+                : Response.ok();
+        resposta.type(conteudo.contentType())
+                .tag(etag)
+                .lastModified(ultimaAlteracao)
+                .header(HttpHeaders.CACHE_CONTROL, conteudo.cacheControl())
+                .header("Accept-Ranges", "bytes");
+
+        if (conteudo.emCache()) {
+            // Enviado com sendfile, direto do disco para o socket
+            return resposta.entity(new PathPart(conteudo.arquivo(), inicio, tamanho)).build();
+        }
+
+        // Grande demais para o cache: repassa do MinIO só o trecho pedido
+        Long trecho = intervalo.isPresent() ? tamanho : null;
+        StreamingOutput corpo = saida -> {
+            try (InputStream origem = minioService.download(conteudo.objectKey(), inicio, trecho)) {
+                origem.transferTo(saida);
+            }
+        };
+        return resposta.entity(corpo).header(HttpHeaders.CONTENT_LENGTH, tamanho).build();
+    }
+
+    @POST
+    @Path("/direto")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Autorizar envio direto", description = "Gera um formulário pré-assinado para enviar a imagem direto ao MinIO")
+    @APIResponse(responseCode = "200", description = "Formulário pré-assinado")
+    @APIResponse(responseCode = "400", description = "Content-Type não permitido")
+    @APIResponse(responseCode = "404", description = "Álbum não encontrado")
+    public Response autorizarEnvioDireto(
+            @PathParam("albumId") Long albumId,
+            @Valid UploadDiretoRequest request) {
+
+        if (albumRepository.findByIdOptional(albumId).isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"erro\": \"Álbum não encontrado\"}")
+                    .build();
         }
-        return fileName.substring(fileName.lastIndexOf(".") + 1);
+
+        return Response.ok(albumImagemService.autorizarEnvioDireto(albumId, request)).build();
+    }
+
+    @POST
+    @Path("/direto/confirmar")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Confirmar envio direto", description = "Verifica a imagem enviada ao MinIO e a registra no álbum")
+    @APIResponse(responseCode = "201", description = "Imagem registrada")
+    @APIResponse(responseCode = "400", description = "Arquivo não encontrado, já registrado ou fora dos limites")
+    @APIResponse(responseCode = "404", description = "Álbum não encontrado")
+    public Response confirmarEnvioDireto(
+            @PathParam("albumId") Long albumId,
+            @Valid ConfirmacaoUploadRequest request) {
+
+        if (albumRepository.findByIdOptional(albumId).isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"erro\": \"Álbum não encontrado\"}")
+                    .build();
+        }
+
+        ImagemResponse imagem = albumImagemService.confirmarEnvioDireto(albumId, request.getObjectKey());
+        minioService.preencherUrls(List.of(imagem));
+        return Response.status(Response.Status.CREATED).entity(imagem).build();
+    }
+
+    @POST
+    @Path("/multipart")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Iniciar upload em partes", description = "Inicia um upload retomável para capas grandes")
+    @APIResponse(responseCode = "201", description = "Upload iniciado")
+    @APIResponse(responseCode = "404", description = "Álbum não encontrado")
+    public Response iniciarMultipart(
+            @PathParam("albumId") Long albumId,
+            @Valid UploadMultipartRequest request) {
+
+        if (albumRepository.findByIdOptional(albumId).isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"erro\": \"Álbum não encontrado\"}")
+                    .build();
+        }
+
+        UploadMultipartResponse upload = uploadMultipartService.iniciar(albumId, request);
+        return Response.status(Response.Status.CREATED).entity(upload).build();
+    }
+
+    @GET
+    @Path("/multipart/{uploadId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Estado do upload em partes", description = "Lista as partes já recebidas, para retomar o upload")
+    @APIResponse(responseCode = "200", description = "Partes recebidas")
+    @APIResponse(responseCode = "404", description = "Upload não encontrado")
+    public Response buscarMultipart(
+            @PathParam("albumId") Long albumId,
+            @PathParam("uploadId") String uploadId) {
+
+        return uploadMultipartService.buscar(albumId, uploadId)
+                .map(upload -> Response.ok(upload).build())
+                .orElse(uploadNaoEncontrado());
+    }
+
+    @PUT
+    @Path("/multipart/{uploadId}/partes/{numero}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Enviar parte", description = "Envia uma parte (1 a 10000) do arquivo; reenviar substitui a parte")
+    @APIResponse(responseCode = "200", description = "Parte recebida")
+    @APIResponse(responseCode = "400", description = "Parte inválida ou incompleta")
+    @APIResponse(responseCode = "404", description = "Upload não encontrado")
+    @APIResponse(responseCode = "411", description = "Content-Length não informado")
+    public Response enviarParte(
+            @PathParam("albumId") Long albumId,
+            @PathParam("uploadId") String uploadId,
+            @Parameter(description = "Número da parte") @PathParam("numero") int numero,
+            @HeaderParam("Content-Length") Long tamanho,
+            InputStream conteudo) {
+
+        if (tamanho == null) {
+            return Response.status(Response.Status.LENGTH_REQUIRED)
+                    .entity("{\"erro\": \"Content-Length é obrigatório\"}")
+                    .build();
+        }
+
+        Optional<ParteResponse> parte;
+        try {
+            parte = uploadMultipartService.enviarParte(albumId, uploadId, numero, conteudo, tamanho);
+        } catch (IOException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\": \"" + e.getMessage() + "\"}")
+                    .build();
+        }
+
+        return parte
+                .map(recebida -> Response.ok(recebida).build())
+                .orElse(uploadNaoEncontrado());
+    }
+
+    @POST
+    @Path("/multipart/{uploadId}/concluir")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Concluir upload em partes", description = "Junta as partes enviadas e registra a imagem")
+    @APIResponse(responseCode = "201", description = "Imagem registrada")
+    @APIResponse(responseCode = "400", description = "Nenhuma parte enviada")
+    @APIResponse(responseCode = "404", description = "Upload não encontrado")
+    public Response concluirMultipart(
+            @PathParam("albumId") Long albumId,
+            @PathParam("uploadId") String uploadId) {
+
+        Optional<ImagemResponse> imagem = uploadMultipartService.concluir(albumId, uploadId);
+        if (imagem.isEmpty()) {
+            return uploadNaoEncontrado();
+        }
+
+        minioService.preencherUrls(List.of(imagem.get()));
+        return Response.status(Response.Status.CREATED).entity(imagem.get()).build();
+    }
+
+    @DELETE
+    @Path("/multipart/{uploadId}")
+    @Operation(summary = "Abortar upload em partes", description = "Descarta as partes já enviadas")
+    @APIResponse(responseCode = "204", description = "Upload abortado")
+    @APIResponse(responseCode = "404", description = "Upload não encontrado")
+    public Response abortarMultipart(
+            @PathParam("albumId") Long albumId,
+            @PathParam("uploadId") String uploadId) {
+
+        if (!uploadMultipartService.abortar(albumId, uploadId)) {
+            return uploadNaoEncontrado();
+        }
+        return Response.noContent().build();
+    }
+
+    private Response uploadNaoEncontrado() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"erro\": \"Upload não encontrado\"}")
+                .build();
     }
 }
@@ -3,19 +3,26 @@ package org.projetoseletivo.resource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.domain.enums.ModoTotal;
 import org.projetoseletivo.domain.enums.TipoArtista;
 import org.projetoseletivo.dto.request.AlbumRequest;
+import org.projetoseletivo.dto.request.FiltroAlbum;
 import org.projetoseletivo.dto.response.AlbumResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 import org.projetoseletivo.service.AlbumService;
 
 import java.util.Optional;
@@ -34,27 +41,64 @@ public class AlbumResource {
     AlbumService albumService;
 
     @GET
-    @Operation(summary = "Listar álbuns", description = "Lista álbuns com paginação e filtros parametrizados")
+    @Operation(summary = "Listar álbuns", description = "Lista álbuns com paginação e filtros combináveis (título, artista, tipo e faixa de anos)")
+    @APIResponse(responseCode = "304", description = "Listagem não modificada (If-None-Match / If-Modified-Since)")
     @APIResponse(responseCode = "200", description = "Lista de álbuns", content = @Content(schema = @Schema(implementation = PaginacaoResponse.class)))
     public Response listar(
             @Parameter(description = "Filtrar por título (parcial)") @QueryParam("titulo") String titulo,
             @Parameter(description = "Filtrar por nome do artista") @QueryParam("artista") String nomeArtista,
             @Parameter(description = "Filtrar por tipo de artista (SOLO ou BANDA)") @QueryParam("tipo") TipoArtista tipoArtista,
-            @Parameter(description = "Número da página (0-indexed)") @QueryParam("pagina") @DefaultValue("0") int pagina,
-            @Parameter(description = "Tamanho da página") @QueryParam("tamanho") @DefaultValue("10") int tamanho) {
+            @Parameter(description = "Ano de lançamento mínimo (inclusive)") @QueryParam("anoInicio") Integer anoInicio,
+            @Parameter(description = "Ano de lançamento máximo (inclusive)") @QueryParam("anoFim") Integer anoFim,
+            @Parameter(description = "Número da página (0-indexed)") @QueryParam("pagina") @DefaultValue("0") @Min(0) int pagina,
+            @Parameter(description = "Tamanho da página") @QueryParam("tamanho") @DefaultValue("10") @Min(1) int tamanho,
+            @Parameter(description = "Paginação por cursor: envie vazio na primeira página e depois o proximoCursor recebido") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Cálculo do total: EXATO (padrão), ESTIMADO ou NENHUM") @QueryParam("total") @DefaultValue("EXATO") ModoTotal total,
+            @Parameter(description = "Ordenar a busca por título pela relevância (similaridade com o termo)") @QueryParam("relevancia") @DefaultValue("false") boolean relevancia,
+            @Context Request request,
+            @Context UriInfo uriInfo) {
 
-        PaginacaoResponse<AlbumResponse> response = albumService.listar(titulo, nomeArtista, tipoArtista, pagina,
-                tamanho);
-        return Response.ok(response).build();
+        FiltroAlbum filtro = FiltroAlbum.builder()
+                .titulo(titulo)
+                .nomeArtista(nomeArtista)
+                .tipoArtista(tipoArtista)
+                .anoInicio(anoInicio)
+                .anoFim(anoFim)
+                .build();
+
+        if (cursor != null && filtro.possuiFiltro()) {
+            throw new IllegalArgumentException("Paginação por cursor não aceita filtros");
+        }
+
+        VersaoRecurso versao = albumService.buscarVersaoListagem(uriInfo.getRequestUri().getRawQuery());
+        Optional<Response> naoModificado = RespostaCondicional.naoModificado(request, versao);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+
+        PaginacaoResponse<AlbumResponse> response = cursor != null
+                ? albumService.listarPorCursor(cursor, tamanho)
+                : albumService.listar(filtro, pagina, tamanho, total, relevancia);
+        return RespostaCondicional.ok(response, versao);
     }
 
     @GET
     @Path("/{id}")
     @Operation(summary = "Buscar álbum por ID", description = "Retorna um álbum específico com artistas e imagens")
     @APIResponse(responseCode = "200", description = "Álbum encontrado")
+    @APIResponse(responseCode = "304", description = "Álbum não modificado (If-None-Match / If-Modified-Since)")
     @APIResponse(responseCode = "404", description = "Álbum não encontrado")
-    public Response buscarPorId(@PathParam("id") Long id) {
-        Optional<AlbumResponse> response = albumService.buscarPorId(id);
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
+        Optional<VersaoRecurso> versao = albumService.buscarVersao(id);
+        Optional<AlbumResponse> response = Optional.empty();
+
+        if (versao.isPresent()) {
+            Optional<Response> naoModificado = RespostaCondicional.naoModificado(request, versao.get());
+            if (naoModificado.isPresent()) {
+                return naoModificado.get();
+            }
+            response = albumService.buscarPorId(id);
+        }
 
         if (response.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -62,7 +106,7 @@ public class AlbumResource {
                     .build();
         }
 
-        return Response.ok(response.get()).build();
+        return RespostaCondicional.ok(response.get(), versao.get());
     }
 
     @POST
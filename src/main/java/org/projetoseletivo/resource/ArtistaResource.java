@@ -3,20 +3,26 @@ package org.projetoseletivo.resource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.domain.enums.ModoTotal;
 import org.projetoseletivo.domain.enums.Ordem;
 import org.projetoseletivo.domain.enums.TipoArtista;
 import org.projetoseletivo.dto.request.ArtistaRequest;
 import org.projetoseletivo.dto.response.ArtistaResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 import org.projetoseletivo.service.ArtistaService;
 
 import java.util.Optional;
@@ -36,25 +42,53 @@ public class ArtistaResource {
 
     @GET
     @Operation(summary = "Listar artistas", description = "Lista artistas com paginação e filtros")
+    @APIResponse(responseCode = "304", description = "Listagem não modificada (If-None-Match / If-Modified-Since)")
     @APIResponse(responseCode = "200", description = "Lista de artistas", content = @Content(schema = @Schema(implementation = PaginacaoResponse.class)))
     public Response listar(
             @Parameter(description = "Filtrar por nome (parcial)") @QueryParam("nome") String nome,
             @Parameter(description = "Filtrar por tipo (SOLO ou BANDA)") @QueryParam("tipo") TipoArtista tipo,
             @Parameter(description = "Ordenação (ASC ou DESC)") @QueryParam("ordem") @DefaultValue("ASC") Ordem ordem,
-            @Parameter(description = "Número da página (0-indexed)") @QueryParam("pagina") @DefaultValue("0") int pagina,
-            @Parameter(description = "Tamanho da página") @QueryParam("tamanho") @DefaultValue("10") int tamanho) {
+            @Parameter(description = "Número da página (0-indexed)") @QueryParam("pagina") @DefaultValue("0") @Min(0) int pagina,
+            @Parameter(description = "Tamanho da página") @QueryParam("tamanho") @DefaultValue("10") @Min(1) int tamanho,
+            @Parameter(description = "Paginação por cursor: envie vazio na primeira página e depois o proximoCursor recebido") @QueryParam("cursor") String cursor,
+            @Parameter(description = "Cálculo do total: EXATO (padrão), ESTIMADO ou NENHUM") @QueryParam("total") @DefaultValue("EXATO") ModoTotal total,
+            @Parameter(description = "Ordenar a busca por nome pela relevância (similaridade com o termo)") @QueryParam("relevancia") @DefaultValue("false") boolean relevancia,
+            @Context Request request,
+            @Context UriInfo uriInfo) {
 
-        PaginacaoResponse<ArtistaResponse> response = artistaService.listar(nome, tipo, ordem, pagina, tamanho);
-        return Response.ok(response).build();
+        if (cursor != null && ((nome != null && !nome.isBlank()) || tipo != null)) {
+            throw new IllegalArgumentException("Paginação por cursor não aceita filtros");
+        }
+
+        VersaoRecurso versao = artistaService.buscarVersaoListagem(uriInfo.getRequestUri().getRawQuery());
+        Optional<Response> naoModificado = RespostaCondicional.naoModificado(request, versao);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+
+        PaginacaoResponse<ArtistaResponse> response = cursor != null
+                ? artistaService.listarPorCursor(cursor, ordem, tamanho)
+                : artistaService.listar(nome, tipo, ordem, pagina, tamanho, total, relevancia);
+        return RespostaCondicional.ok(response, versao);
     }
 
     @GET
     @Path("/{id}")
     @Operation(summary = "Buscar artista por ID", description = "Retorna um artista específico com seus álbuns")
     @APIResponse(responseCode = "200", description = "Artista encontrado")
+    @APIResponse(responseCode = "304", description = "Artista não modificado (If-None-Match / If-Modified-Since)")
     @APIResponse(responseCode = "404", description = "Artista não encontrado")
-    public Response buscarPorId(@PathParam("id") Long id) {
-        Optional<ArtistaResponse> response = artistaService.buscarPorId(id);
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
+        Optional<VersaoRecurso> versao = artistaService.buscarVersao(id);
+        Optional<ArtistaResponse> response = Optional.empty();
+
+        if (versao.isPresent()) {
+            Optional<Response> naoModificado = RespostaCondicional.naoModificado(request, versao.get());
+            if (naoModificado.isPresent()) {
+                return naoModificado.get();
+            }
+            response = artistaService.buscarPorId(id);
+        }
 
         if (response.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -62,7 +96,7 @@ public class ArtistaResource {
                     .build();
         }
 
-        return Response.ok(response.get()).build();
+        return RespostaCondicional.ok(response.get(), versao.get());
     }
 
     @POST
@@ -0,0 +1,56 @@
+package org.projetoseletivo.resource;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.dto.response.FeedEventosResponse;
+import org.projetoseletivo.service.EventoCatalogoService;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resource REST do feed de alterações do catálogo.
+ *
+ * Roda em threads virtuais: uma leitura aguardando eventos (long polling) não
+ * ocupa uma thread de trabalho durante a espera.
+ */
+@Path("/v1/eventos")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Eventos", description = "Feed de alterações do catálogo")
+@RolesAllowed({ "USER", "ADMIN" })
+public class EventoCatalogoResource {
+
+    @Inject
+    EventoCatalogoService eventoCatalogoService;
+
+    @GET
+    @RunOnVirtualThread
+    @Operation(summary = "Ler eventos", description = "Lista as criações, alterações e remoções de artistas e álbuns após o offset informado, em ordem. Com espera, aguarda eventos novos antes de responder vazio (long polling)")
+    @APIResponse(responseCode = "200", description = "Eventos e o offset da próxima leitura", content = @Content(schema = @Schema(implementation = FeedEventosResponse.class)))
+    @APIResponse(responseCode = "410", description = "Offset já removido pela retenção; ressincronize pela exportação")
+    public Response buscar(
+            @Parameter(description = "Offset: id do último evento já processado (0 para começar do mais antigo)") @QueryParam("aPartirDe") @DefaultValue("0") long aPartirDe,
+            @Parameter(description = "Quantidade máxima de eventos") @QueryParam("limite") @DefaultValue("100") int limite,
+            @Parameter(description = "Segundos a aguardar por eventos novos quando não houver nenhum (0 responde na hora)") @QueryParam("espera") @DefaultValue("0") int espera) {
+
+        Optional<FeedEventosResponse> feed = eventoCatalogoService.buscar(aPartirDe, limite,
+                Duration.ofSeconds(Math.max(0, espera)));
+        if (feed.isEmpty()) {
+            return Response.status(Response.Status.GONE)
+                    .entity("{\"erro\": \"Eventos após o offset " + aPartirDe
+                            + " já foram descartados; ressincronize o catálogo\"}")
+                    .build();
+        }
+        return Response.ok(feed.get()).build();
+    }
+}
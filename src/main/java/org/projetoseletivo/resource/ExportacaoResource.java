@@ -0,0 +1,63 @@
+package org.projetoseletivo.resource;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.domain.enums.FormatoImportacao;
+import org.projetoseletivo.service.ExportacaoService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Resource REST para exportação do catálogo.
+ */
+@Path("/v1/exportacao")
+@Produces(FormatoImportacao.MEDIA_TYPE_NDJSON)
+@Tag(name = "Exportação", description = "Exportação do catálogo em NDJSON")
+@RolesAllowed("ADMIN")
+public class ExportacaoResource {
+
+    /**
+     * Valor de atualizadoDesde para a próxima exportação incremental. Fica um
+     * pouco antes do início desta exportação (ver
+     * {@link ExportacaoService#inicioProximaExportacao()}), então álbuns
+     * alterados nesse intervalo podem vir repetidos.
+     */
+    static final String HEADER_INICIO = "X-Exportacao-Inicio";
+
+    @Inject
+    ExportacaoService exportacaoService;
+
+    @GET
+    @Path("/albuns")
+    @Operation(summary = "Exportar álbuns", description = "Envia todos os álbuns, com artistas e chaves das imagens, em NDJSON (um álbum por linha, ordenados por ID). A resposta é transmitida em partes à medida que é lida do banco")
+    @APIResponse(responseCode = "200", description = "Álbuns em NDJSON; o header " + HEADER_INICIO + " traz o valor para a próxima exportação incremental, que pode repetir álbuns alterados pouco antes desta (aplique-os pelo id)")
+    @APIResponse(responseCode = "400", description = "atualizadoDesde inválido")
+    public Response exportarAlbuns(
+            @Parameter(description = "Exportação incremental: só álbuns criados ou alterados a partir deste momento (ISO-8601, ex.: 2026-01-31T00:00:00)") @QueryParam("atualizadoDesde") String atualizadoDesde) {
+
+        LocalDateTime desde = lerData(atualizadoDesde);
+        LocalDateTime inicio = exportacaoService.inicioProximaExportacao();
+
+        StreamingOutput corpo = saida -> exportacaoService.exportarAlbuns(desde, saida);
+        return Response.ok(corpo).header(HEADER_INICIO, inicio).build();
+    }
+
+    private static LocalDateTime lerData(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(valor.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("atualizadoDesde inválido: use ISO-8601, ex.: 2026-01-31T00:00:00");
+        }
+    }
+}
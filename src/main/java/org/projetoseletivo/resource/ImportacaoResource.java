@@ -0,0 +1,67 @@
+package org.projetoseletivo.resource;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.domain.enums.FormatoImportacao;
+import org.projetoseletivo.dto.response.ImportacaoResponse;
+import org.projetoseletivo.service.ImportacaoService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Resource REST para importação em lote de artistas e álbuns.
+ */
+@Path("/v1/importacao")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes({ FormatoImportacao.MEDIA_TYPE_NDJSON, FormatoImportacao.MEDIA_TYPE_CSV })
+@Tag(name = "Importação", description = "Importação em lote (NDJSON ou CSV)")
+@RolesAllowed("ADMIN")
+public class ImportacaoResource {
+
+    @Inject
+    ImportacaoService importacaoService;
+
+    @POST
+    @Path("/artistas")
+    @Operation(summary = "Importar artistas", description = "Importa artistas de NDJSON ({\"nome\", \"tipo\"} por linha) ou CSV com cabeçalho nome,tipo")
+    @APIResponse(responseCode = "200", description = "Relatório da importação, com as linhas que falharam", content = @Content(schema = @Schema(implementation = ImportacaoResponse.class)))
+    @APIResponse(responseCode = "400", description = "Formato não suportado ou arquivo ilegível")
+    public Response importarArtistas(@HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType, InputStream conteudo) {
+        try {
+            return Response.ok(importacaoService.importarArtistas(conteudo,
+                    FormatoImportacao.doContentType(contentType))).build();
+        } catch (IOException e) {
+            return erroLeitura(e);
+        }
+    }
+
+    @POST
+    @Path("/albuns")
+    @Operation(summary = "Importar álbuns", description = "Importa álbuns de NDJSON ({\"titulo\", \"anoLancamento\", \"artistaIds\"} por linha) ou CSV com cabeçalho titulo,anoLancamento,artistaIds (IDs separados por |)")
+    @APIResponse(responseCode = "200", description = "Relatório da importação, com as linhas que falharam", content = @Content(schema = @Schema(implementation = ImportacaoResponse.class)))
+    @APIResponse(responseCode = "400", description = "Formato não suportado ou arquivo ilegível")
+    public Response importarAlbuns(@HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType, InputStream conteudo) {
+        try {
+            return Response.ok(importacaoService.importarAlbuns(conteudo,
+                    FormatoImportacao.doContentType(contentType))).build();
+        } catch (IOException e) {
+            return erroLeitura(e);
+        }
+    }
+
+    private Response erroLeitura(IOException e) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"erro\": \"Erro ao ler o arquivo: " + e.getMessage() + "\"}")
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.projetoseletivo.resource;
+
+import java.util.Optional;
+
+/**
+ * Intervalo de bytes de um cabeçalho Range ("bytes=inicio-fim"), com as duas
+ * pontas inclusivas.
+ *
+ * Só um intervalo por requisição é suportado; pedidos com vários intervalos,
+ * em outra unidade ou com o fim antes do início são ignorados e recebem o
+ * arquivo inteiro, como permite a RFC 9110.
+ */
+record IntervaloBytes(long inicio, long fim) {
+
+    /**
+     * Intervalo que não pode ser atendido (416), como um início além do fim
+     * do arquivo.
+     */
+    static final IntervaloBytes INSATISFAZIVEL = new IntervaloBytes(-1, -1);
+
+    /**
+     * Interpreta o cabeçalho Range para um arquivo de {@code tamanho} bytes.
+     * Vazio quando o cabeçalho está ausente ou não é suportado.
+     */
+    static Optional<IntervaloBytes> interpretar(String range, long tamanho) {
+        if (range == null || !range.startsWith("bytes=") || range.contains(",")) {
+            return Optional.empty();
+        }
+
+        String especificacao = range.substring("bytes=".length()).trim();
+        int hifen = especificacao.indexOf('-');
+        if (hifen < 0) {
+            return Optional.empty();
+        }
+
+        try {
+            String inicio = especificacao.substring(0, hifen).trim();
+            String fim = especificacao.substring(hifen + 1).trim();
+
+            if (inicio.isEmpty()) {
+                // Sufixo: os últimos N bytes
+                long sufixo = Long.parseLong(fim);
+                if (sufixo <= 0 || tamanho == 0) {
+                    return Optional.of(INSATISFAZIVEL);
+                }
+                return Optional.of(new IntervaloBytes(Math.max(0, tamanho - sufixo), tamanho - 1));
+            }
+
+            long primeiro = Long.parseLong(inicio);
+            long ultimo = fim.isEmpty() ? Long.MAX_VALUE : Long.parseLong(fim);
+            if (ultimo < primeiro) {
+                // Intervalo inválido ("bytes=5-3"): a RFC manda ignorar o cabeçalho
+                return Optional.empty();
+            }
+            if (primeiro >= tamanho) {
+                return Optional.of(INSATISFAZIVEL);
+            }
+            return Optional.of(new IntervaloBytes(primeiro, Math.min(ultimo, tamanho - 1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    long tamanho() {
+        return fim - inicio + 1;
+    }
+
+    boolean satisfazivel() {
+        return inicio >= 0;
+    }
+
+    String contentRange(long total) {
+        return "bytes " + inicio + "-" + fim + "/" + total;
+    }
+}
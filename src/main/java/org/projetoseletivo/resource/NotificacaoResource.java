@@ -0,0 +1,83 @@
+package org.projetoseletivo.resource;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.dto.response.SessaoNotificacaoResponse;
+import org.projetoseletivo.websocket.FanoutNotificacoes;
+import org.projetoseletivo.websocket.TransmissaoSse;
+
+import java.util.List;
+
+/**
+ * Resource REST das notificações em tempo real: o stream SSE dos álbuns e o
+ * acompanhamento das sessões conectadas (WebSocket e SSE).
+ */
+@Path("/v1/notificacoes")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Notificações", description = "Notificações em tempo real e sessões conectadas")
+@RolesAllowed("ADMIN")
+public class NotificacaoResource {
+
+    @Inject
+    FanoutNotificacoes fanout;
+
+    @Inject
+    TransmissaoSse transmissaoSse;
+
+    @GET
+    @Path("/albuns")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RolesAllowed({ "USER", "ADMIN" })
+    @Operation(summary = "Acompanhar álbuns (SSE)", description = "Stream Server-Sent Events com as mesmas notificações do WebSocket /ws/albuns. O id de cada evento é o do feed de eventos; ao reconectar com Last-Event-ID, o stream repõe os eventos perdidos ainda no histórico ou envia RESSINCRONIZAR")
+    @APIResponse(responseCode = "200", description = "Stream de eventos")
+    @APIResponse(responseCode = "400", description = "Last-Event-ID ou filtros inválidos")
+    public void acompanharAlbuns(
+            @Parameter(description = "Id do último evento recebido, enviado pelo EventSource ao reconectar") @HeaderParam("Last-Event-ID") String ultimoEventoId,
+            @Parameter(description = "Alternativa ao Last-Event-ID na primeira conexão") @QueryParam("aPartirDe") Long aPartirDe,
+            @Parameter(description = "Só álbuns destes artistas") @QueryParam("artistaId") List<Long> artistaIds,
+            @Parameter(description = "Só álbuns com artistas destes tipos") @QueryParam("tipoArtista") List<TipoArtista> tiposArtista,
+            @Parameter(description = "Só álbuns cujo título começa com estes prefixos") @QueryParam("prefixoTitulo") List<String> prefixosTitulo,
+            @Context SseEventSink sink,
+            @Context Sse sse) {
+
+        transmissaoSse.conectar(sink, sse, ultimoId(ultimoEventoId, aPartirDe), artistaIds, tiposArtista,
+                prefixosTitulo);
+    }
+
+    @GET
+    @Path("/sessoes")
+    @Operation(summary = "Listar sessões", description = "Fila de saída e atraso de cada sessão WebSocket ou stream SSE conectado, dos mais atrasados para os menos")
+    @APIResponse(responseCode = "200", description = "Sessões conectadas", content = @Content(schema = @Schema(implementation = SessaoNotificacaoResponse.class, type = SchemaType.ARRAY)))
+    public Response listarSessoes() {
+        return Response.ok(fanout.sessoes()).build();
+    }
+
+    private static Long ultimoId(String ultimoEventoId, Long aPartirDe) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return aPartirDe;
+        }
+        try {
+            return Long.valueOf(ultimoEventoId.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Last-Event-ID inválido: " + ultimoEventoId);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.projetoseletivo.resource;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.projetoseletivo.dto.response.VersaoRecurso;
+
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * GET condicional (ETag / Last-Modified) a partir da versão do recurso.
+ *
+ * A versão é obtida por uma consulta leve; o recurso só deve ser carregado e
+ * mapeado quando {@link #naoModificado} não retornar 304 (If-None-Match /
+ * If-Modified-Since).
+ */
+final class RespostaCondicional {
+
+    private static final CacheControl REVALIDAR = criarCacheControl();
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * Resposta 304 se o cliente já tem a versão atual do recurso.
+     */
+    static Optional<Response> naoModificado(Request request, VersaoRecurso versao) {
+        EntityTag etag = etag(versao);
+        Date ultimaAlteracao = ultimaAlteracao(versao);
+
+        Response.ResponseBuilder naoModificado = ultimaAlteracao == null
+                ? request.evaluatePreconditions(etag)
+                : request.evaluatePreconditions(ultimaAlteracao, etag);
+
+        return Optional.ofNullable(naoModificado)
+                .map(builder -> builder.tag(etag).cacheControl(REVALIDAR).build());
+    }
+
+    /**
+     * Resposta 200 com o corpo e os cabeçalhos de validação da versão.
+     */
+    static Response ok(Object corpo, VersaoRecurso versao) {
+        return Response.ok(corpo)
+                .tag(etag(versao))
+                .lastModified(ultimaAlteracao(versao))
+                .cacheControl(REVALIDAR)
+                .build();
+    }
+
+    private static EntityTag etag(VersaoRecurso versao) {
+        return new EntityTag(versao.etag());
+    }
+
+    private static Date ultimaAlteracao(VersaoRecurso versao) {
+        return versao.ultimaAlteracao() == null ? null
+                : Date.from(versao.ultimaAlteracao().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * O cliente pode guardar a resposta, mas precisa revalidar a cada uso.
+     */
+    private static CacheControl criarCacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+}
@@ -0,0 +1,402 @@
+package org.projetoseletivo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import io.minio.StatObjectResponse;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.dto.request.ArquivoImagem;
+import org.projetoseletivo.dto.request.UploadDiretoRequest;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.UploadDiretoResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.AlbumRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Upload de imagens de capa em duas etapas:
+ *
+ * 1. Envio dos arquivos ao MinIO em paralelo (limitado por
+ * {@code minio.upload.paralelismo}), fora de transação, para não segurar uma
+ * conexão do pool durante a transferência.
+ * 2. Uma transação curta que grava todas as referências de uma vez.
+ * 3. A geração das variantes redimensionadas, em segundo plano.
+ *
+ * Se algum envio ou a gravação falhar, os objetos já enviados são removidos
+ * do MinIO (compensação) e nenhuma referência é gravada.
+ *
+ * Os objetos são endereçados pelo conteúdo ("conteudo/{sha256}"): o hash é
+ * calculado a partir do arquivo temporário antes do envio e, se o mesmo
+ * conteúdo já estiver gravado, o envio é pulado e só a referência é criada.
+ * Um objeto pode ser compartilhado por vários álbuns e só é removido quando
+ * nenhuma imagem ou variante aponta mais para ele.
+ *
+ * A limpeza ({@link LimpezaObjetosService}) pode remover o objeto entre a
+ * busca do conteúdo (ou o envio) e a gravação da referência. A gravação segura
+ * o lock compartilhado das chaves e a limpeza, o exclusivo; depois da
+ * gravação o objeto não é mais removido, então os que sumiram antes dela são
+ * reenviados.
+ *
+ * No envio direto ({@link #autorizarEnvioDireto}), os bytes nem passam pela
+ * API: o cliente envia ao MinIO com um formulário pré-assinado e depois
+ * confirma o envio, quando a imagem é verificada e gravada.
+ */
+@ApplicationScoped
+public class AlbumImagemService {
+
+    private static final Logger LOG = Logger.getLogger(AlbumImagemService.class);
+
+    @Inject
+    MinioService minioService;
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    VarianteImagemService varianteImagemService;
+
+    @ConfigProperty(name = "minio.upload.paralelismo", defaultValue = "4")
+    int paralelismo;
+
+    @ConfigProperty(name = "minio.upload.fila.max-size", defaultValue = "64")
+    int tamanhoFila;
+
+    @ConfigProperty(name = "minio.upload.direto.tamanho-maximo-mb", defaultValue = "20")
+    int tamanhoMaximoDiretoMb;
+
+    @ConfigProperty(name = "minio.upload.direto.expiracao.minutes", defaultValue = "10")
+    int expiracaoDiretoMinutes;
+
+    @ConfigProperty(name = "minio.upload.direto.content-types", defaultValue = "image/jpeg,image/png,image/webp")
+    List<String> contentTypesPermitidos;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(paralelismo, paralelismo, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(tamanhoFila),
+                tarefa -> new Thread(tarefa, "upload-minio-" + contador.incrementAndGet()),
+                // Fila cheia: a própria thread da requisição envia (contrapressão)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Envia as imagens do álbum e grava as referências.
+     *
+     * @throws IOException se algum arquivo não puder ser enviado; nesse caso
+     *                     nada fica gravado nem no MinIO nem no banco
+     */
+    public List<ImagemResponse> enviar(Long albumId, List<ArquivoImagem> arquivos) throws IOException {
+        // Hash em paralelo; a busca por conteúdo já gravado fica na thread da
+        // requisição, que tem o contexto para acessar o banco
+        List<String> hashes = new ArrayList<>();
+        Throwable falha = aguardar(arquivos.stream()
+                .map(arquivo -> CompletableFuture.supplyAsync(() -> calcularHash(arquivo), executor))
+                .toList(), hashes);
+        if (falha != null) {
+            throw new IOException(falha.getMessage(), falha);
+        }
+
+        List<CompletableFuture<Envio>> envios = new ArrayList<>();
+        for (int i = 0; i < arquivos.size(); i++) {
+            ArquivoImagem arquivo = arquivos.get(i);
+            String hash = hashes.get(i);
+            Optional<String> existente = albumImagemRepository.buscarObjectKeyPorHash(hash);
+            envios.add(existente.isPresent()
+                    ? CompletableFuture.completedFuture(new Envio(arquivo, imagem(arquivo, hash, existente.get()),
+                            false))
+                    : CompletableFuture.supplyAsync(() -> enviarParaMinio(arquivo, hash), executor));
+        }
+
+        // Aguarda todos, mesmo após uma falha, para saber exatamente o que compensar
+        List<Envio> enviadas = new ArrayList<>();
+        falha = aguardar(envios, enviadas);
+        if (falha != null) {
+            compensar(enviadasAgora(enviadas));
+            throw new IOException(falha.getMessage(), falha);
+        }
+
+        List<ImagemResponse> registradas;
+        try {
+            registradas = registrar(albumId, enviadas.stream().map(Envio::imagem).toList());
+        } catch (RuntimeException e) {
+            compensar(enviadasAgora(enviadas));
+            throw e;
+        }
+
+        reenviarRemovidas(enviadas);
+        varianteImagemService.agendar(registradas.stream().map(ImagemResponse::getId).toList());
+        return registradas;
+    }
+
+    /**
+     * Autoriza o envio de uma capa direto ao MinIO: gera um formulário POST
+     * pré-assinado restrito a uma chave nova sob "album-{id}/", ao Content-Type
+     * informado e ao tamanho máximo configurado.
+     */
+    public UploadDiretoResponse autorizarEnvioDireto(Long albumId, UploadDiretoRequest request) {
+        validarContentType(request.getContentType());
+
+        String objectKey = String.format("album-%d/%s.%s", albumId, UUID.randomUUID(),
+                ArquivoImagem.extensao(request.getNomeArquivo()));
+        long tamanhoMaximo = tamanhoMaximoDiretoMb * 1024L * 1024L;
+        Duration validade = Duration.ofMinutes(expiracaoDiretoMinutes);
+
+        return UploadDiretoResponse.builder()
+                .url(minioService.urlUpload())
+                .objectKey(objectKey)
+                .campos(minioService.gerarFormularioUpload(objectKey, request.getContentType(), tamanhoMaximo,
+                        validade))
+                .tamanhoMaximo(tamanhoMaximo)
+                .expiraEm(LocalDateTime.now().plus(validade))
+                .build();
+    }
+
+    /**
+     * Confirma uma capa enviada direto ao MinIO: verifica o objeto com
+     * statObject e grava a referência. Objetos fora dos limites são removidos.
+     */
+    public ImagemResponse confirmarEnvioDireto(Long albumId, String objectKey) {
+        if (!objectKey.startsWith(String.format("album-%d/", albumId))) {
+            throw new IllegalArgumentException("objectKey não pertence ao álbum " + albumId);
+        }
+
+        StatObjectResponse objeto = minioService.consultar(objectKey)
+                .orElseThrow(() -> new IllegalArgumentException("Arquivo não encontrado no armazenamento: "
+                        + objectKey));
+
+        if (objeto.size() > tamanhoMaximoDiretoMb * 1024L * 1024L
+                || !contentTypesPermitidos.contains(objeto.contentType())) {
+            minioService.remover(objectKey);
+            throw new IllegalArgumentException("Arquivo fora dos limites de tamanho ou tipo: " + objectKey);
+        }
+
+        // Sem compensação: em caso de falha o cliente pode repetir a confirmação
+        ImagemResponse imagem = registrarEnvioDireto(albumId, AlbumImagem.builder()
+                .bucket(minioService.getBucketName())
+                .objectKey(objectKey)
+                .contentType(objeto.contentType())
+                .build());
+
+        varianteImagemService.agendar(List.of(imagem.getId()));
+        return imagem;
+    }
+
+    /**
+     * Grava as referências das imagens já enviadas em uma única transação.
+     * Chamado pelo próprio bean; o ArC intercepta a autoinvocação.
+     */
+    @Transactional
+    List<ImagemResponse> registrar(Long albumId, List<AlbumImagem> imagens) {
+        Album album = albumRepository.findByIdOptional(albumId)
+                .orElseThrow(() -> new IllegalArgumentException("Álbum não encontrado"));
+
+        // A limpeza espera o commit para conferir as referências destas chaves
+        albumImagemRepository.bloquearObjectKeys(imagens.stream().map(AlbumImagem::getObjectKey).toList(), false);
+
+        imagens.forEach(imagem -> imagem.setAlbum(album));
+        albumImagemRepository.persist(imagens);
+        // Mantém a coleção em dia para invalidar o cache de Album.imagens
+        album.getImagens().addAll(imagens);
+
+        return imagens.stream()
+                .map(albumMapper::mapImagem)
+                .toList();
+    }
+
+    /**
+     * Grava a referência de uma capa enviada direto ao MinIO, recusando a
+     * chave já registrada. O lock exclusivo da chave faz confirmações
+     * concorrentes do mesmo objeto passarem uma de cada vez pela verificação.
+     * Chamado pelo próprio bean; o ArC intercepta a autoinvocação.
+     */
+    @Transactional
+    ImagemResponse registrarEnvioDireto(Long albumId, AlbumImagem imagem) {
+        albumImagemRepository.bloquearObjectKeys(List.of(imagem.getObjectKey()), true);
+        if (albumImagemRepository.existePorObjectKey(imagem.getObjectKey())) {
+            throw new IllegalArgumentException("Imagem já registrada: " + imagem.getObjectKey());
+        }
+        return registrar(albumId, List.of(imagem)).get(0);
+    }
+
+    private String calcularHash(ArquivoImagem arquivo) {
+        try {
+            return hashConteudo(arquivo.caminho());
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Erro ao processar arquivo: " + arquivo.nomeArquivo(), e);
+        }
+    }
+
+    private Envio enviarParaMinio(ArquivoImagem arquivo, String hash) {
+        AlbumImagem imagem = imagem(arquivo, hash, "conteudo/" + hash);
+        try (InputStream conteudo = Files.newInputStream(arquivo.caminho())) {
+            minioService.upload(imagem.getObjectKey(), conteudo, arquivo.tamanho(), arquivo.contentType());
+            return new Envio(arquivo, imagem, true);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Erro ao processar arquivo: " + arquivo.nomeArquivo(), e);
+        }
+    }
+
+    private AlbumImagem imagem(ArquivoImagem arquivo, String hash, String objectKey) {
+        return AlbumImagem.builder()
+                .bucket(minioService.getBucketName())
+                .objectKey(objectKey)
+                .contentType(arquivo.contentType())
+                .hashConteudo(hash)
+                .build();
+    }
+
+    /**
+     * Aguarda todas as tarefas, mesmo após uma falha, acumulando os
+     * resultados em ordem. Retorna a primeira falha, ou null.
+     */
+    private static <T> Throwable aguardar(List<CompletableFuture<T>> tarefas, List<T> resultados) {
+        Throwable falha = null;
+        for (CompletableFuture<T> tarefa : tarefas) {
+            try {
+                resultados.add(tarefa.join());
+            } catch (CompletionException e) {
+                if (falha == null) {
+                    falha = e.getCause();
+                }
+            }
+        }
+        return falha;
+    }
+
+    /**
+     * Reenvia os objetos que a limpeza removeu antes de a referência ser
+     * gravada. Com a referência confirmada, a limpeza não os remove mais.
+     */
+    private void reenviarRemovidas(List<Envio> enviadas) {
+        Map<String, ArquivoImagem> porChave = new LinkedHashMap<>();
+        enviadas.forEach(envio -> porChave.putIfAbsent(envio.imagem().getObjectKey(), envio.arquivo()));
+
+        CompletableFuture.allOf(porChave.entrySet().stream()
+                .map(entrada -> CompletableFuture.runAsync(
+                        () -> reenviarSeRemovida(entrada.getKey(), entrada.getValue()), executor))
+                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private void reenviarSeRemovida(String objectKey, ArquivoImagem arquivo) {
+        try {
+            if (minioService.consultar(objectKey).isPresent()) {
+                return;
+            }
+            LOG.warnv("Objeto {0} removido pela limpeza durante o upload; reenviando", objectKey);
+            try (InputStream conteudo = Files.newInputStream(arquivo.caminho())) {
+                minioService.upload(objectKey, conteudo, arquivo.tamanho(), arquivo.contentType());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.errorv(e, "Não foi possível reenviar {0}; a imagem ficará sem conteúdo", objectKey);
+        }
+    }
+
+    /**
+     * SHA-256 do arquivo em hexadecimal. A leitura é do arquivo temporário já
+     * gravado pelo servidor HTTP, normalmente ainda no cache de páginas.
+     */
+    static String hashConteudo(Path caminho) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream conteudo = new DigestInputStream(Files.newInputStream(caminho), sha256)) {
+            conteudo.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private void validarContentType(String contentType) {
+        if (!contentTypesPermitidos.contains(contentType)) {
+            throw new IllegalArgumentException("Content-Type não permitido: " + contentType
+                    + ". Permitidos: " + contentTypesPermitidos);
+        }
+    }
+
+    private static List<String> enviadasAgora(List<Envio> enviadas) {
+        return enviadas.stream()
+                .filter(Envio::enviado)
+                .map(envio -> envio.imagem().getObjectKey())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Remove os objetos enviados por esta requisição que nenhuma imagem
+     * referencia. Conteúdo reaproveitado de outro álbum nunca é removido. O
+     * lock exclusivo espera outro upload do mesmo conteúdo que esteja gravando
+     * a referência. Chamado pelo próprio bean; o ArC intercepta a
+     * autoinvocação.
+     */
+    @Transactional
+    void compensar(List<String> enviadasAgora) {
+        if (enviadasAgora.isEmpty()) {
+            return;
+        }
+        albumImagemRepository.bloquearObjectKeys(enviadasAgora, true);
+        List<String> objectKeys = enviadasAgora.stream()
+                .filter(objectKey -> albumImagemRepository.contarReferencias(objectKey) == 0)
+                .toList();
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        LOG.warnv("Removendo {0} imagem(ns) enviada(s) ao MinIO após falha no upload", objectKeys.size());
+        objectKeys.forEach(minioService::remover);
+    }
+
+    /**
+     * Imagem preparada para gravação; {@code enviado} indica se o objeto foi
+     * enviado agora ou já existia no MinIO.
+     */
+    private record Envio(ArquivoImagem arquivo, AlbumImagem imagem, boolean enviado) {
+    }
+}
@@ -5,21 +5,26 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.projetoseletivo.domain.entity.Album;
 import org.projetoseletivo.domain.entity.Artista;
-import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.enums.ModoTotal;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
 import org.projetoseletivo.dto.request.AlbumRequest;
+import org.projetoseletivo.dto.request.CursorPaginacao;
+import org.projetoseletivo.dto.request.FiltroAlbum;
 import org.projetoseletivo.dto.response.AlbumResponse;
-import org.projetoseletivo.dto.response.ImagemResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 import org.projetoseletivo.mapper.AlbumMapper;
 import org.projetoseletivo.repository.AlbumRepository;
 import org.projetoseletivo.repository.ArtistaRepository;
-import org.projetoseletivo.websocket.AlbumNotificacaoSocket;
+import org.projetoseletivo.repository.CatalogoVersaoRepository;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 
@@ -39,44 +44,117 @@ public class AlbumService {
     MinioService minioService;
 
     @Inject
-    AlbumNotificacaoSocket notificacaoSocket;
+    TotalEstimadoService totalEstimadoService;
 
+    @Inject
+    CatalogoVersaoRepository catalogoVersaoRepository;
+
+    @Inject
+    EventoCatalogoService eventoCatalogoService;
 
+
+    /**
+     * Lista álbuns aplicando juntos todos os filtros informados, com uma única
+     * consulta para a página e outra para o total. Com {@link ModoTotal#NENHUM}
+     * não há contagem: busca-se um registro além da página para saber se ela é
+     * a última. Com {@code relevancia}, a busca por título é ordenada pela
+     * similaridade com o termo em vez da ordem alfabética.
+     */
     public PaginacaoResponse<AlbumResponse> listar(
-            String titulo,
-            String nomeArtista,
-            TipoArtista tipoArtista,
+            FiltroAlbum filtro,
             int pagina,
-            int tamanhoPagina) {
+            int tamanhoPagina,
+            ModoTotal modoTotal,
+            boolean relevancia) {
+
+        if (filtro.getAnoInicio() != null && filtro.getAnoFim() != null
+                && filtro.getAnoInicio() > filtro.getAnoFim()) {
+            throw new IllegalArgumentException("anoInicio deve ser menor ou igual a anoFim");
+        }
+
+        int primeiro = pagina * tamanhoPagina;
+        int limite = modoTotal == ModoTotal.NENHUM ? tamanhoPagina + 1 : tamanhoPagina;
 
         List<Album> albuns;
-        long total;
-
-        if (nomeArtista != null && !nomeArtista.isBlank()) {
-            albuns = albumRepository.buscarPorNomeArtista(nomeArtista, pagina, tamanhoPagina);
-            total = albumRepository.contarPorNomeArtista(nomeArtista);
-        } else if (tipoArtista != null) {
-            albuns = albumRepository.buscarPorTipoArtista(tipoArtista, pagina, tamanhoPagina);
-            total = albumRepository.contarPorTipoArtista(tipoArtista);
-        } else if (titulo != null && !titulo.isBlank()) {
-            albuns = albumRepository.buscarPorTitulo(titulo, pagina, tamanhoPagina);
-            total = albumRepository.contarPorTitulo(titulo);
+        String chaveContagem;
+        LongSupplier contagem;
+
+        if (filtro.possuiFiltro()) {
+            albuns = albumRepository.buscarPorFiltro(filtro, relevancia, primeiro, limite);
+            chaveContagem = "album:" + filtro.chave();
+            contagem = () -> albumRepository.contarPorFiltro(filtro);
         } else {
-            albuns = albumRepository.listarTodos(pagina, tamanhoPagina);
-            total = albumRepository.contarTodos();
+            albuns = albumRepository.listarTodos(primeiro, limite);
+            chaveContagem = null;
+            contagem = albumRepository::contarTodos;
         }
 
-        List<AlbumResponse> responses = albuns.stream()
-                .map(this::toResponseComUrls)
-                .collect(Collectors.toList());
+        if (modoTotal == ModoTotal.NENHUM) {
+            boolean ultima = albuns.size() <= tamanhoPagina;
+            List<Album> conteudo = ultima ? albuns : albuns.subList(0, tamanhoPagina);
+            return PaginacaoResponse.semTotal(toResponsesComUrls(conteudo), pagina, tamanhoPagina, ultima);
+        }
+
+        List<AlbumResponse> responses = toResponsesComUrls(albuns);
+
+        if (modoTotal == ModoTotal.ESTIMADO) {
+            long total = chaveContagem == null
+                    ? totalEstimadoService.estimarPorEstatistica(albumRepository.estimarTotal(), contagem)
+                    : totalEstimadoService.estimarPorCache(chaveContagem, contagem);
+            return PaginacaoResponse.estimado(responses, pagina, tamanhoPagina, total);
+        }
+
+        return PaginacaoResponse.of(responses, pagina, tamanhoPagina, contagem.getAsLong());
+    }
+
+
+    /**
+     * Lista álbuns por cursor (keyset). Cursor vazio indica a primeira página.
+     * Busca um registro além do tamanho da página para saber se há próxima.
+     */
+    public PaginacaoResponse<AlbumResponse> listarPorCursor(String cursor, int tamanhoPagina) {
+        CursorPaginacao posicao = cursor == null || cursor.isBlank() ? null : CursorPaginacao.decodificar(cursor);
+
+        List<Album> albuns = posicao == null
+                ? albumRepository.listarAposCursor(null, null, tamanhoPagina + 1)
+                : albumRepository.listarAposCursor(posicao.chave(), posicao.id(), tamanhoPagina + 1);
+
+        String proximoCursor = null;
+        if (albuns.size() > tamanhoPagina) {
+            albuns = albuns.subList(0, tamanhoPagina);
+            Album ultimo = albuns.get(albuns.size() - 1);
+            proximoCursor = new CursorPaginacao(ultimo.getTitulo(), ultimo.getId()).codificar();
+        }
+
+        List<AlbumResponse> responses = toResponsesComUrls(albuns);
 
-        return PaginacaoResponse.of(responses, pagina, tamanhoPagina, total);
+        return PaginacaoResponse.porCursor(responses, tamanhoPagina, posicao == null, proximoCursor);
     }
 
 
     public Optional<AlbumResponse> buscarPorId(Long id) {
         return albumRepository.buscarPorIdCompleto(id)
-                .map(this::toResponseComUrls);
+                .map(album -> toResponsesComUrls(List.of(album)).get(0));
+    }
+
+
+    /**
+     * Versão do álbum para GET condicional, obtida sem carregar o álbum. Inclui
+     * a janela das URLs pré-assinadas, que fazem parte da resposta.
+     */
+    public Optional<VersaoRecurso> buscarVersao(Long id) {
+        return albumRepository.buscarVersao(id).map(minioService::comValidadeDasUrls);
+    }
+
+
+    /**
+     * Versão das listagens de álbuns: muda a cada escrita no catálogo ou quando
+     * os parâmetros da consulta mudam. Sem Last-Modified: a versão do catálogo
+     * não tem data.
+     */
+    public VersaoRecurso buscarVersaoListagem(String consulta) {
+        return minioService.comValidadeDasUrls(VersaoRecurso.de(null, "albuns", consulta,
+                catalogoVersaoRepository.buscarAtual()));
     }
 
 
@@ -95,9 +173,9 @@ public class AlbumService {
 
         albumRepository.persist(album);
 
-        // Notificar clientes WebSocket
         AlbumResponse response = albumMapper.toResponse(album);
-        notificacaoSocket.notificarNovoAlbum(response);
+        // O evento também notifica os clientes WebSocket de todas as instâncias, após o commit
+        eventoCatalogoService.registrar(TipoEventoCatalogo.ALBUM_CRIADO, album.getId(), response);
 
         return response;
     }
@@ -113,6 +191,8 @@ public class AlbumService {
 
         Album album = albumOpt.get();
         albumMapper.updateEntity(request, album);
+        // Mudanças só nas associações não disparam @PreUpdate; o timestamp entra no ETag
+        album.setAtualizadoEm(LocalDateTime.now());
 
         // Atualizar artistas se informados
         if (request.getArtistaIds() != null) {
@@ -132,58 +212,75 @@ public class AlbumService {
             }
         }
 
-        return Optional.of(albumMapper.toResponse(album));
+        AlbumResponse response = albumMapper.toResponse(album);
+        eventoCatalogoService.registrar(TipoEventoCatalogo.ALBUM_ATUALIZADO, id, response);
+        return Optional.of(response);
     }
 
 
     @Transactional
     public boolean remover(Long id) {
-        return albumRepository.deleteById(id);
+        // Título e artistas do álbum removido vão no evento, para a notificação
+        // chegar só a quem assinou algum deles
+        AlbumResponse resumo = null;
+        // Remover pelo lado dono (Artista.albuns) para que o Hibernate apague as
+        // associações e invalide o cache da coleção de cada artista
+        Optional<Album> encontrado = albumRepository.findByIdOptional(id);
+        if (encontrado.isPresent()) {
+            Album album = encontrado.get();
+            resumo = AlbumResponse.builder()
+                    .id(album.getId())
+                    .titulo(album.getTitulo())
+                    .artistas(albumMapper.mapArtistas(album.getArtistas()))
+                    .build();
+            for (Artista artista : album.getArtistas()) {
+                artista.getAlbuns().remove(album);
+            }
+            album.getArtistas().clear();
+        }
+
+        boolean removido = albumRepository.deleteById(id);
+        if (removido) {
+            eventoCatalogoService.registrar(TipoEventoCatalogo.ALBUM_REMOVIDO, id, resumo);
+        }
+        return removido;
     }
 
 
+    /**
+     * Carrega os artistas em lote (ver {@link ArtistaRepository#buscarPorIds})
+     * e falha informando todos os IDs inexistentes.
+     */
     private Set<Artista> buscarEValidarArtistas(List<Long> artistaIds) {
-        Set<Artista> artistas = new HashSet<>();
-        List<Long> idsNaoEncontrados = new ArrayList<>();
-
-        for (Long artistaId : artistaIds) {
-            Optional<Artista> artistaOpt = artistaRepository.findByIdOptional(artistaId);
-            if (artistaOpt.isPresent()) {
-                artistas.add(artistaOpt.get());
-            } else {
-                idsNaoEncontrados.add(artistaId);
-            }
-        }
+        Map<Long, Artista> encontrados = artistaRepository.buscarPorIds(artistaIds);
 
+        List<Long> idsNaoEncontrados = artistaIds.stream()
+                .distinct()
+                .filter(id -> !encontrados.containsKey(id))
+                .toList();
         if (!idsNaoEncontrados.isEmpty()) {
             throw new IllegalArgumentException(
                     "Artista(s) não encontrado(s) com ID(s): " + idsNaoEncontrados);
         }
 
-        return artistas;
+        return new HashSet<>(encontrados.values());
     }
 
 
-    private AlbumResponse toResponseComUrls(Album album) {
-        AlbumResponse response = albumMapper.toResponse(album);
+    /**
+     * Mapeia os álbuns e preenche as URLs pré-assinadas de todas as imagens em
+     * um único lote.
+     */
+    private List<AlbumResponse> toResponsesComUrls(List<Album> albuns) {
+        List<AlbumResponse> responses = albuns.stream()
+                .map(albumMapper::toResponse)
+                .collect(Collectors.toList());
 
-        // Gerar URLs pré-assinadas para as imagens
-        if (response.getImagens() != null) {
-            response.setImagens(response.getImagens().stream()
-                    .map(img -> {
-                        String url = minioService.gerarUrlPreAssinada(img.getBucket(), img.getObjectKey());
-                        return ImagemResponse.builder()
-                                .id(img.getId())
-                                .bucket(img.getBucket())
-                                .objectKey(img.getObjectKey())
-                                .contentType(img.getContentType())
-                                .url(url)
-                                .criadoEm(img.getCriadoEm())
-                                .build();
-                    })
-                    .collect(Collectors.toList()));
-        }
+        minioService.preencherUrls(responses.stream()
+                .filter(response -> response.getImagens() != null)
+                .flatMap(response -> response.getImagens().stream())
+                .toList());
 
-        return response;
+        return responses;
     }
 }
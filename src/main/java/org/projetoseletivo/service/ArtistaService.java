@@ -5,19 +5,27 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.projetoseletivo.domain.entity.Album;
 import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.ModoTotal;
 import org.projetoseletivo.domain.enums.Ordem;
 import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
 import org.projetoseletivo.dto.request.ArtistaRequest;
+import org.projetoseletivo.dto.request.CursorPaginacao;
 import org.projetoseletivo.dto.response.ArtistaResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 import org.projetoseletivo.mapper.ArtistaMapper;
 import org.projetoseletivo.repository.AlbumRepository;
 import org.projetoseletivo.repository.ArtistaRepository;
+import org.projetoseletivo.repository.CatalogoVersaoRepository;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongSupplier;
 
 
 @ApplicationScoped
@@ -32,25 +40,86 @@ public class ArtistaService {
     @Inject
     ArtistaMapper artistaMapper;
 
+    @Inject
+    TotalEstimadoService totalEstimadoService;
+
+    @Inject
+    CatalogoVersaoRepository catalogoVersaoRepository;
+
+    @Inject
+    EventoCatalogoService eventoCatalogoService;
 
+
+    /**
+     * Lista artistas calculando o total conforme o modo informado. Com
+     * {@link ModoTotal#NENHUM} não há contagem: busca-se um registro além da
+     * página para saber se ela é a última. Com {@code relevancia}, a busca por
+     * nome é ordenada pela similaridade com o termo e a ordem informada é ignorada.
+     */
     public PaginacaoResponse<ArtistaResponse> listar(String nome, TipoArtista tipo, Ordem ordem, int pagina,
-            int tamanhoPagina) {
+            int tamanhoPagina, ModoTotal modoTotal, boolean relevancia) {
+        int primeiro = pagina * tamanhoPagina;
+        int limite = modoTotal == ModoTotal.NENHUM ? tamanhoPagina + 1 : tamanhoPagina;
+
         List<Artista> artistas;
-        long total;
+        String chaveContagem;
+        LongSupplier contagem;
 
         if (nome != null && !nome.isBlank()) {
-            artistas = artistaRepository.buscarPorNome(nome, ordem, pagina, tamanhoPagina);
-            total = artistaRepository.contarPorNome(nome);
+            artistas = relevancia
+                    ? artistaRepository.buscarPorNomePorRelevancia(nome, primeiro, limite)
+                    : artistaRepository.buscarPorNome(nome, ordem, primeiro, limite);
+            chaveContagem = "artista:nome:" + nome.toLowerCase(Locale.ROOT);
+            contagem = () -> artistaRepository.contarPorNome(nome);
         } else if (tipo != null) {
-            artistas = artistaRepository.buscarPorTipo(tipo, ordem, pagina, tamanhoPagina);
-            total = artistaRepository.contarPorTipo(tipo);
+            artistas = artistaRepository.buscarPorTipo(tipo, ordem, primeiro, limite);
+            chaveContagem = "artista:tipo:" + tipo;
+            contagem = () -> artistaRepository.contarPorTipo(tipo);
         } else {
-            artistas = artistaRepository.listarTodos(ordem, pagina, tamanhoPagina);
-            total = artistaRepository.contarTodos();
+            artistas = artistaRepository.listarTodos(ordem, primeiro, limite);
+            chaveContagem = null;
+            contagem = artistaRepository::contarTodos;
+        }
+
+        if (modoTotal == ModoTotal.NENHUM) {
+            boolean ultima = artistas.size() <= tamanhoPagina;
+            List<Artista> conteudo = ultima ? artistas : artistas.subList(0, tamanhoPagina);
+            return PaginacaoResponse.semTotal(artistaMapper.toResponseList(conteudo), pagina, tamanhoPagina, ultima);
+        }
+
+        List<ArtistaResponse> responses = artistaMapper.toResponseList(artistas);
+
+        if (modoTotal == ModoTotal.ESTIMADO) {
+            long total = chaveContagem == null
+                    ? totalEstimadoService.estimarPorEstatistica(artistaRepository.estimarTotal(), contagem)
+                    : totalEstimadoService.estimarPorCache(chaveContagem, contagem);
+            return PaginacaoResponse.estimado(responses, pagina, tamanhoPagina, total);
+        }
+
+        return PaginacaoResponse.of(responses, pagina, tamanhoPagina, contagem.getAsLong());
+    }
+
+
+    /**
+     * Lista artistas por cursor (keyset). Cursor vazio indica a primeira página.
+     * Busca um registro além do tamanho da página para saber se há próxima.
+     */
+    public PaginacaoResponse<ArtistaResponse> listarPorCursor(String cursor, Ordem ordem, int tamanhoPagina) {
+        CursorPaginacao posicao = cursor == null || cursor.isBlank() ? null : CursorPaginacao.decodificar(cursor);
+
+        List<Artista> artistas = posicao == null
+                ? artistaRepository.listarAposCursor(ordem, null, null, tamanhoPagina + 1)
+                : artistaRepository.listarAposCursor(ordem, posicao.chave(), posicao.id(), tamanhoPagina + 1);
+
+        String proximoCursor = null;
+        if (artistas.size() > tamanhoPagina) {
+            artistas = artistas.subList(0, tamanhoPagina);
+            Artista ultimo = artistas.get(artistas.size() - 1);
+            proximoCursor = new CursorPaginacao(ultimo.getNome(), ultimo.getId()).codificar();
         }
 
         List<ArtistaResponse> responses = artistaMapper.toResponseList(artistas);
-        return PaginacaoResponse.of(responses, pagina, tamanhoPagina, total);
+        return PaginacaoResponse.porCursor(responses, tamanhoPagina, posicao == null, proximoCursor);
     }
 
 
@@ -60,22 +129,38 @@ public class ArtistaService {
     }
 
 
+    /**
+     * Versão do artista para GET condicional, obtida sem carregar o artista.
+     */
+    public Optional<VersaoRecurso> buscarVersao(Long id) {
+        return artistaRepository.buscarVersao(id);
+    }
+
+
+    /**
+     * Versão das listagens de artistas: muda a cada escrita no catálogo ou
+     * quando os parâmetros da consulta mudam. Sem Last-Modified: a versão do
+     * catálogo não tem data.
+     */
+    public VersaoRecurso buscarVersaoListagem(String consulta) {
+        return VersaoRecurso.de(null, "artistas", consulta, catalogoVersaoRepository.buscarAtual());
+    }
+
+
     @Transactional
     public ArtistaResponse criar(ArtistaRequest request) {
         Artista artista = artistaMapper.toEntity(request);
 
         // Associar álbuns se informados
         if (request.getAlbumIds() != null && !request.getAlbumIds().isEmpty()) {
-            Set<Album> albuns = new HashSet<>();
-            for (Long albumId : request.getAlbumIds()) {
-                albumRepository.findByIdOptional(albumId)
-                        .ifPresent(albuns::add);
-            }
-            artista.setAlbuns(albuns);
+            associarAlbuns(artista, buscarAlbuns(request.getAlbumIds()));
         }
 
         artistaRepository.persist(artista);
-        return artistaMapper.toResponse(artista);
+
+        ArtistaResponse response = artistaMapper.toResponse(artista);
+        eventoCatalogoService.registrar(TipoEventoCatalogo.ARTISTA_CRIADO, artista.getId(), response);
+        return response;
     }
 
 
@@ -89,23 +174,57 @@ public class ArtistaService {
 
         Artista artista = artistaOpt.get();
         artistaMapper.updateEntity(request, artista);
+        // Mudanças só nas associações não disparam @PreUpdate; o timestamp entra no ETag
+        artista.setAtualizadoEm(LocalDateTime.now());
 
         // Atualizar álbuns se informados
         if (request.getAlbumIds() != null) {
-            Set<Album> albuns = new HashSet<>();
-            for (Long albumId : request.getAlbumIds()) {
-                albumRepository.findByIdOptional(albumId)
-                        .ifPresent(albuns::add);
-            }
-            artista.setAlbuns(albuns);
+            Set<Album> albuns = buscarAlbuns(request.getAlbumIds());
+            desassociarAlbuns(artista);
+            associarAlbuns(artista, albuns);
         }
 
-        return Optional.of(artistaMapper.toResponse(artista));
+        ArtistaResponse response = artistaMapper.toResponse(artista);
+        eventoCatalogoService.registrar(TipoEventoCatalogo.ARTISTA_ATUALIZADO, id, response);
+        return Optional.of(response);
     }
 
 
     @Transactional
     public boolean remover(Long id) {
-        return artistaRepository.deleteById(id);
+        artistaRepository.findByIdOptional(id).ifPresent(this::desassociarAlbuns);
+
+        boolean removido = artistaRepository.deleteById(id);
+        if (removido) {
+            eventoCatalogoService.registrar(TipoEventoCatalogo.ARTISTA_REMOVIDO, id, null);
+        }
+        return removido;
+    }
+
+
+    /**
+     * Álbuns existentes dentre os IDs informados, carregados em lote; IDs
+     * inexistentes são ignorados.
+     */
+    private Set<Album> buscarAlbuns(List<Long> albumIds) {
+        return new HashSet<>(albumRepository.buscarPorIds(albumIds).values());
+    }
+
+    /**
+     * Mantém os dois lados da associação: Album.artistas é o lado inverso e só
+     * tem o cache de coleção invalidado pelo Hibernate se for alterado também.
+     */
+    private void associarAlbuns(Artista artista, Set<Album> albuns) {
+        for (Album album : albuns) {
+            album.getArtistas().add(artista);
+        }
+        artista.setAlbuns(albuns);
+    }
+
+    private void desassociarAlbuns(Artista artista) {
+        for (Album album : artista.getAlbuns()) {
+            album.getArtistas().remove(artista);
+        }
+        artista.getAlbuns().clear();
     }
 }
@@ -0,0 +1,34 @@
+package org.projetoseletivo.service;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.projetoseletivo.repository.CatalogoVersaoRepository;
+
+/**
+ * Manutenção da versão do catálogo usada no GET condicional das listagens:
+ * cada transação que escreve no catálogo grava uma linha em
+ * {@code catalogo_versao}, e a compactação periódica as soma na linha base
+ * para que a leitura da versão continue barata.
+ */
+@ApplicationScoped
+public class CatalogoVersaoService {
+
+    @Inject
+    CatalogoVersaoRepository catalogoVersaoRepository;
+
+    @Scheduled(every = "{catalogo.versao.compactacao.intervalo}", delayed = "1m",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void aplicarCompactacao() {
+        compactar();
+    }
+
+    /**
+     * Chamado pelo próprio bean; o ArC intercepta a autoinvocação.
+     */
+    @Transactional
+    void compactar() {
+        catalogoVersaoRepository.compactar();
+    }
+}
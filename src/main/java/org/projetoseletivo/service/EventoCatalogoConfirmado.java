@@ -0,0 +1,17 @@
+package org.projetoseletivo.service;
+
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+
+/**
+ * Evento do catálogo confirmado em qualquer instância da API, entregue pelo
+ * {@link RelayEventosCatalogo} como evento CDI local, uma vez por instância.
+ *
+ * Na gravação em lote (importação) chega um único aviso, sem {@code id},
+ * {@code entidadeId} nem {@code dados}.
+ */
+public record EventoCatalogoConfirmado(Long id, TipoEventoCatalogo tipo, Long entidadeId, String dados) {
+
+    public boolean lote() {
+        return id == null;
+    }
+}
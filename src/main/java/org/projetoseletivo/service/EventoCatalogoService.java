@@ -0,0 +1,265 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.StatelessSession;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.EventoCatalogo;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+import org.projetoseletivo.dto.response.EventoCatalogoResponse;
+import org.projetoseletivo.dto.response.FeedEventosResponse;
+import org.projetoseletivo.repository.EventoCatalogoRepository;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Feed de alterações do catálogo sobre o outbox {@code evento_catalogo}.
+ *
+ * Os serviços registram um evento por criação, alteração ou remoção de artista
+ * ou álbum, na mesma transação da escrita: o evento existe se e somente se a
+ * alteração foi confirmada. Os consumidores leem por offset (o id do evento) e
+ * podem aguardar eventos novos (long polling). Um aviso local acorda as
+ * leituras em espera assim que a transação confirma, e o
+ * {@link RelayEventosCatalogo} traz os eventos gravados por outras
+ * instâncias; a verificação periódica
+ * ({@code eventos.feed.intervalo-verificacao}) cobre o relay fora do ar e os
+ * eventos retidos por transações ainda abertas (ver
+ * {@link EventoCatalogoRepository#buscarApos}).
+ */
+@ApplicationScoped
+public class EventoCatalogoService {
+
+    private static final Logger LOG = Logger.getLogger(EventoCatalogoService.class);
+
+    private static final String INSERIR_EVENTO = "INSERT INTO evento_catalogo (tipo, entidade_id, dados, criado_em)"
+            + " VALUES (?, ?, ?::jsonb, ?)";
+
+    @Inject
+    EventoCatalogoRepository eventoCatalogoRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    StatelessSession statelessSession;
+
+    @Inject
+    Event<EventoCatalogo> eventoGravado;
+
+    @Inject
+    RelayEventosCatalogo relay;
+
+    @ConfigProperty(name = "eventos.feed.limite-maximo", defaultValue = "500")
+    int limiteMaximo;
+
+    @ConfigProperty(name = "eventos.feed.espera-maxima", defaultValue = "30s")
+    Duration esperaMaxima;
+
+    @ConfigProperty(name = "eventos.feed.intervalo-verificacao", defaultValue = "2s")
+    Duration intervaloVerificacao;
+
+    @ConfigProperty(name = "eventos.retencao.dias", defaultValue = "7")
+    int diasRetencao;
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "50")
+    int tamanhoBatch;
+
+    private CompletableFuture<Void> proximoAviso = new CompletableFuture<>();
+
+    /**
+     * Registra o evento na transação corrente e o anuncia às instâncias da API
+     * pelo relay, no commit.
+     *
+     * @param dados DTO da entidade após a alteração; nas remoções, null ou o
+     *              resumo da entidade removida
+     */
+    public void registrar(TipoEventoCatalogo tipo, Long entidadeId, Object dados) {
+        EventoCatalogo evento = EventoCatalogo.builder()
+                .tipo(tipo)
+                .entidadeId(entidadeId)
+                .dados(serializar(dados))
+                .build();
+        eventoCatalogoRepository.registrar(evento);
+        eventoCatalogoRepository.notificar(RelayEventosCatalogo.CANAL, relay.aviso(evento));
+        eventoGravado.fire(evento);
+    }
+
+    /**
+     * Versão em lote de {@link #registrar} para a importação: os eventos são
+     * inseridos em batch JDBC pela conexão da transação corrente. As instâncias recebem um único aviso pelo lote, que acorda as
+     * leituras do feed; os eventos do lote não são anunciados um a um.
+     *
+     * @param dadosPorEntidade DTO de cada entidade criada, pelo ID
+     */
+    public void registrarEmLote(TipoEventoCatalogo tipo, Map<Long, ?> dadosPorEntidade) {
+        if (dadosPorEntidade.isEmpty()) {
+            return;
+        }
+
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        statelessSession.doWork(conexao -> {
+            try (PreparedStatement insert = conexao.prepareStatement(INSERIR_EVENTO)) {
+                int pendentes = 0;
+                for (Map.Entry<Long, ?> entidade : dadosPorEntidade.entrySet()) {
+                    insert.setString(1, tipo.name());
+                    insert.setLong(2, entidade.getKey());
+                    insert.setString(3, serializar(entidade.getValue()));
+                    insert.setTimestamp(4, agora);
+                    insert.addBatch();
+                    if (++pendentes == tamanhoBatch) {
+                        insert.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    insert.executeBatch();
+                }
+            }
+            try (PreparedStatement notify = conexao.prepareStatement("SELECT pg_notify(?, ?)")) {
+                notify.setString(1, RelayEventosCatalogo.CANAL);
+                notify.setString(2, relay.avisoLote(tipo));
+                notify.execute();
+            }
+        });
+        // Um aviso basta para acordar as leituras em espera
+        eventoGravado.fire(EventoCatalogo.builder().tipo(tipo).build());
+    }
+
+    /**
+     * Acorda as leituras em espera quando a transação que gravou eventos
+     * confirma. Em rollback nada é avisado.
+     */
+    void aoConfirmar(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventoCatalogo evento) {
+        avisar();
+    }
+
+    /**
+     * Acorda as leituras em espera com eventos confirmados por outras
+     * instâncias.
+     */
+    void aoReceber(@Observes EventoCatalogoConfirmado evento) {
+        avisar();
+    }
+
+    /**
+     * Eventos após {@code aPartirDe}, no máximo {@code limite}. Sem eventos
+     * novos, aguarda até {@code espera} (limitada a
+     * {@code eventos.feed.espera-maxima}) e responde assim que chegar algum.
+     *
+     * @return vazio se o evento {@code aPartirDe} já foi removido pela
+     *         retenção: o consumidor perdeu eventos e precisa ressincronizar
+     */
+    public Optional<FeedEventosResponse> buscar(long aPartirDe, int limite, Duration espera) {
+        if (aPartirDe < 0) {
+            throw new IllegalArgumentException("aPartirDe não pode ser negativo");
+        }
+        int tamanho = Math.max(1, Math.min(limite, limiteMaximo));
+        long prazo = System.nanoTime() + Math.min(espera.toNanos(), esperaMaxima.toNanos());
+
+        // O offset é sempre o id de um evento já entregue; se ele não existe
+        // mais, a retenção removeu eventos que o consumidor não leu
+        String transacao = "0";
+        if (aPartirDe > 0) {
+            Optional<String> posicao = eventoCatalogoRepository.buscarTransacao(aPartirDe);
+            if (posicao.isEmpty()) {
+                return Optional.empty();
+            }
+            transacao = posicao.get();
+        }
+
+        while (true) {
+            // Obtido antes da consulta: um aviso entre a consulta e a espera não se perde
+            CompletableFuture<Void> aviso = aviso();
+            List<EventoCatalogo> eventos = eventoCatalogoRepository.buscarApos(transacao, aPartirDe, tamanho);
+            long restante = prazo - System.nanoTime();
+            if (!eventos.isEmpty() || restante <= 0) {
+                return Optional.of(montarResposta(aPartirDe, eventos));
+            }
+            aguardar(aviso, Math.min(restante, intervaloVerificacao.toNanos()));
+        }
+    }
+
+    @Scheduled(cron = "{eventos.retencao.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void aplicarRetencao() {
+        long removidos = removerAntigos();
+        LOG.infov("Retenção do feed de eventos: {0} evento(s) com mais de {1} dia(s) removido(s)", removidos,
+                diasRetencao);
+    }
+
+    /**
+     * Chamado pelo próprio bean; o ArC intercepta a autoinvocação.
+     */
+    @Transactional
+    long removerAntigos() {
+        return eventoCatalogoRepository.removerAnterioresA(LocalDateTime.now().minusDays(diasRetencao));
+    }
+
+    private synchronized CompletableFuture<Void> aviso() {
+        return proximoAviso;
+    }
+
+    private synchronized void avisar() {
+        proximoAviso.complete(null);
+        proximoAviso = new CompletableFuture<>();
+    }
+
+    private static void aguardar(CompletableFuture<Void> aviso, long nanos) {
+        try {
+            aviso.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Verifica de novo no banco: pode haver eventos de outra instância
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera por eventos interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private FeedEventosResponse montarResposta(long aPartirDe, List<EventoCatalogo> eventos) {
+        List<EventoCatalogoResponse> respostas = eventos.stream()
+                .map(evento -> EventoCatalogoResponse.builder()
+                        .id(evento.getId())
+                        .tipo(evento.getTipo())
+                        .entidadeId(evento.getEntidadeId())
+                        .dados(evento.getDados())
+                        .criadoEm(evento.getCriadoEm())
+                        .build())
+                .toList();
+        long proximoOffset = eventos.isEmpty() ? aPartirDe : eventos.get(eventos.size() - 1).getId();
+        return FeedEventosResponse.builder()
+                .eventos(respostas)
+                .proximoOffset(proximoOffset)
+                .build();
+    }
+
+    private String serializar(Object dados) {
+        if (dados == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Erro ao serializar evento do catálogo", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
+import org.projetoseletivo.repository.AlbumRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exportação do catálogo de álbuns em NDJSON (um AlbumResponse por linha, com
+ * artistas, imagens e variantes).
+ *
+ * Os álbuns são lidos por cursor em lotes de {@code exportacao.lote} e escritos
+ * direto na resposta, lote a lote, sem montar o catálogo em memória nem
+ * paginar com COUNT. As imagens trazem bucket e objectKey, sem URL pré-assinada.
+ */
+@ApplicationScoped
+public class ExportacaoService {
+
+    private static final Logger LOG = Logger.getLogger(ExportacaoService.class);
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "exportacao.lote", defaultValue = "500")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "exportacao.incremental.margem", defaultValue = "60s")
+    Duration margemIncremental;
+
+    /**
+     * Valor de atualizadoDesde para a próxima exportação incremental: o
+     * momento atual recuado de {@code exportacao.incremental.margem}. Os
+     * carimbos de alteração são gravados antes do commit, então uma transação
+     * que alterou um álbum pouco antes da exportação pode confirmar depois que
+     * o cursor abriu e não aparecer nela. A margem, maior que a transação de
+     * escrita mais longa, faz a próxima exportação pegar essas alterações; em
+     * troca, álbuns alterados dentro da margem saem nas duas exportações e o
+     * cliente deve aplicá-los pelo id.
+     */
+    public LocalDateTime inicioProximaExportacao() {
+        return LocalDateTime.now().minus(margemIncremental);
+    }
+
+    /**
+     * Escreve os álbuns em {@code saida}, em ordem de ID. Com {@code desde},
+     * só os criados ou alterados a partir desse momento (exportação
+     * incremental). A transação é só de leitura e dura a exportação inteira;
+     * o limite vem de {@code exportacao.transacao.timeout}.
+     *
+     * @return número de álbuns exportados
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "exportacao.transacao.timeout")
+    public long exportarAlbuns(LocalDateTime desde, OutputStream saida) throws IOException {
+        ObjectWriter escritor = objectMapper.writerFor(AlbumResponse.class);
+        OutputStream buffer = new BufferedOutputStream(saida);
+        AtomicLong exportados = new AtomicLong();
+
+        try {
+            albumRepository.percorrerParaExportacao(desde, tamanhoLote, lote -> {
+                try {
+                    for (Album album : lote) {
+                        buffer.write(escritor.writeValueAsBytes(albumMapper.toResponse(album)));
+                        buffer.write('\n');
+                    }
+                    // Entrega cada lote ao cliente assim que fica pronto
+                    buffer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exportados.addAndGet(lote.size());
+            });
+        } catch (UncheckedIOException e) {
+            // Em geral o cliente fechou a conexão no meio da exportação
+            LOG.warnv("Exportação interrompida após {0} álbum(ns): {1}", exportados.get(), e.getMessage());
+            throw e.getCause();
+        }
+
+        LOG.infov("Exportação concluída: {0} álbum(ns){1}", exportados.get(),
+                desde != null ? " alterados desde " + desde : "");
+        return exportados.get();
+    }
+}
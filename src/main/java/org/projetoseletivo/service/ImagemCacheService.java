@@ -0,0 +1,253 @@
+package org.projetoseletivo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.minio.StatObjectResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.dto.response.ConteudoImagem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache em disco das imagens servidas pelo proxy, limitado pelo total de bytes
+ * ({@code imagem.cache.tamanho-maximo-mb}). As capas mais acessadas ficam no
+ * disco local e são servidas sem consultar o MinIO; as menos usadas são
+ * removidas quando o limite é atingido.
+ *
+ * As chaves das originais não são reaproveitadas para outro conteúdo (nomes
+ * UUID ou hash do conteúdo), então uma entrada não precisa ser revalidada no
+ * MinIO. A exceção são as variantes regeneradas, que sobrescrevem a mesma
+ * chave: quem as grava chama {@link #invalidar(String)}. Arquivos maiores que
+ * {@code imagem.cache.arquivo-maximo-mb} não entram no cache.
+ *
+ * Um arquivo do cache pode estar sendo enviado (sendfile) quando a entrada é
+ * removida. Cada leitura aberta por {@link #abrir(String)} é contada e o
+ * arquivo só é apagado depois da última {@link #liberar(ConteudoImagem)}.
+ */
+@ApplicationScoped
+public class ImagemCacheService {
+
+    private static final Logger LOG = Logger.getLogger(ImagemCacheService.class);
+
+    private static final int TENTATIVAS = 3;
+
+    @Inject
+    MinioService minioService;
+
+    @ConfigProperty(name = "imagem.cache.diretorio", defaultValue = "${java.io.tmpdir}/capas-cache")
+    String diretorio;
+
+    @ConfigProperty(name = "imagem.cache.tamanho-maximo-mb", defaultValue = "512")
+    long tamanhoMaximoMb;
+
+    @ConfigProperty(name = "imagem.cache.arquivo-maximo-mb", defaultValue = "20")
+    long arquivoMaximoMb;
+
+    @ConfigProperty(name = "imagem.proxy.cache-control", defaultValue = "private, max-age=86400")
+    String cacheControlPadrao;
+
+    private Path raiz;
+
+    private Cache<String, Entrada> arquivos;
+
+    /**
+     * Entradas com arquivo em disco, inclusive as já removidas do cache que
+     * ainda têm leituras abertas.
+     */
+    private final Map<Path, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o diretório do cache e descarta arquivos de execuções anteriores,
+     * que não estão no índice em memória. Só arquivos criados pelo cache
+     * ("capa-*.img") são removidos.
+     */
+    @PostConstruct
+    void init() {
+        raiz = Path.of(diretorio);
+        try {
+            Files.createDirectories(raiz);
+            try (DirectoryStream<Path> antigos = Files.newDirectoryStream(raiz, "capa-*.img")) {
+                for (Path antigo : antigos) {
+                    Files.deleteIfExists(antigo);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível preparar o cache de imagens em " + raiz, e);
+        }
+
+        arquivos = Caffeine.newBuilder()
+                .maximumWeight(tamanhoMaximoMb * 1024 * 1024)
+                .weigher((String chave, Entrada entrada) -> (int) entrada.conteudo().tamanho())
+                .removalListener((String chave, Entrada entrada, RemovalCause causa) -> {
+                    if (entrada != null && entrada.remover()) {
+                        descartar(entrada);
+                    }
+                })
+                .build();
+        LOG.infov("Cache de imagens em {0} (máximo {1} MB)", raiz, tamanhoMaximoMb);
+    }
+
+    /**
+     * Metadados do objeto, com o conteúdo já em disco quando ele cabe no
+     * cache. Vazio se o objeto não existir no MinIO. Requisições simultâneas
+     * pela mesma capa fazem um único download.
+     *
+     * Com o conteúdo em disco ({@link ConteudoImagem#emCache()}) o arquivo
+     * fica reservado até {@link #liberar(ConteudoImagem)}, que deve ser
+     * chamado quando a resposta terminar.
+     */
+    public Optional<ConteudoImagem> abrir(String objectKey) {
+        Entrada emCache = arquivos.getIfPresent(objectKey);
+        if (emCache != null && emCache.adquirir()) {
+            return Optional.of(emCache.conteudo());
+        }
+
+        Optional<StatObjectResponse> objeto = minioService.consultar(objectKey);
+        if (objeto.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StatObjectResponse stat = objeto.get();
+        ConteudoImagem remoto = new ConteudoImagem(objectKey, null, stat.size(), stat.etag(), stat.contentType(),
+                stat.lastModified(), cacheControl(stat));
+        if (stat.size() > arquivoMaximoMb * 1024 * 1024) {
+            return Optional.of(remoto);
+        }
+
+        // A entrada pode ser removida entre a busca e a reserva; com o cache
+        // disputado a ponto de isso se repetir, o conteúdo vem do MinIO
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            Entrada entrada = arquivos.get(objectKey, chave -> baixar(remoto));
+            if (entrada.adquirir()) {
+                return Optional.of(entrada.conteudo());
+            }
+        }
+        return Optional.of(remoto);
+    }
+
+    /**
+     * Encerra a leitura aberta por {@link #abrir(String)}. Se a entrada já
+     * saiu do cache e esta era a última leitura, o arquivo é apagado.
+     */
+    public void liberar(ConteudoImagem conteudo) {
+        if (!conteudo.emCache()) {
+            return;
+        }
+        Entrada entrada = entradas.get(conteudo.arquivo());
+        if (entrada != null && entrada.liberar()) {
+            descartar(entrada);
+        }
+    }
+
+    /**
+     * Remove a entrada de um objeto sobrescrito no MinIO. Leituras em
+     * andamento terminam com o conteúdo antigo.
+     */
+    public void invalidar(String objectKey) {
+        arquivos.invalidate(objectKey);
+    }
+
+    /**
+     * Baixa o objeto para um arquivo novo. Cada download usa um nome próprio:
+     * a remoção de uma entrada antiga (feita em segundo plano) nunca apaga o
+     * arquivo de uma entrada nova para a mesma chave.
+     */
+    private Entrada baixar(ConteudoImagem remoto) {
+        Path destino = null;
+        try (InputStream conteudo = minioService.download(remoto.objectKey())) {
+            destino = Files.createTempFile(raiz, "capa-", ".img");
+            Files.copy(conteudo, destino, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            excluir(destino);
+            throw new UncheckedIOException("Erro ao gravar imagem no cache: " + remoto.objectKey(), e);
+        }
+
+        Entrada entrada = new Entrada(new ConteudoImagem(remoto.objectKey(), destino, remoto.tamanho(),
+                remoto.etag(), remoto.contentType(), remoto.ultimaAlteracao(), remoto.cacheControl()));
+        entradas.put(destino, entrada);
+        return entrada;
+    }
+
+    /**
+     * Repassa o Cache-Control gravado no objeto, se houver.
+     */
+    private String cacheControl(StatObjectResponse stat) {
+        String doObjeto = stat.headers().get("Cache-Control");
+        return doObjeto != null && !doObjeto.isBlank() ? doObjeto : cacheControlPadrao;
+    }
+
+    private void descartar(Entrada entrada) {
+        entradas.remove(entrada.conteudo().arquivo());
+        excluir(entrada.conteudo().arquivo());
+    }
+
+    private void excluir(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            LOG.warnv("Não foi possível remover {0} do cache de imagens: {1}", arquivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Arquivo do cache com o número de leituras abertas. Removida do cache,
+     * não aceita novas leituras; o arquivo é apagado quando a contagem zera.
+     */
+    private static final class Entrada {
+
+        private final ConteudoImagem conteudo;
+
+        private int leituras;
+
+        private boolean removida;
+
+        Entrada(ConteudoImagem conteudo) {
+            this.conteudo = conteudo;
+        }
+
+        ConteudoImagem conteudo() {
+            return conteudo;
+        }
+
+        synchronized boolean adquirir() {
+            if (removida) {
+                return false;
+            }
+            leituras++;
+            return true;
+        }
+
+        /**
+         * Retorna true se o arquivo pode ser apagado.
+         */
+        synchronized boolean liberar() {
+            leituras--;
+            return removida && leituras == 0;
+        }
+
+        /**
+         * Retorna true se o arquivo pode ser apagado.
+         */
+        synchronized boolean remover() {
+            removida = true;
+            return leituras == 0;
+        }
+    }
+}
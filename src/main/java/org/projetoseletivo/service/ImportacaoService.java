@@ -0,0 +1,350 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.FormatoImportacao;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+import org.projetoseletivo.dto.request.AlbumRequest;
+import org.projetoseletivo.dto.request.ArtistaRequest;
+import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.dto.response.ArtistaResponse;
+import org.projetoseletivo.dto.response.ErroImportacaoResponse;
+import org.projetoseletivo.dto.response.ImportacaoResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
+import org.projetoseletivo.mapper.ArtistaMapper;
+import org.projetoseletivo.repository.ArtistaRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de artistas e álbuns a partir de NDJSON ou CSV.
+ *
+ * O arquivo é lido registro a registro e processado em lotes de
+ * {@code importacao.lote} linhas, cada um em sua própria transação: um lote com
+ * falha não desfaz os anteriores. Por lote:
+ *
+ * 1. Os IDs de artistas referenciados são conferidos em uma única consulta.
+ * 2. As linhas válidas são inseridas com uma StatelessSession (sem contexto de
+ * persistência nem dirty checking) em batches JDBC; os IDs vêm das sequences
+ * com alocação em blocos.
+ * 3. As associações artista_album são inseridas em batch direto pelo JDBC,
+ * sem carregar a coleção Artista.albuns (lado dono) de cada artista.
+ * 4. Um evento de criação por registro vai para o feed de eventos, também em
+ * batch e na mesma transação.
+ *
+ * Como as inserções não passam pela sessão comum, o cache de segundo nível das
+ * coleções afetadas e o cache de consultas são invalidados ao fim de cada lote.
+ * A importação não envia notificações pelo WebSocket.
+ */
+@ApplicationScoped
+public class ImportacaoService {
+
+    private static final Logger LOG = Logger.getLogger(ImportacaoService.class);
+
+    private static final String INSERIR_ASSOCIACAO = "INSERT INTO artista_album (artista_id, album_id) VALUES (?, ?)";
+
+    private static final String COLECAO_ALBUNS_ARTISTA = Artista.class.getName() + ".albuns";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    ArtistaRepository artistaRepository;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    ArtistaMapper artistaMapper;
+
+    @Inject
+    StatelessSession statelessSession;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    EventoCatalogoService eventoCatalogoService;
+
+    @ConfigProperty(name = "importacao.lote", defaultValue = "1000")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "importacao.erros.maximo", defaultValue = "1000")
+    int maximoErros;
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "50")
+    int tamanhoBatch;
+
+    /**
+     * Importa artistas (campos nome e tipo).
+     */
+    public ImportacaoResponse importarArtistas(InputStream conteudo, FormatoImportacao formato) throws IOException {
+        return importar(conteudo, formato, ArtistaRequest.class, Set.of(), this::gravarArtistas);
+    }
+
+    /**
+     * Importa álbuns (campos titulo, anoLancamento e artistaIds). No CSV os
+     * IDs de artistas são separados por "|".
+     */
+    public ImportacaoResponse importarAlbuns(InputStream conteudo, FormatoImportacao formato) throws IOException {
+        return importar(conteudo, formato, AlbumRequest.class, Set.of("artistaIds"), this::gravarAlbuns);
+    }
+
+    private <T> ImportacaoResponse importar(InputStream conteudo, FormatoImportacao formato, Class<T> tipo,
+            Set<String> camposLista, BiConsumer<List<Linha<T>>, Relatorio> gravar) throws IOException {
+        Relatorio relatorio = new Relatorio(maximoErros);
+        List<Linha<T>> lote = new ArrayList<>(tamanhoLote);
+
+        try (LeitorImportacao leitor = new LeitorImportacao(conteudo, formato, objectMapper, camposLista)) {
+            LeitorImportacao.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                relatorio.linhas++;
+                if (registro.erro() != null) {
+                    relatorio.erro(registro.linha(), registro.erro());
+                    continue;
+                }
+
+                T request;
+                try {
+                    request = objectMapper.treeToValue(registro.dados(), tipo);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    relatorio.erro(registro.linha(), "Valor inválido: " + e.getMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<T>> violacoes = validator.validate(request);
+                if (!violacoes.isEmpty()) {
+                    relatorio.erro(registro.linha(), violacoes.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                lote.add(new Linha<>(registro.linha(), request));
+                if (lote.size() == tamanhoLote) {
+                    gravar.accept(lote, relatorio);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar.accept(lote, relatorio);
+        }
+
+        LOG.infov("Importação concluída: {0} linha(s), {1} importada(s), {2} erro(s)", relatorio.linhas,
+                relatorio.importados, relatorio.totalErros);
+        return relatorio.toResponse();
+    }
+
+    /**
+     * Registra como erro todas as linhas de um lote cuja transação falhou.
+     */
+    private <T> void falhaLote(List<Linha<T>> linhas, Relatorio relatorio, RuntimeException e) {
+        LOG.errorv(e, "Erro ao gravar lote da importação (linhas {0} a {1})", linhas.get(0).numero(),
+                linhas.get(linhas.size() - 1).numero());
+        linhas.forEach(linha -> relatorio.erro(linha.numero(), "Erro ao gravar o lote: " + e.getMessage()));
+    }
+
+    private void gravarArtistas(List<Linha<ArtistaRequest>> lote, Relatorio relatorio) {
+        List<Linha<ArtistaRequest>> validas = new ArrayList<>(lote.size());
+        for (Linha<ArtistaRequest> linha : lote) {
+            if (linha.request().getAlbumIds() != null && !linha.request().getAlbumIds().isEmpty()) {
+                relatorio.erro(linha.numero(), "albumIds não é aceito na importação de artistas;"
+                        + " informe artistaIds na importação de álbuns");
+            } else {
+                validas.add(linha);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        try {
+            inserirArtistas(validas);
+        } catch (RuntimeException e) {
+            falhaLote(validas, relatorio, e);
+            return;
+        }
+        relatorio.importados += validas.size();
+        sessionFactory.getCache().evictQueryRegions();
+    }
+
+    private void gravarAlbuns(List<Linha<AlbumRequest>> lote, Relatorio relatorio) {
+        Set<Long> referenciados = lote.stream()
+                .flatMap(linha -> artistaIds(linha.request()).stream())
+                .collect(Collectors.toSet());
+        Map<Long, Artista> existentes = artistaRepository.buscarPorIds(referenciados);
+
+        List<Linha<AlbumRequest>> validas = new ArrayList<>(lote.size());
+        for (Linha<AlbumRequest> linha : lote) {
+            List<Long> naoEncontrados = artistaIds(linha.request()).stream()
+                    .filter(id -> !existentes.containsKey(id))
+                    .toList();
+            if (!naoEncontrados.isEmpty()) {
+                relatorio.erro(linha.numero(), "Artista(s) não encontrado(s) com ID(s): " + naoEncontrados);
+            } else {
+                validas.add(linha);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        Set<Long> artistasAlterados;
+        try {
+            artistasAlterados = inserirAlbuns(validas, existentes);
+        } catch (RuntimeException e) {
+            falhaLote(validas, relatorio, e);
+            return;
+        }
+        relatorio.importados += validas.size();
+
+        artistasAlterados.forEach(id -> sessionFactory.getCache().evictCollectionData(COLECAO_ALBUNS_ARTISTA, id));
+        sessionFactory.getCache().evictQueryRegions();
+    }
+
+    /**
+     * Chamados pelo próprio bean; o ArC intercepta a autoinvocação.
+     */
+    @Transactional
+    void inserirArtistas(List<Linha<ArtistaRequest>> linhas) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Artista> artistas = new ArrayList<>(linhas.size());
+        for (Linha<ArtistaRequest> linha : linhas) {
+            // A StatelessSession não chama os callbacks @PrePersist
+            Artista artista = artistaMapper.toEntity(linha.request());
+            artista.setCriadoEm(agora);
+            artistas.add(artista);
+        }
+
+        statelessSession.setJdbcBatchSize(tamanhoBatch);
+        statelessSession.insertMultiple(artistas);
+
+        Map<Long, ArtistaResponse> criados = new LinkedHashMap<>();
+        artistas.forEach(artista -> criados.put(artista.getId(), artistaMapper.toResponse(artista)));
+        eventoCatalogoService.registrarEmLote(TipoEventoCatalogo.ARTISTA_CRIADO, criados);
+    }
+
+    /**
+     * @param artistas artistas referenciados pelo lote, pelo ID (já validados)
+     * @return IDs dos artistas que ganharam álbuns
+     */
+    @Transactional
+    Set<Long> inserirAlbuns(List<Linha<AlbumRequest>> linhas, Map<Long, Artista> artistas) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Album> albuns = new ArrayList<>(linhas.size());
+        for (Linha<AlbumRequest> linha : linhas) {
+            Album album = albumMapper.toEntity(linha.request());
+            album.setCriadoEm(agora);
+            albuns.add(album);
+        }
+
+        statelessSession.setJdbcBatchSize(tamanhoBatch);
+        statelessSession.insertMultiple(albuns);
+
+        Set<Long> alterados = new HashSet<>();
+        statelessSession.doWork(conexao -> {
+            try (PreparedStatement insert = conexao.prepareStatement(INSERIR_ASSOCIACAO)) {
+                int pendentes = 0;
+                for (int i = 0; i < linhas.size(); i++) {
+                    for (Long artistaId : artistaIds(linhas.get(i).request())) {
+                        insert.setLong(1, artistaId);
+                        insert.setLong(2, albuns.get(i).getId());
+                        insert.addBatch();
+                        alterados.add(artistaId);
+                        if (++pendentes == tamanhoBatch) {
+                            insert.executeBatch();
+                            pendentes = 0;
+                        }
+                    }
+                }
+                if (pendentes > 0) {
+                    insert.executeBatch();
+                }
+            }
+        });
+
+        // Artistas só no lado inverso, para o DTO do evento; não alteram a inserção
+        Map<Long, AlbumResponse> criados = new LinkedHashMap<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            Album album = albuns.get(i);
+            artistaIds(linhas.get(i).request()).forEach(id -> album.getArtistas().add(artistas.get(id)));
+            criados.put(album.getId(), albumMapper.toResponse(album));
+        }
+        eventoCatalogoService.registrarEmLote(TipoEventoCatalogo.ALBUM_CRIADO, criados);
+        return alterados;
+    }
+
+    private static Collection<Long> artistaIds(AlbumRequest request) {
+        // Sem repetição: a chave de artista_album é (artista_id, album_id)
+        return request.getArtistaIds() != null ? new LinkedHashSet<>(request.getArtistaIds()) : List.of();
+    }
+
+    private record Linha<T>(long numero, T request) {
+    }
+
+    /**
+     * Contadores e erros da importação; guarda no máximo {@code maximoErros}
+     * linhas com erro.
+     */
+    private static final class Relatorio {
+
+        private final int maximoErros;
+
+        private final List<ErroImportacaoResponse> erros = new ArrayList<>();
+
+        private long linhas;
+
+        private long importados;
+
+        private long totalErros;
+
+        Relatorio(int maximoErros) {
+            this.maximoErros = maximoErros;
+        }
+
+        void erro(long linha, String mensagem) {
+            totalErros++;
+            if (erros.size() < maximoErros) {
+                erros.add(ErroImportacaoResponse.builder().linha(linha).erro(mensagem).build());
+            }
+        }
+
+        ImportacaoResponse toResponse() {
+            return ImportacaoResponse.builder()
+                    .linhas(linhas)
+                    .importados(importados)
+                    .totalErros(totalErros)
+                    .erros(erros)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.projetoseletivo.domain.enums.FormatoImportacao;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lê o arquivo de importação registro a registro, sem carregar o arquivo
+ * inteiro. NDJSON e CSV viram o mesmo JsonNode, convertido depois para o DTO
+ * da requisição.
+ *
+ * No CSV a primeira linha é o cabeçalho com os nomes dos campos. Valores podem
+ * vir entre aspas ("" para aspas literais), mas um registro não pode ocupar
+ * mais de uma linha. Campos de lista separam os itens com "|".
+ */
+class LeitorImportacao implements Closeable {
+
+    /**
+     * Registro lido da linha {@code linha}: os dados ou o erro de leitura.
+     */
+    record Registro(long linha, JsonNode dados, String erro) {
+    }
+
+    private final BufferedReader leitor;
+
+    private final FormatoImportacao formato;
+
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> camposLista;
+
+    private List<String> cabecalho;
+
+    private long linha;
+
+    LeitorImportacao(InputStream conteudo, FormatoImportacao formato, ObjectMapper objectMapper,
+            Set<String> camposLista) {
+        this.leitor = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8));
+        this.formato = formato;
+        this.objectMapper = objectMapper;
+        this.camposLista = camposLista;
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo. Linhas em branco são
+     * ignoradas.
+     */
+    Registro proximo() throws IOException {
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            linha++;
+            // BOM de arquivos salvos por planilhas
+            if (linha == 1 && texto.startsWith("\uFEFF")) {
+                texto = texto.substring(1);
+            }
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (formato == FormatoImportacao.NDJSON) {
+                return lerJson(texto);
+            }
+            if (cabecalho == null) {
+                cabecalho = dividirCsv(texto).stream().map(String::trim).toList();
+                continue;
+            }
+            return lerCsv(texto);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        leitor.close();
+    }
+
+    private Registro lerJson(String texto) {
+        try {
+            JsonNode dados = objectMapper.readTree(texto);
+            if (!dados.isObject()) {
+                return new Registro(linha, null, "Linha não é um objeto JSON");
+            }
+            return new Registro(linha, dados, null);
+        } catch (JsonProcessingException e) {
+            return new Registro(linha, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private Registro lerCsv(String texto) {
+        List<String> valores;
+        try {
+            valores = dividirCsv(texto);
+        } catch (IllegalArgumentException e) {
+            return new Registro(linha, null, e.getMessage());
+        }
+        if (valores.size() != cabecalho.size()) {
+            return new Registro(linha, null, "Esperados " + cabecalho.size() + " campos, encontrados "
+                    + valores.size());
+        }
+
+        ObjectNode dados = objectMapper.createObjectNode();
+        for (int i = 0; i < valores.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            String campo = cabecalho.get(i);
+            if (camposLista.contains(campo)) {
+                ArrayNode itens = dados.putArray(campo);
+                for (String item : valor.split("\\|")) {
+                    if (!item.isBlank()) {
+                        itens.add(item.trim());
+                    }
+                }
+            } else {
+                dados.put(campo, valor);
+            }
+        }
+        return new Registro(linha, dados, null);
+    }
+
+    /**
+     * Divide uma linha CSV nos valores separados por vírgula, respeitando
+     * aspas.
+     */
+    static List<String> dividirCsv(String texto) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                valores.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha");
+        }
+        valores.add(atual.toString());
+        return valores;
+    }
+}
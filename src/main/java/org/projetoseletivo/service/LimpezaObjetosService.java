@@ -0,0 +1,134 @@
+package org.projetoseletivo.service;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.ObjetoRemovido;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.ObjetoRemovidoRepository;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remove do MinIO os objetos que não pertencem mais a nenhuma imagem.
+ *
+ * 1. {@link #processarPendentes} consome a fila {@code objeto_removido},
+ * preenchida por gatilho na mesma transação que apaga imagens e variantes, e
+ * remove os objetos em lote com removeObjects. Objetos que voltaram a ser
+ * referenciados (conteúdo deduplicado) saem da fila sem serem removidos.
+ * 2. {@link #reconciliar} percorre o bucket e enfileira objetos sem imagem
+ * correspondente: uploads abandonados, falhas de compensação e remoções
+ * anteriores à fila. Só objetos mais antigos que
+ * {@code minio.limpeza.reconciliacao.idade-minima.hours} são considerados,
+ * para não apagar uploads ainda em andamento.
+ */
+@ApplicationScoped
+public class LimpezaObjetosService {
+
+    private static final Logger LOG = Logger.getLogger(LimpezaObjetosService.class);
+
+    @Inject
+    MinioService minioService;
+
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    ObjetoRemovidoRepository objetoRemovidoRepository;
+
+    @ConfigProperty(name = "minio.limpeza.lote", defaultValue = "500")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "minio.limpeza.tentativas-maximas", defaultValue = "10")
+    int tentativasMaximas;
+
+    @ConfigProperty(name = "minio.limpeza.reconciliacao.idade-minima.hours", defaultValue = "24")
+    int idadeMinimaHoras;
+
+    @Scheduled(every = "{minio.limpeza.intervalo}", delayed = "30s",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void processarPendentes() {
+        // Continua enquanto os lotes vierem cheios e sem falhas
+        int concluidos;
+        do {
+            concluidos = processarLote();
+        } while (concluidos == tamanhoLote);
+    }
+
+    @Scheduled(cron = "{minio.limpeza.reconciliacao.cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconciliar() {
+        ZonedDateTime limite = ZonedDateTime.now().minus(Duration.ofHours(idadeMinimaHoras));
+        AtomicLong orfaos = new AtomicLong();
+
+        minioService.percorrerObjetos(limite, tamanhoLote, chaves -> orfaos.addAndGet(enfileirarOrfaos(chaves)));
+
+        LOG.infov("Reconciliação do bucket concluída: {0} objeto(s) sem imagem enfileirado(s) para remoção",
+                orfaos.get());
+        if (orfaos.get() > 0) {
+            processarPendentes();
+        }
+    }
+
+    /**
+     * Processa um lote da fila. A remoção no MinIO acontece com as linhas
+     * bloqueadas: a conferência das referências e a remoção não concorrem com
+     * outra instância processando os mesmos objetos. O lock exclusivo das
+     * chaves faz a conferência esperar uploads que estão gravando uma
+     * referência nova para o mesmo conteúdo. Chamado pelo próprio bean; o ArC
+     * intercepta a autoinvocação.
+     *
+     * @return número de linhas concluídas (removidas da fila)
+     */
+    @Transactional
+    int processarLote() {
+        List<ObjetoRemovido> lote = objetoRemovidoRepository.bloquearLote(tamanhoLote, tentativasMaximas);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<String> chaves = lote.stream().map(ObjetoRemovido::getObjectKey).distinct().toList();
+        albumImagemRepository.bloquearObjectKeys(chaves, true);
+        Set<String> referenciadas = albumImagemRepository.buscarObjectKeysReferenciadas(chaves);
+        List<String> remover = chaves.stream().filter(chave -> !referenciadas.contains(chave)).toList();
+        Set<String> falhas = minioService.removerEmLote(remover);
+
+        int concluidos = 0;
+        for (ObjetoRemovido objeto : lote) {
+            if (!falhas.contains(objeto.getObjectKey())) {
+                objetoRemovidoRepository.delete(objeto);
+                concluidos++;
+                continue;
+            }
+            // Fica na fila para a próxima execução, até o limite de tentativas
+            objeto.setTentativas(objeto.getTentativas() + 1);
+            if (objeto.getTentativas() >= tentativasMaximas) {
+                LOG.errorv("Desistindo de remover '{0}' após {1} tentativas", objeto.getObjectKey(),
+                        objeto.getTentativas());
+            }
+        }
+
+        LOG.infov("Limpeza do MinIO: {0} objeto(s) removido(s), {1} ainda referenciado(s), {2} falha(s)",
+                remover.size() - falhas.size(), referenciadas.size(), falhas.size());
+        return concluidos;
+    }
+
+    @Transactional
+    int enfileirarOrfaos(Collection<String> chaves) {
+        Set<String> referenciadas = albumImagemRepository.buscarObjectKeysReferenciadas(chaves);
+        List<ObjetoRemovido> orfaos = chaves.stream()
+                .filter(chave -> !referenciadas.contains(chave))
+                .map(chave -> ObjetoRemovido.builder().objectKey(chave).build())
+                .toList();
+        objetoRemovidoRepository.persist(orfaos);
+        return orfaos.size();
+    }
+}
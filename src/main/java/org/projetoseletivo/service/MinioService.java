@@ -1,15 +1,44 @@
 package org.projetoseletivo.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.VarianteResponse;
+import org.projetoseletivo.dto.response.VersaoRecurso;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 
 @ApplicationScoped
@@ -17,15 +46,30 @@ public class MinioService {
 
     private static final Logger LOG = Logger.getLogger(MinioService.class);
 
+    private static final Multimap<String, String> SEM_PARAMETROS = ImmutableMultimap.of();
+
     @Inject
     MinioClient minioClient;
 
+    // Expõe as operações de multipart (iniciar, enviar parte, concluir)
+    @Inject
+    MinioAsyncClient minioAsyncClient;
+
     @ConfigProperty(name = "minio.bucket.capas", defaultValue = "album-capas")
     String bucketName;
 
     @ConfigProperty(name = "minio.presigned.url.expiration.minutes", defaultValue = "30")
     int urlExpirationMinutes;
 
+    @ConfigProperty(name = "minio.presigned.url.cache.ttl.minutes", defaultValue = "20")
+    int cacheTtlMinutes;
+
+    @ConfigProperty(name = "minio.presigned.url.cache.max-size", defaultValue = "10000")
+    long cacheTamanhoMaximo;
+
+    @ConfigProperty(name = "quarkus.minio.host")
+    String host;
+
     @ConfigProperty(name = "quarkus.minio.external-host", defaultValue = "")
     String externalHost;
 
@@ -38,6 +82,12 @@ public class MinioService {
     // Client para gerar URLs com external-host
     private MinioClient urlClient;
 
+    // URLs já assinadas por (bucket, objectKey), reaproveitadas enquanto válidas
+    private Cache<ChaveObjeto, String> urlsPreAssinadas;
+
+    // Validade mínima restante de uma URL entregue (expiração - TTL do cache)
+    private Duration validadeMinimaUrl;
+
     /**
      * Inicializa o bucket e o client para URLs.
      */
@@ -67,6 +117,19 @@ public class MinioService {
         } else {
             urlClient = minioClient;
         }
+
+        // A entrada precisa expirar antes da URL, senão o cache entregaria URLs vencidas
+        int ttl = cacheTtlMinutes;
+        if (ttl >= urlExpirationMinutes) {
+            ttl = Math.max(1, urlExpirationMinutes / 2);
+            LOG.warnv("TTL do cache de URLs ({0} min) não é menor que a expiração ({1} min); usando {2} min",
+                    cacheTtlMinutes, urlExpirationMinutes, ttl);
+        }
+        validadeMinimaUrl = Duration.ofMinutes(Math.max(1, urlExpirationMinutes - ttl));
+        urlsPreAssinadas = Caffeine.newBuilder()
+                .maximumSize(cacheTamanhoMaximo)
+                .expireAfterWrite(Duration.ofMinutes(ttl))
+                .build();
     }
 
     /**
@@ -90,25 +153,217 @@ public class MinioService {
         }
     }
 
+    /**
+     * Gera os campos de um formulário POST pré-assinado (POST policy) para o
+     * cliente enviar um objeto direto ao MinIO. A política fixa a chave, o
+     * Content-Type e o tamanho máximo; o MinIO recusa envios fora dela.
+     */
+    public Map<String, String> gerarFormularioUpload(String objectKey, String contentType, long tamanhoMaximo,
+            Duration validade) {
+        PostPolicy politica = new PostPolicy(bucketName, ZonedDateTime.now().plus(validade));
+        politica.addEqualsCondition("key", objectKey);
+        politica.addEqualsCondition("Content-Type", contentType);
+        politica.addContentLengthRangeCondition(1, tamanhoMaximo);
+
+        try {
+            Map<String, String> campos = new HashMap<>(urlClient.getPresignedPostFormData(politica));
+            campos.put("key", objectKey);
+            campos.put("Content-Type", contentType);
+            return campos;
+        } catch (Exception e) {
+            LOG.errorv(e, "Erro ao gerar formulário de upload: {0}", objectKey);
+            throw new RuntimeException("Erro ao gerar formulário de upload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * URL para onde o formulário de upload direto deve ser enviado.
+     */
+    public String urlUpload() {
+        String base = externalHost != null && !externalHost.isBlank() ? externalHost : host;
+        return base.replaceAll("/+$", "") + "/" + bucketName;
+    }
+
+    /**
+     * Metadados de um objeto do bucket, ou vazio se ele não existir.
+     */
+    public Optional<StatObjectResponse> consultar(String objectKey) {
+        try {
+            return Optional.of(minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .build()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            LOG.errorv(e, "Erro ao consultar arquivo: {0}", objectKey);
+            throw new RuntimeException("Erro ao consultar arquivo: " + e.getMessage(), e);
+        } catch (Exception e) {
+            LOG.errorv(e, "Erro ao consultar arquivo: {0}", objectKey);
+            throw new RuntimeException("Erro ao consultar arquivo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inicia um upload multipart e retorna o uploadId gerado pelo MinIO.
+     */
+    public String iniciarMultipart(String objectKey, String contentType) {
+        Multimap<String, String> headers = contentType != null
+                ? ImmutableMultimap.of("Content-Type", contentType)
+                : SEM_PARAMETROS;
+        try {
+            String uploadId = minioAsyncClient.createMultipartUploadAsync(bucketName, null, objectKey, headers,
+                    SEM_PARAMETROS).get().result().uploadId();
+            LOG.infov("Upload multipart {0} iniciado para '{1}'", uploadId, objectKey);
+            return uploadId;
+        } catch (Exception e) {
+            throw erroMultipart("iniciar upload multipart", objectKey, e);
+        }
+    }
+
+    /**
+     * Envia uma parte de um upload multipart e retorna o ETag da parte. Enviar
+     * de novo o mesmo número substitui a parte anterior.
+     */
+    public String enviarParte(String objectKey, String uploadId, int numero, byte[] conteudo, int tamanho) {
+        try {
+            return minioAsyncClient.uploadPartAsync(bucketName, null, objectKey, conteudo, tamanho, uploadId,
+                    numero, SEM_PARAMETROS, SEM_PARAMETROS).get().etag();
+        } catch (Exception e) {
+            throw erroMultipart("enviar parte " + numero, objectKey, e);
+        }
+    }
+
+    /**
+     * Lista as partes já recebidas pelo MinIO, em ordem de número.
+     */
+    public List<Part> listarPartes(String objectKey, String uploadId) {
+        List<Part> partes = new ArrayList<>();
+        try {
+            Integer marcador = null;
+            ListPartsResult pagina;
+            do {
+                pagina = minioAsyncClient.listPartsAsync(bucketName, null, objectKey, 1000, marcador, uploadId,
+                        SEM_PARAMETROS, SEM_PARAMETROS).get().result();
+                partes.addAll(pagina.partList());
+                marcador = pagina.nextPartNumberMarker();
+            } while (pagina.isTruncated());
+        } catch (Exception e) {
+            throw erroMultipart("listar partes", objectKey, e);
+        }
+        return partes;
+    }
+
+    /**
+     * Conclui o upload multipart: o MinIO junta as partes no objeto final.
+     */
+    public void concluirMultipart(String objectKey, String uploadId, List<Part> partes) {
+        try {
+            minioAsyncClient.completeMultipartUploadAsync(bucketName, null, objectKey, uploadId,
+                    partes.toArray(Part[]::new), SEM_PARAMETROS, SEM_PARAMETROS).get();
+            LOG.infov("Upload multipart {0} concluído com {1} parte(s): '{2}'", uploadId, partes.size(), objectKey);
+        } catch (Exception e) {
+            throw erroMultipart("concluir upload multipart", objectKey, e);
+        }
+    }
+
+    /**
+     * Aborta o upload multipart, descartando as partes já enviadas. Um upload
+     * que o MinIO não conhece mais (já abortado ou concluído) não é erro.
+     */
+    public void abortarMultipart(String objectKey, String uploadId) {
+        try {
+            minioAsyncClient.abortMultipartUploadAsync(bucketName, null, objectKey, uploadId, SEM_PARAMETROS,
+                    SEM_PARAMETROS).get();
+            LOG.infov("Upload multipart {0} abortado: '{1}'", uploadId, objectKey);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ErrorResponseException erro
+                    && "NoSuchUpload".equals(erro.errorResponse().code())) {
+                LOG.infov("Upload multipart {0} já não existe: '{1}'", uploadId, objectKey);
+                return;
+            }
+            throw erroMultipart("abortar upload multipart", objectKey, e);
+        } catch (Exception e) {
+            throw erroMultipart("abortar upload multipart", objectKey, e);
+        }
+    }
+
     /**
      * Gera URL pré-assinada para acesso ao arquivo.
      * Usa o urlClient configurado com external-host para gerar URLs válidas
-     * externamente.
+     * externamente. URLs já assinadas são reaproveitadas do cache.
      */
     public String gerarUrlPreAssinada(String bucket, String objectKey) {
-        String bucketToUse = bucket != null ? bucket : bucketName;
+        return urlsPreAssinadas.get(chave(bucket, objectKey), this::assinar);
+    }
+
+    /**
+     * Preenche a URL pré-assinada de um lote de imagens (ex.: uma página de
+     * álbuns) e de suas variantes, assinando de uma vez apenas as que não estão
+     * em cache. As variantes ficam no bucket da original.
+     */
+    public void preencherUrls(Collection<ImagemResponse> imagens) {
+        if (imagens.isEmpty()) {
+            return;
+        }
+
+        Set<ChaveObjeto> chaves = new HashSet<>();
+        for (ImagemResponse img : imagens) {
+            chaves.add(chave(img.getBucket(), img.getObjectKey()));
+            variantes(img).forEach(variante -> chaves.add(chave(img.getBucket(), variante.getObjectKey())));
+        }
+        Map<ChaveObjeto, String> urls = urlsPreAssinadas.getAll(chaves, this::assinarTodas);
+
+        for (ImagemResponse img : imagens) {
+            img.setUrl(urls.get(chave(img.getBucket(), img.getObjectKey())));
+            variantes(img).forEach(variante -> variante.setUrl(urls.get(chave(img.getBucket(),
+                    variante.getObjectKey()))));
+        }
+    }
+
+    /**
+     * Versão de uma resposta com URLs pré-assinadas. Toda URL entregue continua
+     * válida até o fim da janela de tempo em que foi entregue: a janela atual
+     * entra na ETag e a data de alteração passa a ser no mínimo o início dela,
+     * para que nem If-None-Match nem If-Modified-Since revalidem (304) uma
+     * resposta com URLs de uma janela anterior, possivelmente expiradas.
+     */
+    public VersaoRecurso comValidadeDasUrls(VersaoRecurso versao) {
+        long duracao = validadeMinimaUrl.toMillis();
+        long janela = System.currentTimeMillis() / duracao;
+        LocalDateTime inicio = LocalDateTime.ofInstant(Instant.ofEpochMilli(janela * duracao),
+                ZoneId.systemDefault());
+        return versao.aPartirDe(inicio, janela);
+    }
 
+    /**
+     * Abre o conteúdo de um arquivo do MinIO para leitura. O chamador deve
+     * fechar o stream.
+     */
+    public InputStream download(String objectKey) {
+        return download(objectKey, 0, null);
+    }
+
+    /**
+     * Abre um trecho do arquivo ({@code tamanho} bytes a partir de
+     * {@code inicio}); com tamanho nulo, vai até o fim. O MinIO envia só o
+     * trecho pedido.
+     */
+    public InputStream download(String objectKey, long inicio, Long tamanho) {
         try {
-            return urlClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .bucket(bucketToUse)
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
                             .object(objectKey)
-                            .expiry(urlExpirationMinutes, TimeUnit.MINUTES)
+                            // Sem Range quando o arquivo inteiro é pedido
+                            .offset(inicio == 0 && tamanho == null ? null : inicio)
+                            .length(tamanho)
                             .build());
         } catch (Exception e) {
-            LOG.errorv(e, "Erro ao gerar URL pré-assinada: {0}", objectKey);
-            return null;
+            LOG.errorv(e, "Erro ao baixar arquivo: {0}", objectKey);
+            throw new RuntimeException("Erro ao baixar arquivo: " + e.getMessage(), e);
         }
     }
 
@@ -122,16 +377,134 @@ public class MinioService {
                             .bucket(bucketName)
                             .object(objectKey)
                             .build());
+            urlsPreAssinadas.invalidate(chave(bucketName, objectKey));
             LOG.infov("Arquivo '{0}' removido do bucket '{1}'", objectKey, bucketName);
         } catch (Exception e) {
             LOG.errorv(e, "Erro ao remover arquivo: {0}", objectKey);
         }
     }
 
+    /**
+     * Remove vários arquivos com uma única requisição (removeObjects).
+     *
+     * @return chaves que não puderam ser removidas; todas, se a requisição
+     *         inteira falhar
+     */
+    public Set<String> removerEmLote(Collection<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return Set.of();
+        }
+
+        List<DeleteObject> objetos = objectKeys.stream().map(DeleteObject::new).toList();
+        Set<String> falhas = new HashSet<>();
+        try {
+            // O resultado é preguiçoso: a remoção só acontece ao percorrê-lo
+            Iterable<Result<DeleteError>> erros = minioClient.removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .objects(objetos)
+                            .build());
+            for (Result<DeleteError> resultado : erros) {
+                DeleteError erro = resultado.get();
+                LOG.warnv("Não foi possível remover '{0}': {1}", erro.objectName(), erro.message());
+                falhas.add(erro.objectName());
+            }
+        } catch (Exception e) {
+            LOG.errorv(e, "Erro ao remover {0} arquivo(s) em lote", objectKeys.size());
+            return new HashSet<>(objectKeys);
+        }
+
+        objectKeys.forEach(objectKey -> urlsPreAssinadas.invalidate(chave(bucketName, objectKey)));
+        return falhas;
+    }
+
+    /**
+     * Percorre todos os objetos do bucket alterados antes de {@code limite},
+     * entregando as chaves em páginas de até {@code tamanhoPagina}.
+     */
+    public void percorrerObjetos(ZonedDateTime limite, int tamanhoPagina, Consumer<List<String>> pagina) {
+        List<String> chaves = new ArrayList<>(tamanhoPagina);
+        Iterable<Result<Item>> objetos = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .recursive(true)
+                        .build());
+        for (Result<Item> resultado : objetos) {
+            Item item;
+            try {
+                item = resultado.get();
+            } catch (Exception e) {
+                LOG.errorv(e, "Erro ao listar arquivos do bucket {0}", bucketName);
+                throw new RuntimeException("Erro ao listar arquivos: " + e.getMessage(), e);
+            }
+            if (item.isDir() || item.lastModified().isAfter(limite)) {
+                continue;
+            }
+            chaves.add(item.objectName());
+            if (chaves.size() == tamanhoPagina) {
+                pagina.accept(List.copyOf(chaves));
+                chaves.clear();
+            }
+        }
+        if (!chaves.isEmpty()) {
+            pagina.accept(chaves);
+        }
+    }
+
     /**
      * Retorna o nome do bucket padrão.
      */
     public String getBucketName() {
         return bucketName;
     }
+
+    private RuntimeException erroMultipart(String operacao, String objectKey, Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable causa = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        LOG.errorv(causa, "Erro ao {0}: {1}", operacao, objectKey);
+        return new RuntimeException("Erro ao " + operacao + ": " + causa.getMessage(), causa);
+    }
+
+    private static List<VarianteResponse> variantes(ImagemResponse imagem) {
+        return imagem.getVariantes() != null ? imagem.getVariantes() : List.of();
+    }
+
+    private ChaveObjeto chave(String bucket, String objectKey) {
+        return new ChaveObjeto(bucket != null ? bucket : bucketName, objectKey);
+    }
+
+    /**
+     * Assina a URL de um objeto. Retorna null em caso de erro, o que impede o
+     * valor de ser armazenado no cache.
+     */
+    private String assinar(ChaveObjeto chave) {
+        try {
+            return urlClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.GET)
+                            .bucket(chave.bucket())
+                            .object(chave.objectKey())
+                            .expiry(urlExpirationMinutes, TimeUnit.MINUTES)
+                            .build());
+        } catch (Exception e) {
+            LOG.errorv(e, "Erro ao gerar URL pré-assinada: {0}", chave.objectKey());
+            return null;
+        }
+    }
+
+    private Map<ChaveObjeto, String> assinarTodas(Set<? extends ChaveObjeto> chaves) {
+        Map<ChaveObjeto, String> urls = new HashMap<>();
+        for (ChaveObjeto chave : chaves) {
+            String url = assinar(chave);
+            if (url != null) {
+                urls.put(chave, url);
+            }
+        }
+        return urls;
+    }
+
+    private record ChaveObjeto(String bucket, String objectKey) {
+    }
 }
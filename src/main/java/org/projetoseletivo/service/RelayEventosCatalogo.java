@@ -0,0 +1,417 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.projetoseletivo.domain.entity.EventoCatalogo;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay dos eventos do catálogo entre as instâncias da API, sobre
+ * {@code LISTEN/NOTIFY} do PostgreSQL.
+ *
+ * Quem grava um evento no outbox faz {@code pg_notify} na mesma transação
+ * (ver {@link #aviso}); o PostgreSQL só entrega o aviso no commit, e a todas
+ * as instâncias, inclusive a que gravou. Cada instância mantém uma conexão
+ * dedicada, fora do pool, escutando o canal, e repassa cada evento uma única
+ * vez como {@link EventoCatalogoConfirmado} para os observadores locais
+ * (WebSocket, leituras do feed em espera).
+ *
+ * Os eventos gravados por esta instância também são repassados direto, por
+ * um observador do commit, sem esperar a volta do aviso; o aviso que chega
+ * depois é descartado como duplicado. A entrega aos observadores roda numa
+ * única thread com fila limitada ({@code eventos.entrega.fila.max-size}), em
+ * ordem de chegada: nem a transação que gravou nem a conexão que escuta o
+ * canal esperam pelos clientes notificados.
+ *
+ * O aviso leva os dados do evento quando cabem no limite de payload do
+ * NOTIFY; senão leva só o id e os dados são lidos do outbox pela mesma
+ * conexão. Ao reconectar, os eventos gravados enquanto a conexão estava
+ * caída são recuperados do outbox; os ids já repassados ficam numa janela
+ * LRU, para que avisos repetidos ou sobrepostos à recuperação não sejam
+ * entregues duas vezes.
+ */
+@ApplicationScoped
+public class RelayEventosCatalogo {
+
+    private static final Logger LOG = Logger.getLogger(RelayEventosCatalogo.class);
+
+    static final String CANAL = "catalogo_eventos";
+
+    /**
+     * O NOTIFY aceita payloads de até 8000 bytes.
+     */
+    static final int LIMITE_PAYLOAD = 7_900;
+
+    private static final Duration ESPERA_AVISOS = Duration.ofSeconds(5);
+
+    private static final Duration RECONEXAO_MAXIMA = Duration.ofSeconds(30);
+
+    @Inject
+    Event<EventoCatalogoConfirmado> eventoConfirmado;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "eventos.relay.enabled", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "eventos.relay.deduplicacao", defaultValue = "10000")
+    int capacidadeDeduplicacao;
+
+    @ConfigProperty(name = "eventos.relay.recuperacao-maxima", defaultValue = "1000")
+    int recuperacaoMaxima;
+
+    @ConfigProperty(name = "eventos.entrega.fila.max-size", defaultValue = "1000")
+    int tamanhoFila;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String usuario;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String senha;
+
+    private Map<Long, Boolean> entregues;
+
+    private Counter recebidos;
+
+    private Counter duplicados;
+
+    private Counter descartados;
+
+    private ExecutorService executor;
+
+    private volatile boolean ativo;
+
+    private volatile Connection conexao;
+
+    /**
+     * Maior id recebido pelo canal; só a thread que escuta o canal altera.
+     */
+    private long ultimoId;
+
+    /**
+     * Payload do NOTIFY.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Aviso(Long id, TipoEventoCatalogo tipo, Long entidadeId, @JsonRawValue String dados,
+            Boolean dadosOmitidos) {
+    }
+
+    @PostConstruct
+    void init() {
+        entregues = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> maisAntigo) {
+                return size() > capacidadeDeduplicacao;
+            }
+        };
+        recebidos = Counter.builder("eventos.relay.recebidos")
+                .description("Avisos de eventos do catálogo recebidos pelo relay")
+                .register(registry);
+        duplicados = Counter.builder("eventos.relay.duplicados")
+                .description("Avisos descartados por já terem sido repassados")
+                .register(registry);
+        descartados = Counter.builder("eventos.entrega.descartados")
+                .description("Eventos não entregues aos observadores por fila cheia")
+                .register(registry);
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "entrega-eventos-catalogo");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Fila cheia: descarta em vez de bloquear o commit ou o relay
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    void iniciar(@Observes StartupEvent inicio) {
+        if (!habilitado) {
+            return;
+        }
+        ativo = true;
+        Thread.ofPlatform().name("relay-eventos-catalogo").daemon().start(this::escutar);
+    }
+
+    void parar(@Observes ShutdownEvent fim) {
+        ativo = false;
+        Connection atual = conexao;
+        if (atual != null) {
+            try {
+                // Interrompe a espera por avisos
+                atual.close();
+            } catch (SQLException e) {
+                LOG.debugv("Erro ao fechar a conexão do relay: {0}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Repassa, assim que a transação confirma, os eventos gravados por esta
+     * instância. Em rollback nada é repassado. Os lotes da importação não são
+     * repassados um a um (ver {@link EventoCatalogoService#registrarEmLote}).
+     */
+    void aoConfirmar(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventoCatalogo evento) {
+        if (evento.getId() == null) {
+            return;
+        }
+        publicar(new EventoCatalogoConfirmado(evento.getId(), evento.getTipo(), evento.getEntidadeId(),
+                evento.getDados()));
+    }
+
+    /**
+     * Payload do aviso de um evento recém-gravado.
+     */
+    String aviso(EventoCatalogo evento) {
+        String payload = serializar(new Aviso(evento.getId(), evento.getTipo(), evento.getEntidadeId(),
+                evento.getDados(), null));
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= LIMITE_PAYLOAD) {
+            return payload;
+        }
+        return serializar(new Aviso(evento.getId(), evento.getTipo(), evento.getEntidadeId(), null, true));
+    }
+
+    /**
+     * Payload do aviso de uma gravação em lote.
+     */
+    String avisoLote(TipoEventoCatalogo tipo) {
+        return serializar(new Aviso(null, tipo, null, null, null));
+    }
+
+    private void escutar() {
+        Duration espera = Duration.ofSeconds(1);
+        while (ativo) {
+            try (Connection atual = conectar()) {
+                conexao = atual;
+                try (Statement listen = atual.createStatement()) {
+                    listen.execute("LISTEN " + CANAL);
+                }
+                // Depois do LISTEN: o que for confirmado durante a recuperação
+                // chega também como aviso e é descartado como duplicado
+                recuperar(atual);
+                LOG.infov("Relay de eventos do catálogo escutando o canal {0}", CANAL);
+                espera = Duration.ofSeconds(1);
+
+                PGConnection pg = atual.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] avisos = pg.getNotifications((int) ESPERA_AVISOS.toMillis());
+                    if (avisos != null) {
+                        for (PGNotification aviso : avisos) {
+                            try {
+                                receber(atual, aviso.getParameter());
+                            } catch (RuntimeException e) {
+                                LOG.errorv(e, "Erro ao processar aviso do canal {0}: {1}", CANAL,
+                                        aviso.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!ativo) {
+                    return;
+                }
+                LOG.warnv("Relay de eventos do catálogo desconectado ({0}); nova tentativa em {1}s",
+                        e.getMessage(), espera.toSeconds());
+                dormir(espera);
+                espera = espera.multipliedBy(2).compareTo(RECONEXAO_MAXIMA) > 0 ? RECONEXAO_MAXIMA
+                        : espera.multipliedBy(2);
+            } finally {
+                conexao = null;
+            }
+        }
+    }
+
+    private Connection conectar() throws SQLException {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("user", usuario);
+        propriedades.setProperty("password", senha);
+        propriedades.setProperty("ApplicationName", "relay-eventos-catalogo");
+        // Detecta a queda do servidor enquanto só espera avisos
+        propriedades.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(url, propriedades);
+    }
+
+    /**
+     * Na primeira conexão, só marca a posição atual do outbox: eventos
+     * anteriores à subida da instância não são repassados. Nas reconexões,
+     * repassa os eventos gravados desde o último recebido.
+     */
+    private void recuperar(Connection atual) throws SQLException {
+        if (ultimoId == 0) {
+            ultimoId = maiorId(atual);
+            return;
+        }
+
+        int recuperados = 0;
+        try (PreparedStatement consulta = atual.prepareStatement(
+                "SELECT id, tipo, entidade_id, dados::text FROM evento_catalogo WHERE id > ? ORDER BY id LIMIT ?")) {
+            consulta.setLong(1, ultimoId);
+            consulta.setInt(2, recuperacaoMaxima);
+            try (ResultSet linhas = consulta.executeQuery()) {
+                while (linhas.next()) {
+                    repassar(new EventoCatalogoConfirmado(linhas.getLong(1),
+                            TipoEventoCatalogo.valueOf(linhas.getString(2)),
+                            linhas.getObject(3, Long.class), linhas.getString(4)));
+                    recuperados++;
+                }
+            }
+        }
+        if (recuperados == recuperacaoMaxima) {
+            // Os consumidores que não podem perder eventos leem o feed (/v1/eventos)
+            LOG.warnv("Relay de eventos do catálogo recuperou o máximo de {0} eventos; os seguintes não serão repassados",
+                    recuperacaoMaxima);
+            ultimoId = maiorId(atual);
+        } else if (recuperados > 0) {
+            LOG.infov("Relay de eventos do catálogo recuperou {0} evento(s) após reconectar", recuperados);
+        }
+    }
+
+    void receber(Connection atual, String payload) throws SQLException {
+        recebidos.increment();
+        JsonNode aviso;
+        try {
+            aviso = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            LOG.warnv("Aviso inválido no canal {0}: {1}", CANAL, payload);
+            return;
+        }
+        TipoEventoCatalogo tipo = TipoEventoCatalogo.valueOf(aviso.path("tipo").asText());
+
+        if (!aviso.hasNonNull("id")) {
+            // Lote: os eventos individuais não são repassados, mas a recuperação
+            // após uma queda não deve repassá-los
+            ultimoId = Math.max(ultimoId, maiorId(atual));
+            enfileirar(new EventoCatalogoConfirmado(null, tipo, null, null));
+            return;
+        }
+
+        long id = aviso.get("id").asLong();
+        Long entidadeId = aviso.hasNonNull("entidadeId") ? aviso.get("entidadeId").asLong() : null;
+        String dados;
+        if (aviso.hasNonNull("dados")) {
+            dados = aviso.get("dados").toString();
+        } else if (aviso.path("dadosOmitidos").asBoolean()) {
+            dados = carregarDados(atual, id);
+        } else {
+            dados = null;
+        }
+        repassar(new EventoCatalogoConfirmado(id, tipo, entidadeId, dados));
+    }
+
+    private void repassar(EventoCatalogoConfirmado evento) {
+        ultimoId = Math.max(ultimoId, evento.id());
+        publicar(evento);
+    }
+
+    private void publicar(EventoCatalogoConfirmado evento) {
+        if (!marcarEntregue(evento.id())) {
+            duplicados.increment();
+            return;
+        }
+        enfileirar(evento);
+    }
+
+    private void enfileirar(EventoCatalogoConfirmado evento) {
+        try {
+            executor.execute(() -> entregar(evento));
+        } catch (RejectedExecutionException e) {
+            descartados.increment();
+            LOG.warnv("Fila de entrega de eventos do catálogo cheia; evento {0} não será repassado", evento.id());
+        }
+    }
+
+    private void entregar(EventoCatalogoConfirmado evento) {
+        try {
+            eventoConfirmado.fire(evento);
+        } catch (RuntimeException e) {
+            LOG.errorv(e, "Erro ao repassar o evento {0} do catálogo", evento.id());
+        }
+    }
+
+    /**
+     * @return false se o id já tinha sido repassado
+     */
+    synchronized boolean marcarEntregue(long id) {
+        return entregues.putIfAbsent(id, Boolean.TRUE) == null;
+    }
+
+    private static String carregarDados(Connection atual, long id) throws SQLException {
+        try (PreparedStatement consulta = atual.prepareStatement(
+                "SELECT dados::text FROM evento_catalogo WHERE id = ?")) {
+            consulta.setLong(1, id);
+            try (ResultSet linha = consulta.executeQuery()) {
+                return linha.next() ? linha.getString(1) : null;
+            }
+        }
+    }
+
+    private static long maiorId(Connection atual) throws SQLException {
+        try (Statement consulta = atual.createStatement();
+                ResultSet linha = consulta.executeQuery("SELECT coalesce(max(id), 0) FROM evento_catalogo")) {
+            linha.next();
+            return linha.getLong(1);
+        }
+    }
+
+    private String serializar(Aviso aviso) {
+        try {
+            return objectMapper.writeValueAsString(aviso);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Erro ao serializar aviso de evento do catálogo", e);
+        }
+    }
+
+    private static void dormir(Duration espera) {
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
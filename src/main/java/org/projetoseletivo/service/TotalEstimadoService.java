@@ -0,0 +1,54 @@
+package org.projetoseletivo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Contagens aproximadas para listagens com total=ESTIMADO.
+ *
+ * Listagens sem filtro usam as estatísticas do PostgreSQL (ver
+ * {@code estimarTotal} nos repositórios). Listagens filtradas reaproveitam a
+ * última contagem exata do mesmo filtro por um curto período, evitando repetir
+ * COUNT com LIKE/JOIN a cada página.
+ */
+@ApplicationScoped
+public class TotalEstimadoService {
+
+    @ConfigProperty(name = "paginacao.total.estimado.cache.ttl.seconds", defaultValue = "60")
+    int ttlSegundos;
+
+    @ConfigProperty(name = "paginacao.total.estimado.cache.max-size", defaultValue = "1000")
+    long tamanhoMaximo;
+
+    private Cache<String, Long> contagens;
+
+    @PostConstruct
+    void init() {
+        contagens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build();
+    }
+
+    /**
+     * Retorna a estimativa das estatísticas do banco ou, se a tabela ainda não
+     * foi analisada (valor negativo), a contagem exata.
+     */
+    public long estimarPorEstatistica(long estimativa, LongSupplier contagemExata) {
+        return estimativa >= 0 ? estimativa : contagemExata.getAsLong();
+    }
+
+    /**
+     * Retorna a contagem em cache para a chave do filtro ou executa a contagem
+     * exata e a armazena.
+     */
+    public long estimarPorCache(String chave, LongSupplier contagemExata) {
+        return contagens.get(chave, k -> contagemExata.getAsLong());
+    }
+}
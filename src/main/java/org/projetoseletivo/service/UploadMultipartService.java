@@ -0,0 +1,369 @@
+package org.projetoseletivo.service;
+
+import io.minio.messages.Part;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.UploadMultipart;
+import org.projetoseletivo.dto.request.ArquivoImagem;
+import org.projetoseletivo.dto.request.UploadMultipartRequest;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.ParteResponse;
+import org.projetoseletivo.dto.response.UploadMultipartResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.AlbumRepository;
+import org.projetoseletivo.repository.UploadMultipartRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Upload retomável de capas grandes, em partes enviadas direto para um upload
+ * multipart do MinIO:
+ *
+ * 1. {@link #iniciar} cria o upload no MinIO e grava o vínculo com o álbum.
+ * 2. {@link #enviarParte} repassa cada parte ao MinIO assim que ela chega; uma
+ * conexão perdida custa só a parte em andamento.
+ * 3. {@link #buscar} informa as partes já recebidas, para o cliente retomar.
+ * 4. {@link #concluir} junta as partes no objeto final e grava a imagem.
+ *
+ * Concluir e abortar são exclusivos por upload (ver
+ * {@link UploadMultipartRepository#marcarFinalizacao}). Uploads abandonados
+ * são abortados por {@link #expirarAbandonados} depois de
+ * {@code minio.multipart.expiracao.hours}, e as partes saem do MinIO.
+ *
+ * Cada parte é mantida em memória só durante o envio ao MinIO, que precisa do
+ * tamanho e do hash antes de transmitir. O uso de memória fica limitado a
+ * {@code minio.multipart.partes-simultaneas} x tamanho máximo da parte,
+ * independente do tamanho do arquivo e sem arquivos temporários.
+ */
+@ApplicationScoped
+public class UploadMultipartService {
+
+    private static final Logger LOG = Logger.getLogger(UploadMultipartService.class);
+
+    /**
+     * Tamanho mínimo de uma parte no MinIO/S3, exceto a última.
+     */
+    static final long TAMANHO_MINIMO_PARTE = 5L * 1024 * 1024;
+
+    /**
+     * Maior número de parte aceito pelo MinIO/S3.
+     */
+    static final int NUMERO_MAXIMO_PARTE = 10_000;
+
+    @Inject
+    MinioService minioService;
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    UploadMultipartRepository uploadMultipartRepository;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    VarianteImagemService varianteImagemService;
+
+    @ConfigProperty(name = "minio.multipart.parte.tamanho-maximo-mb", defaultValue = "8")
+    int tamanhoMaximoParteMb;
+
+    @ConfigProperty(name = "minio.multipart.partes-simultaneas", defaultValue = "4")
+    int partesSimultaneas;
+
+    @ConfigProperty(name = "minio.multipart.expiracao.hours", defaultValue = "24")
+    int expiracaoHoras;
+
+    @ConfigProperty(name = "minio.multipart.limpeza.lote", defaultValue = "100")
+    int tamanhoLoteLimpeza;
+
+    private long tamanhoMaximoParte;
+
+    private Semaphore partesEmEnvio;
+
+    @PostConstruct
+    void init() {
+        tamanhoMaximoParte = Math.max(TAMANHO_MINIMO_PARTE, tamanhoMaximoParteMb * 1024L * 1024L);
+        partesEmEnvio = new Semaphore(partesSimultaneas, true);
+    }
+
+    /**
+     * Inicia o upload multipart de uma capa do álbum.
+     */
+    public UploadMultipartResponse iniciar(Long albumId, UploadMultipartRequest request) {
+        String contentType = request.getContentType() != null ? request.getContentType() : "image/jpeg";
+        String objectKey = String.format("album-%d/%s.%s", albumId, UUID.randomUUID(),
+                ArquivoImagem.extensao(request.getNomeArquivo()));
+
+        String uploadId = minioService.iniciarMultipart(objectKey, contentType);
+        try {
+            registrarInicio(albumId, uploadId, objectKey, contentType);
+        } catch (RuntimeException e) {
+            minioService.abortarMultipart(objectKey, uploadId);
+            throw e;
+        }
+
+        return toResponse(uploadId, objectKey, List.of());
+    }
+
+    /**
+     * Estado do upload, com as partes que o MinIO já recebeu.
+     */
+    public Optional<UploadMultipartResponse> buscar(Long albumId, String uploadId) {
+        return uploadMultipartRepository.buscarPorUploadId(albumId, uploadId)
+                .map(upload -> toResponse(upload.getUploadId(), upload.getObjectKey(),
+                        minioService.listarPartes(upload.getObjectKey(), upload.getUploadId())));
+    }
+
+    /**
+     * Repassa uma parte ao MinIO. Reenviar o mesmo número substitui a parte,
+     * o que permite repetir com segurança uma parte interrompida.
+     *
+     * @throws IOException se a conexão cair antes de a parte chegar inteira
+     */
+    public Optional<ParteResponse> enviarParte(Long albumId, String uploadId, int numero, InputStream conteudo,
+            long tamanho) throws IOException {
+        if (numero < 1 || numero > NUMERO_MAXIMO_PARTE) {
+            throw new IllegalArgumentException("Número da parte deve estar entre 1 e " + NUMERO_MAXIMO_PARTE);
+        }
+        if (tamanho <= 0 || tamanho > tamanhoMaximoParte) {
+            throw new IllegalArgumentException("Content-Length da parte deve estar entre 1 e "
+                    + tamanhoMaximoParte + " bytes");
+        }
+
+        Optional<UploadMultipart> uploadOpt = uploadMultipartRepository.buscarPorUploadId(albumId, uploadId);
+        if (uploadOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        UploadMultipart upload = uploadOpt.get();
+
+        try {
+            partesEmEnvio.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envio da parte interrompido", e);
+        }
+        try {
+            byte[] parte = conteudo.readNBytes((int) tamanho);
+            if (parte.length < tamanho) {
+                throw new IOException("Parte " + numero + " incompleta: recebidos " + parte.length + " de "
+                        + tamanho + " bytes");
+            }
+            String etag = minioService.enviarParte(upload.getObjectKey(), uploadId, numero, parte, parte.length);
+            return Optional.of(ParteResponse.builder()
+                    .numero(numero)
+                    .etag(etag)
+                    .tamanho(tamanho)
+                    .build());
+        } finally {
+            partesEmEnvio.release();
+        }
+    }
+
+    /**
+     * Junta as partes recebidas no objeto final e grava a imagem do álbum.
+     *
+     * @throws IllegalArgumentException se o upload já está sendo concluído ou
+     *                                  abortado por outra chamada
+     */
+    public Optional<ImagemResponse> concluir(Long albumId, String uploadId) {
+        Optional<UploadMultipart> uploadOpt = uploadMultipartRepository.buscarPorUploadId(albumId, uploadId);
+        if (uploadOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        UploadMultipart upload = uploadOpt.get();
+        reservarFinalizacao(upload);
+
+        try {
+            List<Part> partes = minioService.listarPartes(upload.getObjectKey(), uploadId);
+            if (partes.isEmpty()) {
+                throw new IllegalArgumentException("Nenhuma parte enviada para o upload " + uploadId);
+            }
+            minioService.concluirMultipart(upload.getObjectKey(), uploadId, partes);
+        } catch (RuntimeException e) {
+            // O objeto não foi criado: o upload continua aceitando partes
+            liberarFinalizacao(upload.getId());
+            throw e;
+        }
+
+        ImagemResponse imagem;
+        try {
+            imagem = registrarConclusao(albumId, uploadId);
+        } catch (RuntimeException e) {
+            // O objeto foi criado por esta chamada, a única com a finalização
+            // marcada; o upload no MinIO já não existe, então o registro sai também
+            LOG.warnv("Removendo '{0}' do MinIO após falha ao gravar a imagem", upload.getObjectKey());
+            minioService.remover(upload.getObjectKey());
+            removerRegistro(albumId, uploadId);
+            throw e;
+        }
+
+        varianteImagemService.agendar(List.of(imagem.getId()));
+        return Optional.of(imagem);
+    }
+
+    /**
+     * Aborta o upload, descartando as partes já enviadas.
+     *
+     * @throws IllegalArgumentException se o upload já está sendo concluído ou
+     *                                  abortado por outra chamada
+     */
+    public boolean abortar(Long albumId, String uploadId) {
+        Optional<UploadMultipart> uploadOpt = uploadMultipartRepository.buscarPorUploadId(albumId, uploadId);
+        if (uploadOpt.isEmpty()) {
+            return false;
+        }
+        UploadMultipart upload = uploadOpt.get();
+        reservarFinalizacao(upload);
+
+        try {
+            minioService.abortarMultipart(upload.getObjectKey(), uploadId);
+        } catch (RuntimeException e) {
+            liberarFinalizacao(upload.getId());
+            throw e;
+        }
+        removerRegistro(albumId, uploadId);
+        return true;
+    }
+
+    /**
+     * Aborta os uploads criados há mais de {@code minio.multipart.expiracao.hours}
+     * e remove os registros. Uma conclusão interrompida no meio (queda da
+     * instância) pode já ter criado o objeto final; como o registro só sai
+     * junto com a gravação da imagem, nenhuma imagem o referencia e ele é
+     * removido também.
+     */
+    @Scheduled(every = "{minio.multipart.limpeza.intervalo}", delayed = "1m",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expirarAbandonados() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(expiracaoHoras);
+        int expirados = 0;
+        for (UploadMultipart upload : uploadMultipartRepository.buscarCriadosAntesDe(limite, tamanhoLoteLimpeza)) {
+            if (expirar(upload, limite)) {
+                expirados++;
+            }
+        }
+        if (expirados > 0) {
+            LOG.infov("{0} upload(s) multipart abandonado(s) abortado(s)", expirados);
+        }
+    }
+
+    private boolean expirar(UploadMultipart upload, LocalDateTime limite) {
+        boolean conclusaoInterrompida = upload.getFinalizandoEm() != null;
+        if (!marcarFinalizacao(upload.getId(), limite)) {
+            // Concluído ou abortado por outra chamada nesse meio tempo
+            return false;
+        }
+        try {
+            minioService.abortarMultipart(upload.getObjectKey(), upload.getUploadId());
+        } catch (RuntimeException e) {
+            LOG.warnv("Não foi possível abortar o upload multipart {0}; nova tentativa na próxima execução",
+                    upload.getUploadId());
+            liberarFinalizacao(upload.getId());
+            return false;
+        }
+        if (conclusaoInterrompida) {
+            minioService.remover(upload.getObjectKey());
+        }
+        removerRegistro(upload.getId());
+        return true;
+    }
+
+    private void reservarFinalizacao(UploadMultipart upload) {
+        if (!marcarFinalizacao(upload.getId(), LocalDateTime.now().minusHours(expiracaoHoras))) {
+            throw new IllegalArgumentException("Upload " + upload.getUploadId()
+                    + " já está sendo concluído ou abortado");
+        }
+    }
+
+    /**
+     * Chamados pelo próprio bean; o ArC intercepta a autoinvocação. As chamadas
+     * ao MinIO ficam fora da transação.
+     */
+    @Transactional
+    void registrarInicio(Long albumId, String uploadId, String objectKey, String contentType) {
+        Album album = albumRepository.findByIdOptional(albumId)
+                .orElseThrow(() -> new IllegalArgumentException("Álbum não encontrado"));
+
+        uploadMultipartRepository.persist(UploadMultipart.builder()
+                .album(album)
+                .uploadId(uploadId)
+                .objectKey(objectKey)
+                .contentType(contentType)
+                .build());
+    }
+
+    @Transactional
+    ImagemResponse registrarConclusao(Long albumId, String uploadId) {
+        UploadMultipart upload = uploadMultipartRepository.buscarPorUploadId(albumId, uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload não encontrado: " + uploadId));
+        Album album = upload.getAlbum();
+
+        AlbumImagem imagem = AlbumImagem.builder()
+                .album(album)
+                .bucket(minioService.getBucketName())
+                .objectKey(upload.getObjectKey())
+                .contentType(upload.getContentType())
+                .build();
+        albumImagemRepository.persist(imagem);
+        // Mantém a coleção em dia para invalidar o cache de Album.imagens
+        album.getImagens().add(imagem);
+        uploadMultipartRepository.delete(upload);
+
+        return albumMapper.mapImagem(imagem);
+    }
+
+    @Transactional
+    void removerRegistro(Long albumId, String uploadId) {
+        uploadMultipartRepository.buscarPorUploadId(albumId, uploadId)
+                .ifPresent(uploadMultipartRepository::delete);
+    }
+
+    @Transactional
+    void removerRegistro(Long id) {
+        uploadMultipartRepository.deleteById(id);
+    }
+
+    @Transactional
+    boolean marcarFinalizacao(Long id, LocalDateTime abandonadaAntesDe) {
+        return uploadMultipartRepository.marcarFinalizacao(id, abandonadaAntesDe);
+    }
+
+    @Transactional
+    void liberarFinalizacao(Long id) {
+        uploadMultipartRepository.liberarFinalizacao(id);
+    }
+
+    private UploadMultipartResponse toResponse(String uploadId, String objectKey, List<Part> partes) {
+        return UploadMultipartResponse.builder()
+                .uploadId(uploadId)
+                .objectKey(objectKey)
+                .tamanhoMinimoParte(TAMANHO_MINIMO_PARTE)
+                .tamanhoMaximoParte(tamanhoMaximoParte)
+                .partes(partes.stream()
+                        .map(parte -> ParteResponse.builder()
+                                .numero(parte.partNumber())
+                                .etag(parte.etag())
+                                .tamanho(parte.partSize())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
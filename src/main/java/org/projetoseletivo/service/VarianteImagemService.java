@@ -0,0 +1,366 @@
+package org.projetoseletivo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.AlbumImagemVariante;
+import org.projetoseletivo.domain.enums.VarianteImagem;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera as variantes redimensionadas ({@link VarianteImagem}) das capas depois
+ * do upload, em segundo plano, com ImageIO/Java2D.
+ *
+ * O trabalho roda em um pool limitado ({@code imagem.variantes.paralelismo})
+ * com fila limitada. Com a fila cheia a imagem é descartada com um aviso em
+ * vez de bloquear o upload; até serem geradas, as respostas trazem a lista de
+ * variantes vazia e o cliente usa a original.
+ *
+ * As variantes são gravadas em JPEG, formato para o qual o JDK tem codificador.
+ * A original é decodificada já reduzida (subamostragem do leitor), o que
+ * limita a memória usada mesmo com capas de alta resolução.
+ *
+ * Imagens que compartilham o conteúdo (mesma chave no MinIO) reaproveitam as
+ * variantes já geradas, sem decodificar a imagem de novo.
+ */
+@ApplicationScoped
+public class VarianteImagemService {
+
+    private static final Logger LOG = Logger.getLogger(VarianteImagemService.class);
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    @Inject
+    MinioService minioService;
+
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    ImagemCacheService imagemCacheService;
+
+    @ConfigProperty(name = "imagem.variantes.paralelismo", defaultValue = "2")
+    int paralelismo;
+
+    @ConfigProperty(name = "imagem.variantes.fila.max-size", defaultValue = "100")
+    int tamanhoFila;
+
+    @ConfigProperty(name = "imagem.variantes.qualidade", defaultValue = "0.85")
+    float qualidade;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(paralelismo, paralelismo, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "variantes-imagem-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Fila cheia: descarta em vez de bloquear quem fez o upload
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Agenda a geração das variantes das imagens já gravadas. Retorna sem
+     * esperar o processamento.
+     */
+    public void agendar(Collection<Long> imagemIds) {
+        for (Long imagemId : imagemIds) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        gerarVariantes(imagemId);
+                    } catch (RuntimeException e) {
+                        LOG.errorv(e, "Erro ao gerar variantes da imagem {0}", imagemId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOG.warnv("Fila de variantes cheia; variantes da imagem {0} não serão geradas", imagemId);
+            }
+        }
+    }
+
+    /**
+     * Gera, envia ao MinIO e grava as variantes de uma imagem. Cada variante
+     * fica ao lado da original: "album-1/abc.png" gera "album-1/abc-miniatura.jpg".
+     */
+    void gerarVariantes(Long imagemId) {
+        Optional<String> origem = buscarObjectKey(imagemId);
+        if (origem.isEmpty()) {
+            return;
+        }
+        String objectKey = origem.get();
+        if (copiarVariantes(imagemId, objectKey)) {
+            return;
+        }
+
+        BufferedImage original;
+        try (InputStream conteudo = minioService.download(objectKey)) {
+            original = lerReduzida(conteudo, ladoMaximo() * 2);
+        } catch (IOException e) {
+            LOG.warnv("Não foi possível ler a imagem {0} ({1}): {2}", imagemId, objectKey, e.getMessage());
+            return;
+        }
+        if (original == null) {
+            LOG.warnv("Formato da imagem {0} ({1}) não suportado; variantes não geradas", imagemId, objectKey);
+            return;
+        }
+
+        List<AlbumImagemVariante> variantes = new ArrayList<>();
+        Map<String, byte[]> conteudos = new HashMap<>();
+        try {
+            for (VarianteImagem tipo : VarianteImagem.values()) {
+                BufferedImage redimensionada = redimensionar(original, tipo.getLado());
+                byte[] jpeg = codificarJpeg(redimensionada, qualidade);
+                String chave = chaveVariante(objectKey, tipo);
+                conteudos.put(chave, jpeg);
+
+                minioService.upload(chave, new ByteArrayInputStream(jpeg), jpeg.length, CONTENT_TYPE);
+                // Regerar sobrescreve a mesma chave; a cópia em disco ficou velha
+                imagemCacheService.invalidar(chave);
+                variantes.add(AlbumImagemVariante.builder()
+                        .variante(tipo)
+                        .largura(redimensionada.getWidth())
+                        .altura(redimensionada.getHeight())
+                        .objectKey(chave)
+                        .contentType(CONTENT_TYPE)
+                        .build());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.errorv(e, "Erro ao gerar variantes da imagem {0}", imagemId);
+            removerNaoReferenciadas(chaves(variantes));
+            return;
+        }
+
+        if (!registrar(imagemId, variantes)) {
+            // Imagem removida durante o processamento
+            removerNaoReferenciadas(chaves(variantes));
+            return;
+        }
+
+        // A limpeza pode ter removido a chave entre o envio e a gravação
+        // (variantes de uma imagem apagada com o mesmo conteúdo); com a
+        // referência gravada ela não remove mais
+        conteudos.forEach((chave, jpeg) -> {
+            if (minioService.consultar(chave).isEmpty()) {
+                LOG.warnv("Variante {0} removida pela limpeza durante a geração; reenviando", chave);
+                minioService.upload(chave, new ByteArrayInputStream(jpeg), jpeg.length, CONTENT_TYPE);
+            }
+        });
+    }
+
+    /**
+     * As chaves das variantes derivam da chave da original; com conteúdo
+     * compartilhado, outra imagem pode estar usando o mesmo objeto. Roda em
+     * transação, com o lock exclusivo das chaves, como a limpeza do MinIO.
+     */
+    @Transactional
+    void removerNaoReferenciadas(List<String> chaves) {
+        if (chaves.isEmpty()) {
+            return;
+        }
+        albumImagemRepository.bloquearObjectKeys(chaves, true);
+        Set<String> referenciadas = albumImagemRepository.buscarObjectKeysReferenciadas(chaves);
+        chaves.stream()
+                .filter(chave -> !referenciadas.contains(chave))
+                .forEach(minioService::remover);
+    }
+
+    private static List<String> chaves(List<AlbumImagemVariante> variantes) {
+        return variantes.stream().map(AlbumImagemVariante::getObjectKey).distinct().toList();
+    }
+
+    /**
+     * Chamados pelo próprio bean; o ArC intercepta a autoinvocação. O download,
+     * o redimensionamento e o envio ficam fora da transação.
+     */
+    @Transactional
+    Optional<String> buscarObjectKey(Long imagemId) {
+        return albumImagemRepository.findByIdOptional(imagemId).map(AlbumImagem::getObjectKey);
+    }
+
+    /**
+     * Registra para a imagem cópias das variantes de outra imagem com o mesmo
+     * conteúdo. Retorna false se não houver todas as variantes para copiar.
+     */
+    @Transactional
+    boolean copiarVariantes(Long imagemId, String objectKey) {
+        Map<VarianteImagem, AlbumImagemVariante> existentes = new EnumMap<>(VarianteImagem.class);
+        for (AlbumImagemVariante variante : albumImagemRepository.buscarVariantesPorObjectKey(objectKey, imagemId)) {
+            existentes.putIfAbsent(variante.getVariante(), variante);
+        }
+        if (existentes.size() < VarianteImagem.values().length) {
+            return false;
+        }
+
+        // Sob o lock, uma chave ainda referenciada não pode ter sido removida
+        // pela limpeza; se a outra imagem foi apagada nesse meio tempo, gera de novo
+        List<String> chaves = chaves(List.copyOf(existentes.values()));
+        albumImagemRepository.bloquearObjectKeys(chaves, false);
+        if (!albumImagemRepository.buscarObjectKeysReferenciadas(chaves).containsAll(chaves)) {
+            return false;
+        }
+
+        registrar(imagemId, existentes.values().stream()
+                .map(variante -> AlbumImagemVariante.builder()
+                        .variante(variante.getVariante())
+                        .largura(variante.getLargura())
+                        .altura(variante.getAltura())
+                        .objectKey(variante.getObjectKey())
+                        .contentType(variante.getContentType())
+                        .build())
+                .toList());
+        return true;
+    }
+
+    @Transactional
+    boolean registrar(Long imagemId, List<AlbumImagemVariante> variantes) {
+        Optional<AlbumImagem> imagemOpt = albumImagemRepository.findByIdOptional(imagemId);
+        if (imagemOpt.isEmpty()) {
+            return false;
+        }
+
+        AlbumImagem imagem = imagemOpt.get();
+        albumImagemRepository.bloquearObjectKeys(chaves(variantes), false);
+        for (AlbumImagemVariante variante : variantes) {
+            // Regerar atualiza a variante existente (mesma chave no MinIO)
+            Optional<AlbumImagemVariante> existente = imagem.getVariantes().stream()
+                    .filter(atual -> atual.getVariante() == variante.getVariante())
+                    .findFirst();
+            if (existente.isPresent()) {
+                existente.get().setLargura(variante.getLargura());
+                existente.get().setAltura(variante.getAltura());
+            } else {
+                variante.setImagem(imagem);
+                imagem.getVariantes().add(variante);
+            }
+        }
+        return true;
+    }
+
+    static String chaveVariante(String objectKey, VarianteImagem tipo) {
+        int ponto = objectKey.lastIndexOf('.');
+        String base = ponto > objectKey.lastIndexOf('/') ? objectKey.substring(0, ponto) : objectKey;
+        return base + "-" + tipo.name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    /**
+     * Decodifica a imagem subamostrada, de forma que o maior lado fique com
+     * pelo menos {@code ladoMinimo} pixels. Retorna null se nenhum leitor do
+     * ImageIO reconhecer o formato.
+     */
+    static BufferedImage lerReduzida(InputStream conteudo, int ladoMinimo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(conteudo)) {
+            Iterator<ImageReader> leitores = entrada != null ? ImageIO.getImageReaders(entrada) : null;
+            if (leitores == null || !leitores.hasNext()) {
+                return null;
+            }
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+                int maiorLado = Math.max(leitor.getWidth(0), leitor.getHeight(0));
+                int fator = Math.max(1, maiorLado / ladoMinimo);
+
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                parametros.setSourceSubsampling(fator, fator, 0, 0);
+                return leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reduz a imagem para caber em um quadrado de {@code lado} pixels, mantendo
+     * a proporção, sem ampliar. Transparências viram fundo branco (JPEG).
+     */
+    static BufferedImage redimensionar(BufferedImage original, int lado) {
+        double escala = Math.min(1.0, (double) lado / Math.max(original.getWidth(), original.getHeight()));
+        int largura = Math.max(1, (int) Math.round(original.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(original.getHeight() * escala));
+
+        BufferedImage destino = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = destino.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            grafico.setColor(Color.WHITE);
+            grafico.fillRect(0, 0, largura, altura);
+            grafico.drawImage(original, 0, 0, largura, altura, null);
+        } finally {
+            grafico.dispose();
+        }
+        return destino;
+    }
+
+    static byte[] codificarJpeg(BufferedImage imagem, float qualidade) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream destino = new MemoryCacheImageOutputStream(saida)) {
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(qualidade);
+
+            escritor.setOutput(destino);
+            escritor.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+        return saida.toByteArray();
+    }
+
+    private static int ladoMaximo() {
+        return Arrays.stream(VarianteImagem.values()).mapToInt(VarianteImagem::getLado).max().orElse(1);
+    }
+}
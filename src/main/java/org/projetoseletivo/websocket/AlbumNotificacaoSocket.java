@@ -1,18 +1,36 @@
 package org.projetoseletivo.websocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.websocket.*;
 import jakarta.websocket.server.ServerEndpoint;
 import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.enums.TipoArtista;
 import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.service.EventoCatalogoConfirmado;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
- * WebSocket para notificar clientes sobre novos álbuns cadastrados.
+ * WebSocket para notificar clientes sobre álbuns criados, alterados e
+ * removidos. O envio para as sessões, com fila limitada por cliente, fica com
+ * o {@link FanoutNotificacoes}, que entrega as mesmas notificações aos streams
+ * SSE ({@link TransmissaoSse}).
+ *
+ * As alterações chegam pelo {@link org.projetoseletivo.service.RelayEventosCatalogo}
+ * depois do commit, de qualquer instância da API: cada instância notifica as
+ * suas sessões, sem atrasar a requisição que fez a alteração.
+ *
+ * O cliente pode assinar tópicos enviando comandos JSON, por exemplo
+ * {@code {"acao": "ASSINAR", "artistaId": 5}}, e passa a receber só os álbuns
+ * desses tópicos. Sem assinatura, recebe todos.
  */
 @ServerEndpoint("/ws/albuns")
 @ApplicationScoped
@@ -20,62 +38,200 @@ public class AlbumNotificacaoSocket {
 
     private static final Logger LOG = Logger.getLogger(AlbumNotificacaoSocket.class);
 
-    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
-
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    FanoutNotificacoes fanout;
+
     @OnOpen
     public void onOpen(Session session) {
-        sessions.put(session.getId(), session);
+        fanout.registrar(new DestinoSessao(session));
         LOG.infov("WebSocket conectado: {0}", session.getId());
     }
 
     @OnClose
     public void onClose(Session session) {
-        sessions.remove(session.getId());
+        fanout.remover(session.getId());
         LOG.infov("WebSocket desconectado: {0}", session.getId());
     }
 
     @OnError
     public void onError(Session session, Throwable throwable) {
-        sessions.remove(session.getId());
+        fanout.remover(session.getId());
         LOG.errorv(throwable, "Erro no WebSocket: {0}", session.getId());
     }
 
+    /**
+     * Comandos de assinatura. A resposta é a lista de assinaturas da sessão
+     * ({@code ASSINATURAS}) ou um {@code ERRO}.
+     */
     @OnMessage
     public void onMessage(String message, Session session) {
         LOG.debugv("Mensagem recebida de {0}: {1}", session.getId(), message);
-        // Mensagens do cliente podem ser usadas para ping/pong ou comandos futuros
+        String id = session.getId();
+        try {
+            ComandoAssinatura comando = objectMapper.readValue(message, ComandoAssinatura.class);
+            if (comando.acao() == null) {
+                throw new IllegalArgumentException("Ação é obrigatória: ASSINAR, CANCELAR, CANCELAR_TODAS ou LISTAR");
+            }
+            Set<Topico> assinaturas = switch (comando.acao()) {
+                case ASSINAR -> fanout.assinar(id, topicos(comando));
+                case CANCELAR -> fanout.cancelar(id, topicos(comando));
+                case CANCELAR_TODAS -> fanout.cancelar(id, null);
+                case LISTAR -> fanout.assinaturas(id);
+            };
+            fanout.responder(id, objectMapper.writeValueAsString(RespostaAssinaturas.de(assinaturas)));
+        } catch (IllegalArgumentException e) {
+            responderErro(id, e.getMessage());
+        } catch (Exception e) {
+            responderErro(id, "Comando inválido; envie JSON como {\"acao\": \"ASSINAR\", \"artistaId\": 1}");
+        }
     }
 
     /**
-     * Notifica todos os clientes conectados sobre um novo álbum.
+     * Álbum criado, alterado ou removido em qualquer instância, entregue
+     * depois do commit e fora da thread da requisição. Os criados pela
+     * importação chegam como um único aviso de lote, sem dados, e não são
+     * anunciados.
      */
-    public void notificarNovoAlbum(AlbumResponse album) {
+    void aoConfirmar(@Observes EventoCatalogoConfirmado evento) {
+        if (evento.lote() || evento.tipo() == null) {
+            return;
+        }
         try {
-            String mensagem = objectMapper.writeValueAsString(new NotificacaoAlbum("NOVO_ALBUM", album));
-
-            sessions.values().forEach(session -> {
-                if (session.isOpen()) {
-                    session.getAsyncRemote().sendText(mensagem, result -> {
-                        if (result.getException() != null) {
-                            LOG.warnv("Erro ao enviar notificação para {0}: {1}",
-                                    session.getId(), result.getException().getMessage());
-                        }
-                    });
+            switch (evento.tipo()) {
+                case ALBUM_CRIADO -> notificarAlbum(evento.id(), "NOVO_ALBUM", lerAlbum(evento));
+                case ALBUM_ATUALIZADO -> notificarAlbum(evento.id(), "ALBUM_ATUALIZADO", lerAlbum(evento));
+                case ALBUM_REMOVIDO -> notificarRemocao(evento.id(), evento.entidadeId(), evento.dados());
+                default -> {
                 }
-            });
+            }
+        } catch (Exception e) {
+            LOG.errorv(e, "Erro ao notificar o evento {0} do álbum {1}", evento.id(), evento.entidadeId());
+        }
+    }
 
-            LOG.infov("Notificação de novo álbum enviada para {0} clientes", sessions.size());
+    /**
+     * Notifica os clientes sem assinatura e os que assinaram algum dos
+     * artistas, tipos de artista ou prefixos do título do álbum. A mensagem é
+     * serializada uma vez para todas as sessões.
+     */
+    private void notificarAlbum(long eventoId, String tipo, AlbumResponse album) throws JsonProcessingException {
+        String mensagem = objectMapper.writeValueAsString(new NotificacaoAlbum(tipo, album));
+        int alcancadas = fanout.publicarEvento(eventoId, mensagem, "album:" + album.getId(), topicos(album));
+
+        LOG.infov("Notificação {0} do álbum {1} enfileirada para {2} de {3} clientes", tipo, album.getId(),
+                alcancadas, fanout.quantidadeSessoes());
+    }
+
+    /**
+     * O evento de remoção traz o título e os artistas do álbum removido: a
+     * notificação vai para os clientes sem assinatura e os que assinaram algum
+     * deles, como na criação e na alteração. Sem esses dados, vai para todas
+     * as sessões. Uma atualização pendente do mesmo álbum é substituída pela
+     * remoção quando a fila coalesce.
+     */
+    private void notificarRemocao(long eventoId, Long albumId, String dados) throws JsonProcessingException {
+        String mensagem = objectMapper.writeValueAsString(new NotificacaoRemocao("ALBUM_REMOVIDO", albumId));
+        List<Topico> topicos = dados == null ? null : topicos(objectMapper.readValue(dados, AlbumResponse.class));
+        int alcancadas = fanout.publicarEvento(eventoId, mensagem, "album:" + albumId, topicos);
+
+        LOG.infov("Notificação de remoção do álbum {0} enfileirada para {1} de {2} clientes", albumId,
+                alcancadas, fanout.quantidadeSessoes());
+    }
+
+    private AlbumResponse lerAlbum(EventoCatalogoConfirmado evento) throws JsonProcessingException {
+        if (evento.dados() == null) {
+            throw new IllegalStateException("Evento sem os dados do álbum");
+        }
+        return objectMapper.readValue(evento.dados(), AlbumResponse.class);
+    }
+
+    private void responderErro(String id, String erro) {
+        try {
+            fanout.responder(id, objectMapper.writeValueAsString(new ErroComando("ERRO", erro)));
         } catch (Exception e) {
-            LOG.errorv(e, "Erro ao serializar notificação de álbum");
+            LOG.errorv(e, "Erro ao serializar resposta para {0}", id);
         }
     }
 
+    private static List<Topico> topicos(ComandoAssinatura comando) {
+        List<Topico> topicos = new ArrayList<>();
+        if (comando.artistaId() != null) {
+            topicos.add(Topico.artista(comando.artistaId()));
+        }
+        if (comando.tipoArtista() != null) {
+            topicos.add(Topico.tipoArtista(comando.tipoArtista()));
+        }
+        if (comando.prefixoTitulo() != null) {
+            topicos.add(Topico.prefixoTitulo(comando.prefixoTitulo()));
+        }
+        if (topicos.isEmpty()) {
+            throw new IllegalArgumentException("Informe artistaId, tipoArtista ou prefixoTitulo");
+        }
+        return topicos;
+    }
+
+    /**
+     * Tópicos do álbum: cada artista, cada tipo de artista e cada prefixo do
+     * título.
+     */
+    static List<Topico> topicos(AlbumResponse album) {
+        List<Topico> topicos = new ArrayList<>(Topico.prefixosDoTitulo(album.getTitulo()));
+        if (album.getArtistas() != null) {
+            album.getArtistas().forEach(artista -> topicos.add(Topico.artista(artista.getId())));
+            album.getArtistas().stream()
+                    .map(AlbumResponse.ArtistaResumoResponse::getTipo)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(tipo -> topicos.add(Topico.tipoArtista(tipo)));
+        }
+        return topicos;
+    }
+
     /**
      * DTO interno para notificações WebSocket.
      */
     record NotificacaoAlbum(String tipo, AlbumResponse album) {
     }
+
+    record NotificacaoRemocao(String tipo, Long albumId) {
+    }
+
+    enum AcaoAssinatura {
+        ASSINAR,
+        CANCELAR,
+        CANCELAR_TODAS,
+        LISTAR
+    }
+
+    /**
+     * Comando enviado pelo cliente; os tópicos informados juntos são
+     * assinados ou cancelados juntos.
+     */
+    record ComandoAssinatura(AcaoAssinatura acao, Long artistaId, TipoArtista tipoArtista, String prefixoTitulo) {
+    }
+
+    record RespostaAssinaturas(String tipo, List<Long> artistaIds, List<TipoArtista> tiposArtista,
+            List<String> prefixosTitulo) {
+
+        static RespostaAssinaturas de(Set<Topico> assinaturas) {
+            List<Long> artistaIds = new ArrayList<>();
+            List<TipoArtista> tipos = new ArrayList<>();
+            List<String> prefixos = new ArrayList<>();
+            assinaturas.stream().sorted(Comparator.comparing(Topico::valor)).forEach(topico -> {
+                switch (topico.categoria()) {
+                    case ARTISTA -> artistaIds.add(Long.valueOf(topico.valor()));
+                    case TIPO_ARTISTA -> tipos.add(TipoArtista.valueOf(topico.valor()));
+                    case PREFIXO_TITULO -> prefixos.add(topico.valor());
+                }
+            });
+            artistaIds.sort(null);
+            return new RespostaAssinaturas("ASSINATURAS", artistaIds, tipos, prefixos);
+        }
+    }
+
+    record ErroComando(String tipo, String erro) {
+    }
 }
@@ -0,0 +1,20 @@
+package org.projetoseletivo.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * Conexão que recebe notificações do {@link FanoutNotificacoes}: uma sessão
+ * WebSocket ou um stream SSE.
+ */
+interface DestinoNotificacao {
+
+    String id();
+
+    /**
+     * Envia a mensagem sem bloquear e chama {@code aoConcluir} ao fim do envio,
+     * com null em caso de sucesso ou o erro.
+     */
+    void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir);
+
+    void fechar(String motivo);
+}
@@ -0,0 +1,57 @@
+package org.projetoseletivo.websocket;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * {@link DestinoNotificacao} sobre uma sessão Jakarta WebSocket.
+ */
+final class DestinoSessao implements DestinoNotificacao {
+
+    private static final Logger LOG = Logger.getLogger(DestinoSessao.class);
+
+    private final Session session;
+
+    DestinoSessao(Session session) {
+        this.session = session;
+    }
+
+    @Override
+    public String id() {
+        return session.getId();
+    }
+
+    @Override
+    public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+        if (mensagem.texto() == null) {
+            // Keepalive é só do SSE; o WebSocket tem ping/pong
+            aoConcluir.accept(null);
+            return;
+        }
+        try {
+            session.getAsyncRemote().sendText(mensagem.texto(), resultado -> {
+                if (!resultado.isOK()) {
+                    LOG.warnv("Erro ao enviar notificação para {0}: {1}", session.getId(),
+                            resultado.getException().getMessage());
+                }
+                aoConcluir.accept(resultado.getException());
+            });
+        } catch (RuntimeException e) {
+            // Sessão já fechada
+            aoConcluir.accept(e);
+        }
+    }
+
+    @Override
+    public void fechar(String motivo) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, motivo));
+        } catch (IOException e) {
+            LOG.warnv("Erro ao fechar a sessão {0}: {1}", session.getId(), e.getMessage());
+        }
+    }
+}
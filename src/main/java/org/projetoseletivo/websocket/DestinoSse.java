@@ -0,0 +1,85 @@
+package org.projetoseletivo.websocket;
+
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.jboss.logging.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link DestinoNotificacao} sobre um stream Server-Sent Events. O id do
+ * evento do catálogo vai no campo {@code id} do SSE, que o cliente devolve
+ * em {@code Last-Event-ID} ao reconectar.
+ */
+final class DestinoSse implements DestinoNotificacao {
+
+    private static final Logger LOG = Logger.getLogger(DestinoSse.class);
+
+    private final String id;
+
+    private final SseEventSink sink;
+
+    private final Sse sse;
+
+    private final Consumer<String> aoFechar;
+
+    /**
+     * @param aoFechar chamado com o id quando o stream está fechado; o JAX-RS
+     *                 não avisa o fechamento pelo cliente
+     */
+    DestinoSse(String id, SseEventSink sink, Sse sse, Consumer<String> aoFechar) {
+        this.id = id;
+        this.sink = sink;
+        this.sse = sse;
+        this.aoFechar = aoFechar;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+        if (sink.isClosed()) {
+            aoFechar.accept(id);
+            aoConcluir.accept(new IllegalStateException("Stream SSE fechado"));
+            return;
+        }
+        try {
+            sink.send(evento(mensagem)).whenComplete((resultado, erro) -> {
+                if (erro != null) {
+                    LOG.debugv("Stream SSE {0} encerrado: {1}", id, erro.getMessage());
+                    aoFechar.accept(id);
+                }
+                aoConcluir.accept(erro);
+            });
+        } catch (RuntimeException e) {
+            // Fechado entre a verificação e o envio
+            aoFechar.accept(id);
+            aoConcluir.accept(e);
+        }
+    }
+
+    @Override
+    public void fechar(String motivo) {
+        sink.close();
+    }
+
+    boolean fechado() {
+        return sink.isClosed();
+    }
+
+    private OutboundSseEvent evento(FilaSessao.Mensagem mensagem) {
+        if (mensagem.texto() == null) {
+            return sse.newEventBuilder().comment("keepalive").build();
+        }
+        // Texto puro: a mensagem já é JSON serializado
+        OutboundSseEvent.Builder evento = sse.newEventBuilder().data(mensagem.texto());
+        if (mensagem.id() != null) {
+            evento.id(String.valueOf(mensagem.id()));
+        }
+        return evento.build();
+    }
+}
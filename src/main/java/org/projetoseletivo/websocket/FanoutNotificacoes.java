@@ -0,0 +1,313 @@
+package org.projetoseletivo.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.enums.PoliticaFilaCheia;
+import org.projetoseletivo.dto.response.SessaoNotificacaoResponse;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distribui as notificações para as sessões conectadas: WebSocket e streams
+ * SSE.
+ *
+ * Cada mensagem é serializada uma única vez e a mesma instância é enfileirada
+ * em todas as sessões. Cada sessão tem sua {@link FilaSessao}, limitada a
+ * {@code notificacoes.fila.capacidade} mensagens com no máximo um envio em
+ * andamento; quando um cliente lento enche a fila, vale a
+ * {@code notificacoes.fila.politica}. Publicar nunca bloqueia à espera de um
+ * cliente.
+ *
+ * Cada sessão pode assinar tópicos (artista, tipo de artista, prefixo do
+ * título) e então recebe só as publicações desses tópicos; o
+ * {@link IndiceAssinaturas} leva cada publicação só às sessões interessadas.
+ * Sessões sem assinatura recebem tudo.
+ *
+ * As notificações de eventos do catálogo ficam num
+ * {@link HistoricoNotificacoes} ({@code notificacoes.historico.capacidade}),
+ * de onde um stream SSE que reconecta recebe o que perdeu. Publicar e
+ * registrar uma sessão com reposição acontecem sob o mesmo lock, então a
+ * sessão recebe a reposição e depois as novas, sem lacuna nem repetição.
+ *
+ * Métricas (Micrometer): sessões conectadas, total de mensagens pendentes,
+ * maior atraso entre as sessões, descartes por política e desconexões. O
+ * atraso de cada sessão fica em {@link #sessoes()}, para não criar uma série
+ * por sessão no Prometheus.
+ */
+@ApplicationScoped
+public class FanoutNotificacoes {
+
+    private static final Logger LOG = Logger.getLogger(FanoutNotificacoes.class);
+
+    static final String RESSINCRONIZAR = "{\"tipo\":\"RESSINCRONIZAR\"}";
+
+    /**
+     * Chave dos keepalives: coalescem entre si numa fila parada.
+     */
+    private static final String KEEPALIVE = "keepalive";
+
+    private final Map<String, FilaSessao> filas = new ConcurrentHashMap<>();
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "notificacoes.fila.capacidade", defaultValue = "64")
+    int capacidade;
+
+    @ConfigProperty(name = "notificacoes.fila.politica", defaultValue = "COALESCER")
+    PoliticaFilaCheia politica;
+
+    @ConfigProperty(name = "notificacoes.assinaturas.maximo", defaultValue = "50")
+    int maximoAssinaturas;
+
+    @ConfigProperty(name = "notificacoes.historico.capacidade", defaultValue = "1000")
+    int capacidadeHistorico;
+
+    private IndiceAssinaturas indice;
+
+    private HistoricoNotificacoes historico;
+
+    private Counter coalescidas;
+
+    private Counter descartadasAntigas;
+
+    private Counter desconexoes;
+
+    @PostConstruct
+    void init() {
+        indice = new IndiceAssinaturas(maximoAssinaturas);
+        historico = new HistoricoNotificacoes(capacidadeHistorico);
+        Gauge.builder("notificacoes.sessoes", filas, Map::size)
+                .description("Sessões WebSocket conectadas")
+                .register(registry);
+        Gauge.builder("notificacoes.pendentes", this, FanoutNotificacoes::totalPendentes)
+                .description("Mensagens aguardando envio em todas as sessões")
+                .register(registry);
+        Gauge.builder("notificacoes.atraso.maximo", this, FanoutNotificacoes::maiorAtrasoMs)
+                .description("Maior atraso entre as sessões: idade da mensagem pendente mais antiga")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("notificacoes.topicos", this, fanout -> fanout.indice.quantidadeTopicos())
+                .description("Tópicos com ao menos uma sessão assinante")
+                .register(registry);
+        coalescidas = Counter.builder("notificacoes.descartadas").tag("motivo", "coalescida").register(registry);
+        descartadasAntigas = Counter.builder("notificacoes.descartadas").tag("motivo", "fila_cheia")
+                .register(registry);
+        desconexoes = Counter.builder("notificacoes.desconexoes")
+                .description("Sessões fechadas por fila cheia")
+                .register(registry);
+    }
+
+    void registrar(DestinoNotificacao destino) {
+        filas.put(destino.id(), new FilaSessao(destino, capacidade, politica));
+        indice.conectar(destino.id());
+    }
+
+    /**
+     * Registra um stream que reconecta: assina os tópicos e, antes das
+     * próximas publicações, enfileira as notificações publicadas depois de
+     * {@code ultimoId} que interessam à sessão. Se parte delas já saiu do
+     * histórico, ou se não cabem na fila ({@code notificacoes.fila.capacidade}),
+     * envia {@code RESSINCRONIZAR} no lugar da reposição.
+     *
+     * @param ultimoId último id recebido pelo cliente; null sem reposição
+     * @return false se o cliente precisa ressincronizar
+     * @throws IllegalArgumentException se ultrapassar o máximo de assinaturas
+     */
+    boolean registrar(DestinoNotificacao destino, Long ultimoId, Collection<Topico> topicos) {
+        String id = destino.id();
+        synchronized (historico) {
+            Optional<List<HistoricoNotificacoes.Entrada>> reposicao = ultimoId == null
+                    ? Optional.of(List.of())
+                    : historico.apos(ultimoId);
+            FilaSessao fila = new FilaSessao(destino, capacidade, politica);
+            filas.put(id, fila);
+            indice.conectar(id);
+            if (!topicos.isEmpty()) {
+                try {
+                    indice.assinar(id, topicos);
+                } catch (IllegalArgumentException e) {
+                    remover(id);
+                    throw e;
+                }
+            }
+
+            List<FilaSessao.Mensagem> mensagens = reposicao.map(entradas -> entradas.stream()
+                    .filter(entrada -> entrada.topicos() == null || indice.interessado(id, entrada.topicos()))
+                    .map(HistoricoNotificacoes.Entrada::mensagem)
+                    .toList())
+                    .orElse(null);
+
+            long agora = System.currentTimeMillis();
+            if (mensagens == null || mensagens.size() > capacidade) {
+                // O id leva o cliente ao ponto atual: após ressincronizar, segue daqui
+                oferecer(fila, new FilaSessao.Mensagem(RESSINCRONIZAR, null, historico.ultimoId(ultimoId)), agora);
+                return false;
+            }
+            mensagens.forEach(mensagem -> oferecer(fila, mensagem, agora));
+            return true;
+        }
+    }
+
+    void remover(String id) {
+        indice.desconectar(id);
+        FilaSessao fila = filas.remove(id);
+        if (fila != null) {
+            fila.encerrar();
+        }
+    }
+
+    /**
+     * Enfileira a mensagem para todas as sessões, assinantes ou não.
+     *
+     * @param chave entidade a que a mensagem se refere, para coalescer
+     *              notificações pendentes sobre a mesma entidade
+     */
+    public void publicar(String texto, String chave) {
+        entregar(new FilaSessao.Mensagem(texto, chave), null);
+    }
+
+    /**
+     * Enfileira a mensagem só para as sessões sem assinatura e as que
+     * assinaram algum dos tópicos.
+     *
+     * @return quantidade de sessões alcançadas
+     */
+    int publicar(String texto, String chave, Collection<Topico> topicos) {
+        return entregar(new FilaSessao.Mensagem(texto, chave), topicos);
+    }
+
+    /**
+     * Publica a notificação de um evento do catálogo e a guarda no histórico.
+     *
+     * @param id      id do evento no outbox
+     * @param topicos tópicos da publicação; null envia para todas as sessões
+     * @return quantidade de sessões alcançadas
+     */
+    int publicarEvento(long id, String texto, String chave, List<Topico> topicos) {
+        FilaSessao.Mensagem mensagem = new FilaSessao.Mensagem(texto, chave, id);
+        synchronized (historico) {
+            historico.adicionar(new HistoricoNotificacoes.Entrada(mensagem, topicos));
+            return entregar(mensagem, topicos);
+        }
+    }
+
+    /**
+     * Enfileira um keepalive: mantém abertos os streams SSE atrás de proxies
+     * que encerram conexões ociosas.
+     */
+    void manterAtiva(String id) {
+        FilaSessao fila = filas.get(id);
+        if (fila != null) {
+            oferecer(fila, new FilaSessao.Mensagem(null, KEEPALIVE), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Enfileira uma resposta para uma única sessão, pela mesma fila das
+     * notificações: o WebSocket não aceita dois envios simultâneos.
+     */
+    void responder(String id, String texto) {
+        FilaSessao fila = filas.get(id);
+        if (fila != null) {
+            oferecer(fila, new FilaSessao.Mensagem(texto, null), System.currentTimeMillis());
+        }
+    }
+
+    Set<Topico> assinar(String id, Collection<Topico> topicos) {
+        return indice.assinar(id, topicos);
+    }
+
+    /**
+     * @param topicos tópicos a cancelar; {@code null} cancela todos
+     */
+    Set<Topico> cancelar(String id, Collection<Topico> topicos) {
+        return indice.cancelar(id, topicos);
+    }
+
+    Set<Topico> assinaturas(String id) {
+        return indice.assinaturas(id);
+    }
+
+    /**
+     * Situação de cada sessão, das mais atrasadas para as menos.
+     */
+    public List<SessaoNotificacaoResponse> sessoes() {
+        long agora = System.currentTimeMillis();
+        return filas.values().stream()
+                .map(fila -> SessaoNotificacaoResponse.builder()
+                        .sessaoId(fila.destino().id())
+                        .pendentes(fila.pendentes())
+                        .atrasoMs(fila.atrasoMs(agora))
+                        .enviadas(fila.enviadas())
+                        .descartadas(fila.descartadas())
+                        .assinaturas(indice.quantidadeAssinaturas(fila.destino().id()))
+                        .build())
+                .sorted(Comparator.comparing(SessaoNotificacaoResponse::getAtrasoMs).reversed())
+                .toList();
+    }
+
+    int quantidadeSessoes() {
+        return filas.size();
+    }
+
+    /**
+     * @param topicos null entrega para todas as sessões
+     */
+    private int entregar(FilaSessao.Mensagem mensagem, Collection<Topico> topicos) {
+        long agora = System.currentTimeMillis();
+        if (topicos == null) {
+            filas.values().forEach(fila -> oferecer(fila, mensagem, agora));
+            return filas.size();
+        }
+        int alcancadas = 0;
+        for (String id : indice.interessados(topicos)) {
+            FilaSessao fila = filas.get(id);
+            if (fila != null) {
+                oferecer(fila, mensagem, agora);
+                alcancadas++;
+            }
+        }
+        return alcancadas;
+    }
+
+    private void oferecer(FilaSessao fila, FilaSessao.Mensagem mensagem, long agora) {
+        switch (fila.oferecer(mensagem, agora)) {
+            case COALESCIDA -> coalescidas.increment();
+            case DESCARTOU_ANTIGA -> descartadasAntigas.increment();
+            case DESCONECTAR -> desconectar(fila);
+            case ENFILEIRADA -> {
+            }
+        }
+    }
+
+    private void desconectar(FilaSessao fila) {
+        String id = fila.destino().id();
+        filas.remove(id);
+        indice.desconectar(id);
+        desconexoes.increment();
+        LOG.warnv("Sessão WebSocket {0} desconectada: fila de saída cheia ({1} mensagens)", id, capacidade);
+        fila.destino().fechar("Cliente não acompanha as notificações; reconecte");
+    }
+
+    private double totalPendentes() {
+        return filas.values().stream().mapToLong(FilaSessao::pendentes).sum();
+    }
+
+    private double maiorAtrasoMs() {
+        long agora = System.currentTimeMillis();
+        return filas.values().stream().mapToLong(fila -> fila.atrasoMs(agora)).max().orElse(0);
+    }
+}
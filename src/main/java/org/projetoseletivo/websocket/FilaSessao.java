@@ -0,0 +1,178 @@
+package org.projetoseletivo.websocket;
+
+import org.projetoseletivo.domain.enums.PoliticaFilaCheia;
+
+import java.util.ArrayDeque;
+
+/**
+ * Fila de saída limitada de uma sessão. Há no máximo um envio em andamento por
+ * sessão: a próxima mensagem só é entregue ao WebSocket quando o envio
+ * anterior termina, então um cliente lento acumula no máximo
+ * {@code capacidade} mensagens pendentes, e não buffers sem limite no heap.
+ */
+final class FilaSessao {
+
+    /**
+     * Mensagem já serializada, compartilhada entre as filas de todas as
+     * sessões. {@code chave} identifica a entidade para coalescer; {@code id}
+     * é o id do evento do catálogo que a originou, quando houver, e
+     * {@code texto} nulo é um keepalive.
+     */
+    record Mensagem(String texto, String chave, Long id) {
+
+        Mensagem(String texto, String chave) {
+            this(texto, chave, null);
+        }
+    }
+
+    /**
+     * Resultado de {@link #oferecer}.
+     */
+    enum Resultado {
+        ENFILEIRADA,
+        COALESCIDA,
+        DESCARTOU_ANTIGA,
+        DESCONECTAR
+    }
+
+    private static final class Pendente {
+
+        private Mensagem mensagem;
+
+        private final long enfileiradaEm;
+
+        Pendente(Mensagem mensagem, long enfileiradaEm) {
+            this.mensagem = mensagem;
+            this.enfileiradaEm = enfileiradaEm;
+        }
+    }
+
+    private final DestinoNotificacao destino;
+
+    private final int capacidade;
+
+    private final PoliticaFilaCheia politica;
+
+    private final ArrayDeque<Pendente> pendentes;
+
+    private Pendente emEnvio;
+
+    private boolean encerrada;
+
+    private long enviadas;
+
+    private long descartadas;
+
+    FilaSessao(DestinoNotificacao destino, int capacidade, PoliticaFilaCheia politica) {
+        this.destino = destino;
+        this.capacidade = capacidade;
+        this.politica = politica;
+        this.pendentes = new ArrayDeque<>(Math.min(capacidade, 16));
+    }
+
+    DestinoNotificacao destino() {
+        return destino;
+    }
+
+    /**
+     * Enfileira a mensagem aplicando a política de fila cheia e, se nenhum
+     * envio estiver em andamento, inicia o envio. Com DESCONECTAR a fila é
+     * encerrada e quem chamou deve fechar a sessão.
+     */
+    Resultado oferecer(Mensagem mensagem, long agora) {
+        Resultado resultado;
+        Pendente proximo;
+        synchronized (this) {
+            if (encerrada) {
+                return Resultado.ENFILEIRADA;
+            }
+            resultado = enfileirar(mensagem, agora);
+            if (resultado == Resultado.DESCONECTAR) {
+                encerrada = true;
+                pendentes.clear();
+                return resultado;
+            }
+            if (emEnvio != null) {
+                return resultado;
+            }
+            proximo = emEnvio = pendentes.poll();
+        }
+        enviar(proximo);
+        return resultado;
+    }
+
+    private Resultado enfileirar(Mensagem mensagem, long agora) {
+        if (politica == PoliticaFilaCheia.COALESCER && mensagem.chave() != null) {
+            for (Pendente pendente : pendentes) {
+                if (mensagem.chave().equals(pendente.mensagem.chave())) {
+                    // A entidade já tinha notificação pendente: a nova toma o lugar
+                    // da antiga na fila, que mantém o instante original para o
+                    // cálculo do atraso
+                    pendente.mensagem = mensagem;
+                    descartadas++;
+                    return Resultado.COALESCIDA;
+                }
+            }
+        }
+        if (pendentes.size() < capacidade) {
+            pendentes.addLast(new Pendente(mensagem, agora));
+            return Resultado.ENFILEIRADA;
+        }
+        if (politica == PoliticaFilaCheia.DESCONECTAR) {
+            return Resultado.DESCONECTAR;
+        }
+        pendentes.pollFirst();
+        pendentes.addLast(new Pendente(mensagem, agora));
+        descartadas++;
+        return Resultado.DESCARTOU_ANTIGA;
+    }
+
+    private void enviar(Pendente pendente) {
+        destino.enviar(pendente.mensagem, this::concluido);
+    }
+
+    private void concluido(Throwable erro) {
+        Pendente proximo;
+        synchronized (this) {
+            if (erro == null) {
+                enviadas++;
+            }
+            proximo = emEnvio = encerrada ? null : pendentes.poll();
+        }
+        if (proximo != null) {
+            enviar(proximo);
+        }
+    }
+
+    /**
+     * Encerra a fila, descartando as mensagens pendentes.
+     */
+    synchronized void encerrar() {
+        encerrada = true;
+        pendentes.clear();
+    }
+
+    /**
+     * Mensagens aguardando envio, incluindo a que está sendo enviada.
+     */
+    synchronized int pendentes() {
+        return pendentes.size() + (emEnvio != null ? 1 : 0);
+    }
+
+    /**
+     * Há quanto tempo a mensagem mais antiga ainda não entregue espera, em
+     * milissegundos; 0 sem mensagens pendentes.
+     */
+    synchronized long atrasoMs(long agora) {
+        Pendente maisAntiga = emEnvio != null ? emEnvio : pendentes.peekFirst();
+        return maisAntiga == null ? 0 : Math.max(0, agora - maisAntiga.enfileiradaEm);
+    }
+
+    synchronized long enviadas() {
+        return enviadas;
+    }
+
+    synchronized long descartadas() {
+        return descartadas;
+    }
+}
@@ -0,0 +1,92 @@
+package org.projetoseletivo.websocket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Buffer circular das últimas notificações publicadas, para repor a um
+ * cliente SSE que reconecta o que ele perdeu desde o {@code Last-Event-ID}.
+ *
+ * Os ids são os do outbox do catálogo, os mesmos em todas as instâncias, mas
+ * transações concorrentes confirmam fora da ordem dos ids e a ordem de
+ * chegada numa instância pode trocar eventos próximos, então a reposição parte
+ * da posição do último id recebido pelo cliente, e só na falta dele compara
+ * ids.
+ *
+ * Não é thread-safe: o {@link FanoutNotificacoes} o usa sob o seu lock de
+ * publicação.
+ */
+final class HistoricoNotificacoes {
+
+    /**
+     * Notificação guardada com os tópicos usados para publicá-la; tópicos
+     * nulos: foi para todas as sessões.
+     */
+    record Entrada(FilaSessao.Mensagem mensagem, List<Topico> topicos) {
+    }
+
+    private final int capacidade;
+
+    private final ArrayDeque<Entrada> entradas;
+
+    /**
+     * Todo evento com id maior que este está no buffer ou foi publicado
+     * depois; null enquanto nada foi publicado.
+     */
+    private Long completoApos;
+
+    HistoricoNotificacoes(int capacidade) {
+        this.capacidade = capacidade;
+        this.entradas = new ArrayDeque<>(Math.min(capacidade, 1024));
+    }
+
+    void adicionar(Entrada entrada) {
+        long id = entrada.mensagem().id();
+        if (completoApos == null) {
+            // O que foi publicado antes da subida da instância não está aqui
+            completoApos = id - 1;
+        }
+        if (entradas.size() == capacidade) {
+            completoApos = Math.max(completoApos, entradas.pollFirst().mensagem().id());
+        }
+        entradas.addLast(entrada);
+    }
+
+    /**
+     * Notificações publicadas depois de {@code ultimoId}, na ordem de
+     * publicação.
+     *
+     * @return vazio se parte delas já saiu do buffer (ou é anterior à subida
+     *         da instância): o cliente precisa ressincronizar
+     */
+    Optional<List<Entrada>> apos(long ultimoId) {
+        if (completoApos == null) {
+            return Optional.of(List.of());
+        }
+        if (ultimoId < completoApos) {
+            return Optional.empty();
+        }
+
+        List<Entrada> seguintes = new ArrayList<>();
+        Iterator<Entrada> maisRecentes = entradas.descendingIterator();
+        while (maisRecentes.hasNext()) {
+            Entrada entrada = maisRecentes.next();
+            if (entrada.mensagem().id() == ultimoId) {
+                return Optional.of(seguintes.reversed());
+            }
+            seguintes.add(entrada);
+        }
+        // O cliente não recebeu o último id por esta instância
+        return Optional.of(entradas.stream().filter(entrada -> entrada.mensagem().id() > ultimoId).toList());
+    }
+
+    /**
+     * Maior id publicado, ou {@code padrao} se nada foi publicado.
+     */
+    long ultimoId(long padrao) {
+        return entradas.stream().mapToLong(entrada -> entrada.mensagem().id()).max().orElse(padrao);
+    }
+}
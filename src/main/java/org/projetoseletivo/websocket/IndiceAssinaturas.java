@@ -0,0 +1,173 @@
+package org.projetoseletivo.websocket;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice das assinaturas das sessões WebSocket, por tópico.
+ *
+ * Uma publicação consulta só os tópicos do álbum e chega às sessões
+ * interessadas sem percorrer as demais. Sessões sem nenhuma assinatura
+ * recebem tudo, como antes do protocolo de assinaturas, e ficam em
+ * {@code todas}.
+ */
+final class IndiceAssinaturas {
+
+    private final Map<Topico, Set<String>> porTopico = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Topico>> porSessao = new ConcurrentHashMap<>();
+
+    private final Set<String> todas = ConcurrentHashMap.newKeySet();
+
+    private final int maximoPorSessao;
+
+    IndiceAssinaturas(int maximoPorSessao) {
+        this.maximoPorSessao = maximoPorSessao;
+    }
+
+    void conectar(String sessaoId) {
+        porSessao.put(sessaoId, new HashSet<>());
+        todas.add(sessaoId);
+    }
+
+    void desconectar(String sessaoId) {
+        todas.remove(sessaoId);
+        Set<Topico> topicos = porSessao.remove(sessaoId);
+        if (topicos != null) {
+            synchronized (topicos) {
+                topicos.forEach(topico -> removerDoTopico(topico, sessaoId));
+                topicos.clear();
+            }
+        }
+    }
+
+    /**
+     * Assina os tópicos. A primeira assinatura tira a sessão de
+     * {@code todas}: a partir daí ela recebe só o que assinou.
+     *
+     * @return as assinaturas da sessão após a operação
+     * @throws IllegalArgumentException se ultrapassar o máximo por sessão
+     */
+    Set<Topico> assinar(String sessaoId, Collection<Topico> novos) {
+        Set<Topico> topicos = porSessao.get(sessaoId);
+        if (topicos == null) {
+            return Set.of();
+        }
+        synchronized (topicos) {
+            if (porSessao.get(sessaoId) != topicos) {
+                // Desconectada enquanto esperava
+                return Set.of();
+            }
+            long acrescimo = novos.stream().distinct().filter(topico -> !topicos.contains(topico)).count();
+            if (topicos.size() + acrescimo > maximoPorSessao) {
+                throw new IllegalArgumentException("Máximo de " + maximoPorSessao
+                        + " assinaturas por sessão");
+            }
+            for (Topico topico : novos) {
+                if (topicos.add(topico)) {
+                    // Dentro do compute, para não correr com a remoção do conjunto
+                    // que acabou de esvaziar
+                    porTopico.compute(topico, (chave, assinantes) -> {
+                        Set<String> conjunto = assinantes != null ? assinantes : ConcurrentHashMap.newKeySet();
+                        conjunto.add(sessaoId);
+                        return conjunto;
+                    });
+                }
+            }
+            if (!topicos.isEmpty()) {
+                todas.remove(sessaoId);
+            }
+            return Set.copyOf(topicos);
+        }
+    }
+
+    /**
+     * Cancela os tópicos informados, ou todos com {@code null}. Sem nenhuma
+     * assinatura, a sessão volta a receber tudo.
+     *
+     * @return as assinaturas da sessão após a operação
+     */
+    Set<Topico> cancelar(String sessaoId, Collection<Topico> cancelados) {
+        Set<Topico> topicos = porSessao.get(sessaoId);
+        if (topicos == null) {
+            return Set.of();
+        }
+        synchronized (topicos) {
+            if (porSessao.get(sessaoId) != topicos) {
+                return Set.of();
+            }
+            Collection<Topico> remover = cancelados == null ? Set.copyOf(topicos) : cancelados;
+            for (Topico topico : remover) {
+                if (topicos.remove(topico)) {
+                    removerDoTopico(topico, sessaoId);
+                }
+            }
+            if (topicos.isEmpty()) {
+                todas.add(sessaoId);
+            }
+            return Set.copyOf(topicos);
+        }
+    }
+
+    Set<Topico> assinaturas(String sessaoId) {
+        Set<Topico> topicos = porSessao.get(sessaoId);
+        if (topicos == null) {
+            return Set.of();
+        }
+        synchronized (topicos) {
+            return Set.copyOf(topicos);
+        }
+    }
+
+    /**
+     * Se a sessão receberia uma publicação com os tópicos informados.
+     */
+    boolean interessado(String sessaoId, Collection<Topico> topicos) {
+        Set<Topico> assinadas = porSessao.get(sessaoId);
+        if (assinadas == null) {
+            return false;
+        }
+        synchronized (assinadas) {
+            return assinadas.isEmpty() || topicos.stream().anyMatch(assinadas::contains);
+        }
+    }
+
+    int quantidadeAssinaturas(String sessaoId) {
+        Set<Topico> topicos = porSessao.get(sessaoId);
+        if (topicos == null) {
+            return 0;
+        }
+        synchronized (topicos) {
+            return topicos.size();
+        }
+    }
+
+    /**
+     * Sessões que devem receber uma publicação com os tópicos informados: as
+     * sem assinatura e as que assinaram ao menos um deles, cada uma uma vez.
+     */
+    Set<String> interessados(Collection<Topico> topicos) {
+        Set<String> sessoes = new HashSet<>(todas);
+        for (Topico topico : topicos) {
+            Set<String> assinantes = porTopico.get(topico);
+            if (assinantes != null) {
+                sessoes.addAll(assinantes);
+            }
+        }
+        return sessoes;
+    }
+
+    int quantidadeTopicos() {
+        return porTopico.size();
+    }
+
+    private void removerDoTopico(Topico topico, String sessaoId) {
+        porTopico.computeIfPresent(topico, (chave, assinantes) -> {
+            assinantes.remove(sessaoId);
+            return assinantes.isEmpty() ? null : assinantes;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package org.projetoseletivo.websocket;
+
+import org.projetoseletivo.domain.enums.TipoArtista;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tópico de assinatura do WebSocket: um artista, um tipo de artista ou um
+ * prefixo do título do álbum. É a chave do {@link IndiceAssinaturas}.
+ */
+record Topico(Categoria categoria, String valor) {
+
+    enum Categoria {
+        ARTISTA,
+        TIPO_ARTISTA,
+        PREFIXO_TITULO
+    }
+
+    /**
+     * Tamanho máximo de um prefixo de título; prefixos maiores não seriam mais
+     * seletivos e aumentariam as consultas ao índice por publicação.
+     */
+    static final int MAXIMO_PREFIXO = 50;
+
+    static Topico artista(Long artistaId) {
+        return new Topico(Categoria.ARTISTA, String.valueOf(artistaId));
+    }
+
+    static Topico tipoArtista(TipoArtista tipo) {
+        return new Topico(Categoria.TIPO_ARTISTA, tipo.name());
+    }
+
+    /**
+     * Prefixo informado pelo cliente, sem diferenciar maiúsculas.
+     */
+    static Topico prefixoTitulo(String prefixo) {
+        String normalizado = prefixo == null ? "" : prefixo.strip().toLowerCase(Locale.ROOT);
+        if (normalizado.isEmpty()) {
+            throw new IllegalArgumentException("Prefixo do título não pode ser vazio");
+        }
+        if (normalizado.length() > MAXIMO_PREFIXO) {
+            throw new IllegalArgumentException("Prefixo do título deve ter no máximo " + MAXIMO_PREFIXO
+                    + " caracteres");
+        }
+        return new Topico(Categoria.PREFIXO_TITULO, normalizado);
+    }
+
+    /**
+     * Todos os prefixos do título que uma assinatura pode ter: a publicação
+     * consulta o índice por cada um deles, sem percorrer as assinaturas.
+     */
+    static List<Topico> prefixosDoTitulo(String titulo) {
+        if (titulo == null) {
+            return List.of();
+        }
+        String normalizado = titulo.strip().toLowerCase(Locale.ROOT);
+        int tamanho = Math.min(normalizado.length(), MAXIMO_PREFIXO);
+        List<Topico> prefixos = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            prefixos.add(new Topico(Categoria.PREFIXO_TITULO, normalizado.substring(0, i)));
+        }
+        return prefixos;
+    }
+}
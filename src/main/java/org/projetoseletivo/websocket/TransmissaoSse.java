@@ -0,0 +1,87 @@
+package org.projetoseletivo.websocket;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.jboss.logging.Logger;
+import org.projetoseletivo.domain.enums.TipoArtista;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams Server-Sent Events das notificações de álbuns, alternativa ao
+ * WebSocket para clientes atrás de proxies que não o suportam bem.
+ *
+ * Cada stream é uma sessão do {@link FanoutNotificacoes}, com a mesma fila
+ * limitada e o mesmo índice de assinaturas do WebSocket; os tópicos vêm na
+ * conexão. Ao reconectar com {@code Last-Event-ID}, o stream recebe primeiro
+ * o que perdeu, do histórico do fanout.
+ */
+@ApplicationScoped
+public class TransmissaoSse {
+
+    private static final Logger LOG = Logger.getLogger(TransmissaoSse.class);
+
+    private final Map<String, DestinoSse> streams = new ConcurrentHashMap<>();
+
+    @Inject
+    FanoutNotificacoes fanout;
+
+    /**
+     * Registra o stream. Retorna sem bloquear; o envio segue pelo fanout.
+     *
+     * @param ultimoId último id recebido pelo cliente; null para só as novas
+     * @throws IllegalArgumentException se um prefixo for inválido ou as
+     *                                  assinaturas passarem do máximo
+     */
+    public void conectar(SseEventSink sink, Sse sse, Long ultimoId, List<Long> artistaIds,
+            List<TipoArtista> tiposArtista, List<String> prefixosTitulo) {
+        List<Topico> topicos = new ArrayList<>();
+        artistaIds.forEach(artistaId -> topicos.add(Topico.artista(artistaId)));
+        tiposArtista.forEach(tipo -> topicos.add(Topico.tipoArtista(tipo)));
+        prefixosTitulo.forEach(prefixo -> topicos.add(Topico.prefixoTitulo(prefixo)));
+
+        DestinoSse stream = new DestinoSse("sse-" + UUID.randomUUID(), sink, sse, this::desconectar);
+        streams.put(stream.id(), stream);
+        try {
+            boolean completo = fanout.registrar(stream, ultimoId, topicos);
+            LOG.infov("Stream SSE conectado: {0} (último evento {1}{2})", stream.id(), ultimoId,
+                    completo ? "" : ", fora do histórico");
+        } catch (RuntimeException e) {
+            streams.remove(stream.id());
+            throw e;
+        }
+    }
+
+    /**
+     * Keepalive periódico: mantém o stream aberto em proxies que encerram
+     * conexões ociosas e descobre os streams fechados pelo cliente.
+     */
+    @Scheduled(every = "{notificacoes.sse.keepalive}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void manterStreams() {
+        for (DestinoSse stream : streams.values()) {
+            if (stream.fechado()) {
+                desconectar(stream.id());
+            } else {
+                fanout.manterAtiva(stream.id());
+            }
+        }
+    }
+
+    int quantidadeStreams() {
+        return streams.size();
+    }
+
+    private void desconectar(String id) {
+        if (streams.remove(id) != null) {
+            fanout.remover(id);
+            LOG.infov("Stream SSE desconectado: {0}", id);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Variantes redimensionadas (miniatura, média) das imagens de capa, geradas
+-- de forma assíncrona após o upload e gravadas no MinIO ao lado da original.
+CREATE TABLE album_imagem_variante (
+    id BIGSERIAL PRIMARY KEY,
+    album_imagem_id BIGINT NOT NULL REFERENCES album_imagem(id) ON DELETE CASCADE,
+    variante VARCHAR(20) NOT NULL CHECK (variante IN ('MINIATURA', 'MEDIA')),
+    largura INTEGER NOT NULL,
+    altura INTEGER NOT NULL,
+    object_key VARCHAR(500) NOT NULL,
+    content_type VARCHAR(100),
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (album_imagem_id, variante)
+);
+
+-- As variantes fazem parte da resposta de álbuns e imagens
+CREATE TRIGGER trg_album_imagem_variante_catalogo_versao
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON album_imagem_variante
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_catalogo_versao();
@@ -0,0 +1,9 @@
+-- Deduplicação de capas por conteúdo: imagens enviadas pela API são gravadas
+-- no MinIO em "conteudo/{sha256}", e várias linhas de album_imagem podem
+-- apontar para o mesmo objeto. O número de linhas com a mesma object_key é a
+-- contagem de referências do objeto (e das variantes, que herdam a chave).
+ALTER TABLE album_imagem ADD COLUMN hash_conteudo VARCHAR(64);
+
+CREATE INDEX idx_album_imagem_hash_conteudo ON album_imagem(hash_conteudo);
+CREATE INDEX idx_album_imagem_object_key ON album_imagem(object_key);
+CREATE INDEX idx_album_imagem_variante_object_key ON album_imagem_variante(object_key);
@@ -0,0 +1,26 @@
+-- Fila (outbox) de objetos do MinIO a remover. Os gatilhos registram a chave
+-- na mesma transação que apaga a imagem ou a variante, inclusive quando a
+-- remoção vem do ON DELETE CASCADE de album. A tarefa de limpeza remove os
+-- objetos em lote e só apaga objetos que nenhuma linha referencia mais
+-- (conteúdo deduplicado pode ser compartilhado entre álbuns).
+CREATE TABLE objeto_removido (
+    id BIGSERIAL PRIMARY KEY,
+    object_key VARCHAR(500) NOT NULL,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE FUNCTION registrar_objeto_removido() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO objeto_removido (object_key) VALUES (OLD.object_key);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_album_imagem_objeto_removido
+    AFTER DELETE ON album_imagem
+    FOR EACH ROW EXECUTE FUNCTION registrar_objeto_removido();
+
+CREATE TRIGGER trg_album_imagem_variante_objeto_removido
+    AFTER DELETE ON album_imagem_variante
+    FOR EACH ROW EXECUTE FUNCTION registrar_objeto_removido();
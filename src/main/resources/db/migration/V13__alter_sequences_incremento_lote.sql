@@ -0,0 +1,7 @@
+-- Artista e Album passam a usar sequence com alocação em blocos de 50
+-- (otimizador pooled do Hibernate): os IDs de um lote de inserções saem da
+-- memória, sem uma ida ao banco por linha, e os INSERTs podem ir em batch
+-- JDBC, o que IDENTITY impede. O DEFAULT nextval das colunas continua valendo
+-- para inserções feitas fora da aplicação.
+ALTER SEQUENCE artista_id_seq INCREMENT BY 50;
+ALTER SEQUENCE album_id_seq INCREMENT BY 50;
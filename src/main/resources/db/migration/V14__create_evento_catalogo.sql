@@ -0,0 +1,21 @@
+-- Outbox de alterações do catálogo, consumido pelo feed GET /v1/eventos. Cada
+-- criação, alteração ou remoção de artista ou álbum grava uma linha na mesma
+-- transação da escrita. O id é o offset do feed, mas os ids não são
+-- confirmados em ordem: o feed ordena pela transação que gravou o evento
+-- (xid) e só entrega eventos de transações anteriores ao horizonte do
+-- snapshot (pg_snapshot_xmin), todas já encerradas. Um evento confirmado
+-- depois sempre fica depois dos já entregues, sem serializar as escritas.
+CREATE TABLE evento_catalogo (
+    id BIGSERIAL PRIMARY KEY,
+    xid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    tipo VARCHAR(30) NOT NULL,
+    entidade_id BIGINT NOT NULL,
+    dados JSONB,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Leitura do feed na ordem de confirmação
+CREATE INDEX idx_evento_catalogo_xid_id ON evento_catalogo (xid, id);
+
+-- Retenção: remoção dos eventos antigos por data
+CREATE INDEX idx_evento_catalogo_criado_em ON evento_catalogo (criado_em);
@@ -0,0 +1,7 @@
+-- Conclusão e aborto de um upload multipart são exclusivos: quem marca
+-- finalizando_em primeiro conclui (ou aborta); as chamadas concorrentes são
+-- recusadas e não mexem no objeto. A limpeza aborta os uploads abandonados,
+-- mais antigos que minio.multipart.expiracao.hours.
+ALTER TABLE upload_multipart ADD COLUMN finalizando_em TIMESTAMP;
+
+CREATE INDEX idx_upload_multipart_criado_em ON upload_multipart(criado_em);
@@ -0,0 +1,4 @@
+-- AlbumImagem passa a usar sequence com alocação em blocos de 50, como Artista
+-- e Album (V13): as imagens de um envio são gravadas num único batch JDBC de
+-- INSERTs, o que IDENTITY impede.
+ALTER SEQUENCE album_imagem_id_seq INCREMENT BY 50;
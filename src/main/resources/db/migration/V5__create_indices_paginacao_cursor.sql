@@ -0,0 +1,8 @@
+-- Índices compostos para paginação por chave (keyset): a busca
+-- WHERE (titulo, id) > (?, ?) ORDER BY titulo, id percorre o índice a partir do cursor.
+-- Substituem os índices simples por título/nome, que ficam redundantes.
+DROP INDEX IF EXISTS idx_album_titulo;
+DROP INDEX IF EXISTS idx_artista_nome;
+
+CREATE INDEX idx_album_titulo_id ON album(titulo, id);
+CREATE INDEX idx_artista_nome_id ON artista(nome, id);
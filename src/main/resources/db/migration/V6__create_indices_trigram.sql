@@ -0,0 +1,7 @@
+-- Busca parcial por título/nome (LIKE '%termo%') não usa índices btree.
+-- Índices GIN com trigramas sobre LOWER(...) atendem os filtros
+-- LOWER(titulo) LIKE ? e LOWER(nome) LIKE ? e a ordenação por similaridade.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_album_titulo_trgm ON album USING gin (LOWER(titulo) gin_trgm_ops);
+CREATE INDEX idx_artista_nome_trgm ON artista USING gin (LOWER(nome) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Os filtros de álbum por nome/tipo de artista usam EXISTS correlacionado por
+-- album_id; a chave primária (artista_id, album_id) não atende essa busca.
+CREATE INDEX idx_artista_album_album_artista ON artista_album(album_id, artista_id);
@@ -0,0 +1,41 @@
+-- Versão do catálogo para GET condicional nas listagens (ETag). Toda
+-- transação que escreve em artista, album, artista_album ou album_imagem,
+-- inclusive por ON DELETE CASCADE ou fora da aplicação, grava uma linha
+-- própria, chaveada pelo id da transação: as escritas não disputam uma linha
+-- comum. A versão é a soma dos incrementos confirmados, lida no snapshot de
+-- quem consulta, então muda exatamente quando os dados visíveis mudam. A
+-- compactação periódica soma as linhas confirmadas na linha base (xid 0) sem
+-- alterar o total.
+CREATE TABLE catalogo_versao (
+    xid XID8 PRIMARY KEY,
+    incremento BIGINT NOT NULL
+);
+
+INSERT INTO catalogo_versao (xid, incremento) VALUES ('0', 1);
+
+-- O gatilho é por comando (não por linha), e a transação soma um único
+-- incremento por mais comandos que execute: uma importação em lote conta uma
+-- vez por transação.
+CREATE FUNCTION incrementar_catalogo_versao() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO catalogo_versao (xid, incremento) VALUES (pg_current_xact_id(), 1)
+    ON CONFLICT (xid) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_artista_catalogo_versao
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON artista
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_catalogo_versao();
+
+CREATE TRIGGER trg_album_catalogo_versao
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON album
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_catalogo_versao();
+
+CREATE TRIGGER trg_artista_album_catalogo_versao
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON artista_album
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_catalogo_versao();
+
+CREATE TRIGGER trg_album_imagem_catalogo_versao
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON album_imagem
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_catalogo_versao();
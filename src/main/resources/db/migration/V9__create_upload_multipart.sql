@@ -0,0 +1,13 @@
+-- Uploads multipart de capas em andamento. As partes ficam no MinIO (listadas
+-- de lá na retomada); aqui fica só o vínculo entre o uploadId do MinIO e o
+-- álbum, removido ao concluir ou abortar o upload.
+CREATE TABLE upload_multipart (
+    id BIGSERIAL PRIMARY KEY,
+    album_id BIGINT NOT NULL REFERENCES album(id) ON DELETE CASCADE,
+    upload_id VARCHAR(200) NOT NULL UNIQUE,
+    object_key VARCHAR(500) NOT NULL,
+    content_type VARCHAR(100),
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_upload_multipart_album_id ON upload_multipart(album_id);
@@ -0,0 +1,166 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.dto.request.FiltroAlbum;
+import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.mapper.AlbumMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração para AlbumRepository.
+ *
+ * Contam os comandos SQL preparados pelo Hibernate para garantir que uma página
+ * de álbuns, já mapeada com artistas e imagens, custe um número fixo de
+ * consultas independente do tamanho da página.
+ */
+@QuarkusTest
+class AlbumRepositoryTest {
+
+    // Artistas + imagens + variantes de um lote de álbuns já lido
+    private static final long CONSULTAS_POR_LOTE = 3;
+
+    // Página + associações
+    private static final long CONSULTAS_POR_PAGINA = 1 + CONSULTAS_POR_LOTE;
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Inject
+    AlbumMapper albumMapper;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setup() {
+        estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    @TestTransaction
+    void deveListarTodosComQuantidadeFixaDeConsultas() {
+        List<AlbumResponse> responses = mapear(albumRepository.listarTodos(0, 50));
+
+        assertFalse(responses.isEmpty());
+        assertEquals(CONSULTAS_POR_PAGINA, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorTituloComQuantidadeFixaDeConsultas() {
+        mapear(albumRepository.buscarPorFiltro(FiltroAlbum.builder().titulo("Bem").build(), false, 0, 50));
+
+        assertEquals(CONSULTAS_POR_PAGINA, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorNomeArtistaComQuantidadeFixaDeConsultas() {
+        mapear(albumRepository.buscarPorFiltro(FiltroAlbum.builder().nomeArtista("Shinoda").build(), false, 0, 50));
+
+        assertEquals(CONSULTAS_POR_PAGINA, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorTipoArtistaComQuantidadeFixaDeConsultas() {
+        mapear(albumRepository.buscarPorFiltro(FiltroAlbum.builder().tipoArtista(TipoArtista.SOLO).build(), false,
+                0, 50));
+
+        assertEquals(CONSULTAS_POR_PAGINA, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void deveCombinarFiltrosEmUmaUnicaConsulta() {
+        FiltroAlbum filtro = FiltroAlbum.builder()
+                .tipoArtista(TipoArtista.BANDA)
+                .titulo("a")
+                .anoInicio(1990)
+                .anoFim(2030)
+                .build();
+
+        List<Album> albuns = albumRepository.buscarPorFiltro(filtro, false, 0, 50);
+        mapear(albuns);
+
+        assertEquals(CONSULTAS_POR_PAGINA, estatisticas.getPrepareStatementCount());
+        assertEquals(albuns.size(), albumRepository.contarPorFiltro(filtro));
+        albuns.forEach(album -> {
+            assertTrue(album.getTitulo().toLowerCase().contains("a"));
+            assertTrue(album.getAnoLancamento() >= 1990 && album.getAnoLancamento() <= 2030);
+            assertTrue(album.getArtistas().stream().anyMatch(artista -> artista.getTipo() == TipoArtista.BANDA));
+        });
+    }
+
+    @Test
+    @TestTransaction
+    void deveExecutarApenasUmaConsultaParaPaginaVazia() {
+        mapear(albumRepository.listarTodos(10_000, 50));
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarVariosPorIdEmUmaUnicaConsulta() {
+        sessionFactory.getCache().evictAllRegions();
+        estatisticas.clear();
+
+        Map<Long, Album> albuns = albumRepository.buscarPorIds(List.of(1L, 2L, 3L, 2L, 999_999L));
+
+        assertEquals(Set.of(1L, 2L, 3L), albuns.keySet());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void devePercorrerTodosParaExportacaoComQuantidadeFixaDeConsultasPorLote() {
+        long total = albumRepository.contarTodos();
+        estatisticas.clear();
+        List<Long> ids = new ArrayList<>();
+        List<Integer> tamanhos = new ArrayList<>();
+
+        albumRepository.percorrerParaExportacao(null, 2, lote -> {
+            tamanhos.add(lote.size());
+            mapear(lote).forEach(album -> ids.add(album.getId()));
+        });
+
+        assertEquals(total, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(tamanhos.stream().allMatch(tamanho -> tamanho <= 2));
+        // Um único cursor + associações de cada lote
+        assertEquals(1 + CONSULTAS_POR_LOTE * tamanhos.size(), estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    void naoDeveExportarAlbunsSemAlteracaoDesdeADataInformada() {
+        List<Album> exportados = new ArrayList<>();
+
+        albumRepository.percorrerParaExportacao(LocalDateTime.now().plusDays(1), 50, exportados::addAll);
+
+        assertTrue(exportados.isEmpty());
+    }
+
+    private List<AlbumResponse> mapear(List<Album> albuns) {
+        return albuns.stream().map(albumMapper::toResponse).toList();
+    }
+}
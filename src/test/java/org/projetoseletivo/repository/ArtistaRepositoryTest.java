@@ -0,0 +1,112 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.Ordem;
+import org.projetoseletivo.domain.enums.TipoArtista;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração para ArtistaRepository.
+ *
+ * A aplicação roda com fail-on-pagination-over-collection-fetch habilitado:
+ * se alguma listagem voltar a combinar JOIN FETCH com LIMIT/OFFSET, o Hibernate
+ * lança exceção em vez de paginar em memória e estes testes falham.
+ */
+@QuarkusTest
+class ArtistaRepositoryTest {
+
+    @Inject
+    ArtistaRepository artistaRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    @TestTransaction
+    void deveListarTodosPaginandoNoBanco() {
+        List<Artista> artistas = artistaRepository.listarTodos(Ordem.ASC, 0, 2);
+
+        assertEquals(2, artistas.size());
+        assertTrue(artistas.get(0).getNome().compareToIgnoreCase(artistas.get(1).getNome()) <= 0);
+        artistas.forEach(artista -> assertTrue(Hibernate.isInitialized(artista.getAlbuns())));
+    }
+
+    @Test
+    @TestTransaction
+    void devePreservarOrdemDescendenteNaSegundaFase() {
+        List<Artista> artistas = artistaRepository.listarTodos(Ordem.DESC, 0, 10);
+
+        for (int i = 1; i < artistas.size(); i++) {
+            assertTrue(artistas.get(i - 1).getNome().compareTo(artistas.get(i).getNome()) >= 0);
+        }
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorNomeSemPaginacaoEmMemoria() {
+        List<Artista> artistas = artistaRepository.buscarPorNome("a", Ordem.ASC, 0, 1);
+
+        assertTrue(artistas.size() <= 1);
+        artistas.forEach(artista -> assertTrue(Hibernate.isInitialized(artista.getAlbuns())));
+    }
+
+    @Test
+    @TestTransaction
+    void deveTratarCuringasDoTermoComoTextoLiteral() {
+        List<Artista> artistas = artistaRepository.buscarPorNome("%", Ordem.ASC, 0, 10);
+
+        assertTrue(artistas.isEmpty());
+        assertEquals(0, artistaRepository.contarPorNome("_"));
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorNomeOrdenandoPorRelevancia() {
+        List<Artista> artistas = artistaRepository.buscarPorNomePorRelevancia("a", 0, 10);
+
+        assertEquals(Math.min(10, artistaRepository.contarPorNome("a")), artistas.size());
+        artistas.forEach(artista -> assertTrue(artista.getNome().toLowerCase().contains("a")));
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarPorTipoSemPaginacaoEmMemoria() {
+        List<Artista> artistas = artistaRepository.buscarPorTipo(TipoArtista.SOLO, Ordem.ASC, 1, 1);
+
+        assertTrue(artistas.size() <= 1);
+        artistas.forEach(artista -> assertEquals(TipoArtista.SOLO, artista.getTipo()));
+    }
+
+    @Test
+    @TestTransaction
+    void deveRetornarListaVaziaAlemDaUltimaPagina() {
+        List<Artista> artistas = artistaRepository.listarTodos(Ordem.ASC, 10_000, 10);
+
+        assertTrue(artistas.isEmpty());
+    }
+
+    @Test
+    @TestTransaction
+    void deveBuscarVariosPorIdEmUmaUnicaConsulta() {
+        sessionFactory.getCache().evictAllRegions();
+        Statistics estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+
+        Map<Long, Artista> artistas = artistaRepository.buscarPorIds(List.of(1L, 2L, 3L, 999_999L));
+
+        assertEquals(Set.of(1L, 2L, 3L), artistas.keySet());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,143 @@
+package org.projetoseletivo.repository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.dto.request.ArtistaRequest;
+import org.projetoseletivo.dto.response.ArtistaResponse;
+import org.projetoseletivo.service.ArtistaService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração do cache de segundo nível.
+ *
+ * Cada leitura roda em uma transação própria, para que a primeira sessão não
+ * sirva de cache para a segunda.
+ */
+@QuarkusTest
+class CacheSegundoNivelTest {
+
+    private static final Logger LOG = Logger.getLogger(CacheSegundoNivelTest.class);
+
+    private static final Long ARTISTA_ID = 1L;
+
+    @Inject
+    ArtistaRepository artistaRepository;
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Inject
+    ArtistaService artistaService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setup() {
+        sessionFactory.getCache().evictAllRegions();
+        estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void deveBuscarArtistaPorIdSemConsultarOBancoNaSegundaLeitura() {
+        int albunsPrimeiraLeitura = lerArtista(ARTISTA_ID).size();
+        estatisticas.clear();
+
+        int albunsSegundaLeitura = lerArtista(ARTISTA_ID).size();
+
+        assertEquals(albunsPrimeiraLeitura, albunsSegundaLeitura);
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() > 0);
+        assertEquals(1, estatisticas.getQueryCacheHitCount());
+    }
+
+    @Test
+    void deveRefletirNovaAssociacaoNoAlbumAposAtualizarArtista() {
+        Long albumId = QuarkusTransaction.requiringNew().call(() -> albumRepository.listarTodos(0, 1).get(0).getId());
+        // Popula o cache de Album.artistas antes da escrita
+        lerArtistasDoAlbum(albumId);
+
+        ArtistaResponse criado = artistaService.criar(ArtistaRequest.builder()
+                .nome("Artista Cache")
+                .tipo(TipoArtista.SOLO)
+                .albumIds(List.of(albumId))
+                .build());
+        try {
+            assertTrue(lerArtistasDoAlbum(albumId).contains(criado.getId()));
+        } finally {
+            artistaService.remover(criado.getId());
+        }
+
+        assertFalse(lerArtistasDoAlbum(albumId).contains(criado.getId()));
+    }
+
+    @Test
+    void deveLerMaisRapidoComCacheDoQueSem() {
+        int leituras = 200;
+        // Aquecimento dos dois caminhos, para a comparação não medir a JIT
+        medirLeituras(leituras, true);
+        medirLeituras(leituras, false);
+
+        long semCache = medirLeituras(leituras, true);
+        lerArtista(ARTISTA_ID);
+        estatisticas.clear();
+        long comCache = medirLeituras(leituras, false);
+
+        LOG.infov("buscarPorIdComAlbuns: {0} us/leitura sem cache, {1} us/leitura com cache",
+                semCache / leituras / 1000, comCache / leituras / 1000);
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertTrue(comCache < semCache,
+                "com cache: " + comCache / leituras + " ns/leitura, sem cache: " + semCache / leituras + " ns/leitura");
+    }
+
+    /**
+     * Tempo total, em nanossegundos, de {@code leituras} leituras do artista;
+     * com {@code esvaziarCache}, o cache é esvaziado antes de cada uma.
+     */
+    private long medirLeituras(int leituras, boolean esvaziarCache) {
+        long total = 0;
+        for (int i = 0; i < leituras; i++) {
+            if (esvaziarCache) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            long inicio = System.nanoTime();
+            lerArtista(ARTISTA_ID);
+            total += System.nanoTime() - inicio;
+        }
+        return total;
+    }
+
+    private Set<Album> lerArtista(Long id) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Artista artista = artistaRepository.buscarPorIdComAlbuns(id).orElseThrow();
+            artista.getAlbuns().size();
+            return artista.getAlbuns();
+        });
+    }
+
+    private Set<Long> lerArtistasDoAlbum(Long albumId) {
+        return QuarkusTransaction.requiringNew().call(() -> albumRepository.buscarPorIdCompleto(albumId)
+                .orElseThrow()
+                .getArtistas()
+                .stream()
+                .map(Artista::getId)
+                .collect(Collectors.toSet()));
+    }
+}
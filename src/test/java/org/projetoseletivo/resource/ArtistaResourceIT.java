@@ -52,6 +52,17 @@ class ArtistaResourceIT {
                 .statusCode(200);
     }
 
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveRetornar400ParaTamanhoDePaginaZero() {
+        given()
+                .queryParam("tamanho", 0)
+                .when()
+                .get("/v1/artistas")
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     void deveRetornar401SemAutenticacao() {
         given()
@@ -100,4 +111,62 @@ class ArtistaResourceIT {
                 .then()
                 .statusCode(200);
     }
+
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveRetornar304QuandoArtistaNaoMudou() {
+        String etag = given()
+                .when()
+                .get("/v1/artistas/1")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Last-Modified", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/v1/artistas/1")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+    }
+
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveInvalidarEtagDaListagemAposEscrita() {
+        String etag = given()
+                .queryParam("tamanho", 5)
+                .when()
+                .get("/v1/artistas")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .queryParam("tamanho", 5)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/v1/artistas")
+                .then()
+                .statusCode(304);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(ArtistaRequest.builder().nome("Artista ETag").tipo(TipoArtista.BANDA).build())
+                .when()
+                .post("/v1/artistas")
+                .then()
+                .statusCode(201);
+
+        given()
+                .queryParam("tamanho", 5)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/v1/artistas")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
 }
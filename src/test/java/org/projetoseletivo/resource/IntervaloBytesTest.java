@@ -0,0 +1,44 @@
+package org.projetoseletivo.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários da interpretação do cabeçalho Range.
+ */
+class IntervaloBytesTest {
+
+    @Test
+    void deveInterpretarIntervaloFechadoAberto() {
+        assertEquals(new IntervaloBytes(0, 99), IntervaloBytes.interpretar("bytes=0-99", 1000).orElseThrow());
+        assertEquals(new IntervaloBytes(500, 999), IntervaloBytes.interpretar("bytes=500-", 1000).orElseThrow());
+    }
+
+    @Test
+    void deveInterpretarSufixoELimitarAoTamanho() {
+        assertEquals(new IntervaloBytes(900, 999), IntervaloBytes.interpretar("bytes=-100", 1000).orElseThrow());
+        assertEquals(new IntervaloBytes(0, 999), IntervaloBytes.interpretar("bytes=-5000", 1000).orElseThrow());
+        assertEquals(new IntervaloBytes(10, 999), IntervaloBytes.interpretar("bytes=10-5000", 1000).orElseThrow());
+    }
+
+    @Test
+    void deveIndicarIntervaloInsatisfazivel() {
+        Optional<IntervaloBytes> intervalo = IntervaloBytes.interpretar("bytes=1000-", 1000);
+
+        assertTrue(intervalo.isPresent());
+        assertFalse(intervalo.get().satisfazivel());
+    }
+
+    @Test
+    void deveIgnorarCabecalhoAusenteOuNaoSuportado() {
+        assertTrue(IntervaloBytes.interpretar(null, 1000).isEmpty());
+        assertTrue(IntervaloBytes.interpretar("bytes=0-10,20-30", 1000).isEmpty());
+        assertTrue(IntervaloBytes.interpretar("items=0-10", 1000).isEmpty());
+        assertTrue(IntervaloBytes.interpretar("bytes=abc-", 1000).isEmpty());
+        assertTrue(IntervaloBytes.interpretar("bytes=5-3", 1000).isEmpty());
+        assertTrue(IntervaloBytes.interpretar("bytes=2000-1500", 1000).isEmpty());
+    }
+}
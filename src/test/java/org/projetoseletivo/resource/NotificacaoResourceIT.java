@@ -0,0 +1,147 @@
+package org.projetoseletivo.resource;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+import org.projetoseletivo.service.EventoCatalogoConfirmado;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do stream SSE /v1/notificacoes/albuns: reposição pelo
+ * Last-Event-ID e RESSINCRONIZAR quando ela não é possível.
+ */
+@QuarkusTest
+class NotificacaoResourceIT {
+
+    /**
+     * Ids acima dos do banco de teste e crescentes entre os testes: o
+     * histórico de notificações é o mesmo para toda a aplicação.
+     */
+    private static final AtomicLong PROXIMO_ID = new AtomicLong(System.currentTimeMillis());
+
+    @TestHTTPResource("/v1/notificacoes/albuns")
+    URI stream;
+
+    @Inject
+    Event<EventoCatalogoConfirmado> eventoConfirmado;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveReporEventosPerdidosAPartirDoLastEventId() throws Exception {
+        // Arrange
+        List<Long> ids = publicarRemocoes(5);
+
+        // Act
+        HttpResponse<Stream<String>> resposta = conectar(String.valueOf(ids.get(1)));
+
+        // Assert
+        assertEquals(200, resposta.statusCode());
+        try (Stream<String> linhas = resposta.body()) {
+            List<String> eventos = lerEventos(linhas.iterator(), 3);
+            for (int i = 0; i < 3; i++) {
+                long id = ids.get(i + 2);
+                assertTrue(eventos.get(i).contains("id:" + id + "\n"), eventos.get(i));
+                assertTrue(eventos.get(i).contains("\"tipo\":\"ALBUM_REMOVIDO\""), eventos.get(i));
+                assertTrue(eventos.get(i).contains("\"albumId\":" + id), eventos.get(i));
+            }
+        }
+    }
+
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveEnviarRessincronizarQuandoAReposicaoNaoCabeNaFila() throws Exception {
+        // Arrange: mais eventos após o Last-Event-ID que a capacidade da fila (64)
+        List<Long> ids = publicarRemocoes(70);
+
+        // Act
+        HttpResponse<Stream<String>> resposta = conectar(String.valueOf(ids.get(0)));
+
+        // Assert
+        assertEquals(200, resposta.statusCode());
+        try (Stream<String> linhas = resposta.body()) {
+            String evento = lerEventos(linhas.iterator(), 1).get(0);
+            assertTrue(evento.contains("\"tipo\":\"RESSINCRONIZAR\""), evento);
+        }
+    }
+
+    @Test
+    @TestSecurity(user = "admin", roles = "ADMIN")
+    void deveRetornar400ParaLastEventIdNaoNumerico() {
+        given()
+                .header("Last-Event-ID", "abc")
+                .when()
+                .get("/v1/notificacoes/albuns")
+                .then()
+                .statusCode(400);
+    }
+
+    /**
+     * Publica remoções de álbuns como eventos confirmados, com o id do
+     * álbum igual ao do evento.
+     */
+    private List<Long> publicarRemocoes(int quantidade) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            long id = PROXIMO_ID.incrementAndGet();
+            eventoConfirmado.fire(new EventoCatalogoConfirmado(id, TipoEventoCatalogo.ALBUM_REMOVIDO, id, null));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private HttpResponse<Stream<String>> conectar(String ultimoEventoId) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(stream)
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", ultimoEventoId)
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        return cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lê os próximos eventos do stream, cada um com as suas linhas
+     * {@code id:}/{@code data:} sem espaço após os dois-pontos.
+     */
+    private static List<String> lerEventos(Iterator<String> linhas, int quantidade) {
+        return assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            List<String> eventos = new ArrayList<>();
+            StringBuilder atual = new StringBuilder();
+            while (eventos.size() < quantidade && linhas.hasNext()) {
+                String linha = linhas.next();
+                if (linha.isEmpty()) {
+                    if (!atual.isEmpty()) {
+                        eventos.add(atual.toString());
+                        atual.setLength(0);
+                    }
+                } else if (!linha.startsWith(":")) {
+                    int separador = linha.indexOf(':');
+                    String campo = separador < 0 ? linha : linha.substring(0, separador);
+                    String valor = separador < 0 ? "" : linha.substring(separador + 1).stripLeading();
+                    atual.append(campo).append(':').append(valor).append('\n');
+                }
+            }
+            assertEquals(quantidade, eventos.size());
+            return eventos;
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package org.projetoseletivo.service;
+
+import io.minio.StatObjectResponse;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.dto.request.ArquivoImagem;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.AlbumRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes de integração da deduplicação de AlbumImagemService com o
+ * repositório real: a busca pelo hash roda fora das threads de envio, com o
+ * contexto da requisição.
+ */
+@QuarkusTest
+class AlbumImagemDeduplicacaoTest {
+
+    @InjectMock
+    MinioService minioService;
+
+    @InjectMock
+    VarianteImagemService varianteImagemService;
+
+    @Inject
+    AlbumImagemService albumImagemService;
+
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    AlbumRepository albumRepository;
+
+    @Test
+    @TestTransaction
+    void deveReaproveitarConteudoJaGravadoNoBanco() throws IOException {
+        // Arrange
+        Album album = albumRepository.findAll().firstResult();
+        byte[] conteudo = ("capa " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        when(minioService.getBucketName()).thenReturn("album-capas");
+        when(minioService.consultar(anyString())).thenReturn(Optional.of(mock(StatObjectResponse.class)));
+
+        // Act
+        ImagemResponse primeira = albumImagemService.enviar(album.getId(), List.of(arquivo(conteudo))).get(0);
+        ImagemResponse segunda = albumImagemService.enviar(album.getId(), List.of(arquivo(conteudo))).get(0);
+
+        // Assert
+        assertEquals(primeira.getObjectKey(), segunda.getObjectKey());
+        assertNotEquals(primeira.getId(), segunda.getId());
+        assertEquals(2, albumImagemRepository.contarReferencias(primeira.getObjectKey()));
+        verify(minioService, times(1)).upload(eq(primeira.getObjectKey()), any(InputStream.class), anyLong(),
+                anyString());
+    }
+
+    private ArquivoImagem arquivo(byte[] conteudo) throws IOException {
+        Path caminho = Files.createTempFile("capa", ".jpg");
+        caminho.toFile().deleteOnExit();
+        Files.write(caminho, conteudo);
+        return new ArquivoImagem(caminho, "capa.jpg", conteudo.length, "image/jpeg");
+    }
+}
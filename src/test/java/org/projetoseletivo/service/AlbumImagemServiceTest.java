@@ -0,0 +1,214 @@
+package org.projetoseletivo.service;
+
+import io.minio.StatObjectResponse;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.dto.request.ArquivoImagem;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.AlbumRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para AlbumImagemService.
+ */
+@QuarkusTest
+class AlbumImagemServiceTest {
+
+    @InjectMock
+    MinioService minioService;
+
+    @InjectMock
+    AlbumRepository albumRepository;
+
+    @InjectMock
+    AlbumImagemRepository albumImagemRepository;
+
+    @InjectMock
+    VarianteImagemService varianteImagemService;
+
+    @Inject
+    AlbumImagemService albumImagemService;
+
+    private Album albumExemplo;
+
+    @BeforeEach
+    void setup() {
+        albumExemplo = Album.builder()
+                .id(1L)
+                .titulo("Hybrid Theory")
+                .artistas(new HashSet<>())
+                .imagens(new ArrayList<>())
+                .build();
+        when(minioService.getBucketName()).thenReturn("album-capas");
+        when(minioService.consultar(anyString())).thenReturn(Optional.of(mock(StatObjectResponse.class)));
+    }
+
+    @Test
+    void deveEnviarTodasAsImagensEGravarEmLote() throws IOException {
+        // Arrange
+        List<ArquivoImagem> arquivos = List.of(arquivo("a.jpg"), arquivo("b.png"), arquivo("c.jpg"));
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
+
+        // Act
+        List<ImagemResponse> resultado = albumImagemService.enviar(1L, arquivos);
+
+        // Assert
+        assertEquals(3, resultado.size());
+        assertTrue(resultado.stream().allMatch(img -> img.getObjectKey().startsWith("conteudo/")));
+        assertEquals(3, resultado.stream().map(ImagemResponse::getObjectKey).distinct().count());
+        verify(minioService, times(3)).upload(anyString(), any(InputStream.class), anyLong(), eq("image/jpeg"));
+        verify(albumImagemRepository, times(1)).persist(anyIterable());
+        assertEquals(3, albumExemplo.getImagens().size());
+        verify(minioService, never()).remover(anyString());
+        verify(varianteImagemService).agendar(anyList());
+    }
+
+    @Test
+    void deveRemoverImagensEnviadasQuandoUmUploadFalhar() throws IOException {
+        // Arrange
+        List<ArquivoImagem> arquivos = List.of(arquivo("a.jpg"), arquivo("falha.jpg"), arquivo("c.jpg"));
+        when(minioService.upload(anyString(), any(InputStream.class), anyLong(), anyString()))
+                .thenAnswer(invocacao -> invocacao.getArgument(0));
+        when(minioService.upload(anyString(), any(InputStream.class), eq(5L), anyString()))
+                .thenThrow(new RuntimeException("MinIO indisponível"));
+
+        // Act & Assert
+        IOException erro = assertThrows(IOException.class, () -> albumImagemService.enviar(1L, arquivos));
+        assertTrue(erro.getMessage().contains("falha.jpg"));
+        verify(minioService, times(2)).remover(startsWith("conteudo/"));
+        verify(albumImagemRepository, never()).persist(anyIterable());
+    }
+
+    @Test
+    void deveRemoverImagensEnviadasQuandoAGravacaoFalhar() throws IOException {
+        // Arrange
+        List<ArquivoImagem> arquivos = List.of(arquivo("a.jpg"), arquivo("b.jpg"));
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> albumImagemService.enviar(1L, arquivos));
+        verify(minioService, times(2)).remover(startsWith("conteudo/"));
+    }
+
+    @Test
+    void deveReaproveitarConteudoJaGravadoSemEnviarAoMinio() throws IOException {
+        // Arrange
+        ArquivoImagem repetido = arquivo("a.jpg");
+        String hash = AlbumImagemService.hashConteudo(repetido.caminho());
+        when(albumImagemRepository.buscarObjectKeyPorHash(hash)).thenReturn(Optional.of("conteudo/" + hash));
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
+
+        // Act
+        List<ImagemResponse> resultado = albumImagemService.enviar(1L, List.of(repetido, arquivo("b.jpg")));
+
+        // Assert
+        assertEquals("conteudo/" + hash, resultado.get(0).getObjectKey());
+        verify(minioService, times(1)).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+        verify(minioService, never()).upload(eq("conteudo/" + hash), any(InputStream.class), anyLong(), anyString());
+    }
+
+    @Test
+    void deveReenviarConteudoRemovidoPelaLimpezaAntesDaGravacao() throws IOException {
+        // Arrange
+        ArquivoImagem repetido = arquivo("a.jpg");
+        String objectKey = "conteudo/" + AlbumImagemService.hashConteudo(repetido.caminho());
+        when(albumImagemRepository.buscarObjectKeyPorHash(anyString())).thenReturn(Optional.of(objectKey));
+        when(minioService.consultar(objectKey)).thenReturn(Optional.empty());
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
+
+        // Act
+        albumImagemService.enviar(1L, List.of(repetido));
+
+        // Assert
+        verify(albumImagemRepository).bloquearObjectKeys(List.of(objectKey), false);
+        verify(minioService).upload(eq(objectKey), any(InputStream.class), eq(repetido.tamanho()), eq("image/jpeg"));
+    }
+
+    @Test
+    void naoDeveRemoverConteudoCompartilhadoNaCompensacao() throws IOException {
+        // Arrange
+        List<ArquivoImagem> arquivos = List.of(arquivo("a.jpg"), arquivo("b.jpg"));
+        when(albumImagemRepository.contarReferencias(anyString())).thenReturn(1L);
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> albumImagemService.enviar(1L, arquivos));
+        verify(albumImagemRepository).bloquearObjectKeys(anyList(), eq(true));
+        verify(minioService, never()).remover(anyString());
+    }
+
+    @Test
+    void deveConfirmarEnvioDiretoAposVerificarOObjeto() {
+        // Arrange
+        StatObjectResponse objeto = mock(StatObjectResponse.class);
+        when(objeto.size()).thenReturn(1024L);
+        when(objeto.contentType()).thenReturn("image/png");
+        when(minioService.consultar("album-1/capa.png")).thenReturn(Optional.of(objeto));
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
+
+        // Act
+        ImagemResponse imagem = albumImagemService.confirmarEnvioDireto(1L, "album-1/capa.png");
+
+        // Assert
+        assertEquals("album-1/capa.png", imagem.getObjectKey());
+        assertEquals("image/png", imagem.getContentType());
+        assertEquals(1, albumExemplo.getImagens().size());
+    }
+
+    @Test
+    void deveRecusarConfirmacaoDeObjetoJaRegistradoSobLockExclusivo() {
+        // Arrange
+        StatObjectResponse objeto = mock(StatObjectResponse.class);
+        when(objeto.size()).thenReturn(1024L);
+        when(objeto.contentType()).thenReturn("image/png");
+        when(minioService.consultar("album-1/capa.png")).thenReturn(Optional.of(objeto));
+        when(albumImagemRepository.existePorObjectKey("album-1/capa.png")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> albumImagemService.confirmarEnvioDireto(1L, "album-1/capa.png"));
+        verify(albumImagemRepository).bloquearObjectKeys(List.of("album-1/capa.png"), true);
+        verify(albumImagemRepository, never()).persist(anyIterable());
+        verify(minioService, never()).remover(anyString());
+    }
+
+    @Test
+    void deveRecusarConfirmacaoDeObjetoDeOutroAlbum() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> albumImagemService.confirmarEnvioDireto(1L, "album-2/capa.png"));
+        verify(minioService, never()).consultar(anyString());
+        verify(albumImagemRepository, never()).persist(anyIterable());
+    }
+
+    /**
+     * Arquivo temporário com conteúdo distinto por nome; "falha.jpg" tem 5
+     * bytes para ser identificado no mock.
+     */
+    private ArquivoImagem arquivo(String nome) throws IOException {
+        Path caminho = Files.createTempFile("capa", nome);
+        caminho.toFile().deleteOnExit();
+        byte[] conteudo = nome.startsWith("falha") ? new byte[5]
+                : ("conteudo de " + nome).getBytes(StandardCharsets.UTF_8);
+        Files.write(caminho, conteudo);
+        return new ArquivoImagem(caminho, nome, conteudo.length, "image/jpeg");
+    }
+}
@@ -5,20 +5,28 @@ import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.AlbumImagem;
 import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.ModoTotal;
 import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
 import org.projetoseletivo.dto.request.AlbumRequest;
+import org.projetoseletivo.dto.request.CursorPaginacao;
+import org.projetoseletivo.dto.request.FiltroAlbum;
 import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.dto.response.ImagemResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
 import org.projetoseletivo.repository.AlbumRepository;
 import org.projetoseletivo.repository.ArtistaRepository;
-import org.projetoseletivo.websocket.AlbumNotificacaoSocket;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +49,7 @@ class AlbumServiceTest {
     MinioService minioService;
 
     @InjectMock
-    AlbumNotificacaoSocket notificacaoSocket;
+    EventoCatalogoService eventoCatalogoService;
 
     @Inject
     AlbumService albumService;
@@ -89,7 +97,8 @@ class AlbumServiceTest {
         when(albumRepository.contarTodos()).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(null, null, null, 0, 10);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().build(), 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -102,49 +111,187 @@ class AlbumServiceTest {
     @Test
     void deveListarAlbunsFiltrandoPorTitulo() {
         // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().titulo("Hybrid").build();
         List<Album> albuns = Arrays.asList(albumExemplo);
-        when(albumRepository.buscarPorTitulo(eq("Hybrid"), eq(0), eq(10))).thenReturn(albuns);
-        when(albumRepository.contarPorTitulo("Hybrid")).thenReturn(1L);
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(false), eq(0), eq(10))).thenReturn(albuns);
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<AlbumResponse> resultado = albumService.listar("Hybrid", null, null, 0, 10);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().titulo("Hybrid").build(), 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.getConteudo().size());
-        verify(albumRepository).buscarPorTitulo("Hybrid", 0, 10);
+        verify(albumRepository).buscarPorFiltro(filtro, false, 0, 10);
+        verify(albumRepository, never()).listarTodos(anyInt(), anyInt());
+    }
+
+    @Test
+    void deveListarAlbunsPorTituloOrdenadosPorRelevancia() {
+        // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().titulo("Hybrid").build();
+        List<Album> albuns = Arrays.asList(albumExemplo);
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(true), eq(0), eq(10))).thenReturn(albuns);
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(1L);
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(filtro, 0, 10, ModoTotal.EXATO, true);
+
+        // Assert
+        assertEquals(1, resultado.getConteudo().size());
+        verify(albumRepository).buscarPorFiltro(filtro, true, 0, 10);
     }
 
     @Test
     void deveListarAlbunsFiltrandoPorNomeArtista() {
         // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().nomeArtista("Linkin").build();
         List<Album> albuns = Arrays.asList(albumExemplo);
-        when(albumRepository.buscarPorNomeArtista(eq("Linkin"), eq(0), eq(10))).thenReturn(albuns);
-        when(albumRepository.contarPorNomeArtista("Linkin")).thenReturn(1L);
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(false), eq(0), eq(10))).thenReturn(albuns);
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(null, "Linkin", null, 0, 10);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().nomeArtista("Linkin").build(), 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.getConteudo().size());
-        verify(albumRepository).buscarPorNomeArtista("Linkin", 0, 10);
+        verify(albumRepository).buscarPorFiltro(filtro, false, 0, 10);
     }
 
     @Test
     void deveListarAlbunsFiltrandoPorTipoArtista() {
         // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().tipoArtista(TipoArtista.BANDA).build();
         List<Album> albuns = Arrays.asList(albumExemplo);
-        when(albumRepository.buscarPorTipoArtista(eq(TipoArtista.BANDA), eq(0), eq(10))).thenReturn(albuns);
-        when(albumRepository.contarPorTipoArtista(TipoArtista.BANDA)).thenReturn(1L);
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(false), eq(0), eq(10))).thenReturn(albuns);
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(null, null, TipoArtista.BANDA, 0, 10);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().tipoArtista(TipoArtista.BANDA).build(), 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.getConteudo().size());
-        verify(albumRepository).buscarPorTipoArtista(TipoArtista.BANDA, 0, 10);
+        verify(albumRepository).buscarPorFiltro(filtro, false, 0, 10);
+    }
+
+    @Test
+    void deveCombinarTodosOsFiltrosEmUmaUnicaConsulta() {
+        // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder()
+                .titulo("Hybrid")
+                .nomeArtista("Linkin")
+                .tipoArtista(TipoArtista.BANDA)
+                .anoInicio(1999)
+                .anoFim(2001)
+                .build();
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(false), eq(0), eq(10)))
+                .thenReturn(Arrays.asList(albumExemplo));
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(1L);
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(filtro, 0, 10, ModoTotal.EXATO, false);
+
+        // Assert
+        assertEquals(1, resultado.getTotalElementos());
+        verify(albumRepository, times(1)).buscarPorFiltro(filtro, false, 0, 10);
+        verify(albumRepository, times(1)).contarPorFiltro(filtro);
+    }
+
+    @Test
+    void deveRejeitarFaixaDeAnosInvertida() {
+        // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().anoInicio(2010).anoFim(2000).build();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> albumService.listar(filtro, 0, 10, ModoTotal.EXATO, false));
+        verify(albumRepository, never()).buscarPorFiltro(any(), anyBoolean(), anyInt(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveAssinarUrlsDaPaginaEmUmUnicoLote() {
+        // Arrange
+        albumExemplo.getImagens().add(AlbumImagem.builder().id(1L).bucket("album-capas").objectKey("album-1/a.jpg").build());
+        Album outro = Album.builder()
+                .id(2L)
+                .titulo("Meteora")
+                .artistas(new HashSet<>())
+                .imagens(new java.util.ArrayList<>(List.of(
+                        AlbumImagem.builder().id(2L).bucket("album-capas").objectKey("album-2/b.jpg").build())))
+                .build();
+        when(albumRepository.listarTodos(eq(0), eq(10))).thenReturn(Arrays.asList(albumExemplo, outro));
+        when(albumRepository.contarTodos()).thenReturn(2L);
+
+        // Act
+        albumService.listar(FiltroAlbum.builder().build(), 0, 10, ModoTotal.EXATO, false);
+
+        // Assert
+        ArgumentCaptor<Collection<ImagemResponse>> lote = ArgumentCaptor.forClass(Collection.class);
+        verify(minioService, times(1)).preencherUrls(lote.capture());
+        assertEquals(2, lote.getValue().size());
+        verify(minioService, never()).gerarUrlPreAssinada(any(), any());
+    }
+
+    @Test
+    void deveListarSemTotalBuscandoUmRegistroExtra() {
+        // Arrange
+        Album outro = Album.builder()
+                .id(2L)
+                .titulo("Meteora")
+                .artistas(new HashSet<>())
+                .imagens(new java.util.ArrayList<>())
+                .build();
+        when(albumRepository.listarTodos(eq(0), eq(2))).thenReturn(Arrays.asList(albumExemplo, outro));
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().build(), 0, 1, ModoTotal.NENHUM, false);
+
+        // Assert
+        assertEquals(1, resultado.getConteudo().size());
+        assertFalse(resultado.isUltima());
+        assertNull(resultado.getTotalElementos());
+        verify(albumRepository, never()).contarTodos();
+    }
+
+    @Test
+    void deveEstimarTotalPelasEstatisticasDoBanco() {
+        // Arrange
+        when(albumRepository.listarTodos(eq(0), eq(10))).thenReturn(Arrays.asList(albumExemplo));
+        when(albumRepository.estimarTotal()).thenReturn(5000L);
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().build(), 0, 10, ModoTotal.ESTIMADO, false);
+
+        // Assert
+        assertEquals(5000L, resultado.getTotalElementos());
+        assertTrue(resultado.getTotalEstimado());
+        assertTrue(resultado.isUltima());
+        verify(albumRepository, never()).contarTodos();
+    }
+
+    @Test
+    void deveReaproveitarContagemEstimadaDoMesmoFiltro() {
+        // Arrange
+        FiltroAlbum filtro = FiltroAlbum.builder().titulo("Estimado").build();
+        when(albumRepository.buscarPorFiltro(eq(filtro), eq(false), anyInt(), eq(10))).thenReturn(List.of());
+        when(albumRepository.contarPorFiltro(filtro)).thenReturn(42L);
+
+        // Act
+        albumService.listar(FiltroAlbum.builder().titulo("Estimado").build(), 0, 10, ModoTotal.ESTIMADO, false);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().titulo("Estimado").build(), 1, 10, ModoTotal.ESTIMADO, false);
+
+        // Assert
+        assertEquals(42L, resultado.getTotalElementos());
+        verify(albumRepository, times(1)).contarPorFiltro(filtro);
     }
 
     @Test
@@ -154,7 +301,8 @@ class AlbumServiceTest {
         when(albumRepository.contarTodos()).thenReturn(0L);
 
         // Act
-        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(null, null, null, 0, 10);
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listar(
+                FiltroAlbum.builder().build(), 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -162,6 +310,50 @@ class AlbumServiceTest {
         assertEquals(0, resultado.getTotalElementos());
     }
 
+    @Test
+    void deveListarAlbunsPorCursorRetornandoProximoCursor() {
+        // Arrange
+        Album segundo = Album.builder()
+                .id(2L)
+                .titulo("Meteora")
+                .artistas(new HashSet<>())
+                .imagens(new java.util.ArrayList<>())
+                .build();
+        when(albumRepository.listarAposCursor(isNull(), isNull(), eq(2))).thenReturn(Arrays.asList(albumExemplo, segundo));
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listarPorCursor("", 1);
+
+        // Assert
+        assertEquals(1, resultado.getConteudo().size());
+        assertTrue(resultado.isPrimeira());
+        assertFalse(resultado.isUltima());
+        assertNull(resultado.getTotalElementos());
+        CursorPaginacao cursor = CursorPaginacao.decodificar(resultado.getProximoCursor());
+        assertEquals("Hybrid Theory", cursor.chave());
+        assertEquals(1L, cursor.id());
+    }
+
+    @Test
+    void deveContinuarListagemAPartirDoCursor() {
+        // Arrange
+        String cursor = new CursorPaginacao("Hybrid Theory", 1L).codificar();
+        when(albumRepository.listarAposCursor(eq("Hybrid Theory"), eq(1L), eq(11))).thenReturn(List.of());
+
+        // Act
+        PaginacaoResponse<AlbumResponse> resultado = albumService.listarPorCursor(cursor, 10);
+
+        // Assert
+        assertTrue(resultado.getConteudo().isEmpty());
+        assertTrue(resultado.isUltima());
+        assertNull(resultado.getProximoCursor());
+    }
+
+    @Test
+    void deveRejeitarCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> albumService.listarPorCursor("@@invalido@@", 10));
+    }
+
     // =================================================================
     // TESTES - BUSCAR POR ID
     // =================================================================
@@ -205,7 +397,6 @@ class AlbumServiceTest {
                 .build();
 
         doNothing().when(albumRepository).persist(any(Album.class));
-        doNothing().when(notificacaoSocket).notificarNovoAlbum(any(AlbumResponse.class));
 
         // Act
         AlbumResponse resultado = albumService.criar(requestSemArtista);
@@ -213,22 +404,22 @@ class AlbumServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(albumRepository).persist(any(Album.class));
-        verify(notificacaoSocket).notificarNovoAlbum(any(AlbumResponse.class));
+        verify(eventoCatalogoService).registrar(eq(TipoEventoCatalogo.ALBUM_CRIADO), any(), same(resultado));
     }
 
     @Test
     void deveCriarNovoAlbumComArtistas() {
         // Arrange
-        when(artistaRepository.findByIdOptional(1L)).thenReturn(Optional.of(artistaExemplo));
+        when(artistaRepository.buscarPorIds(List.of(1L))).thenReturn(Map.of(1L, artistaExemplo));
         doNothing().when(albumRepository).persist(any(Album.class));
-        doNothing().when(notificacaoSocket).notificarNovoAlbum(any(AlbumResponse.class));
 
         // Act
         AlbumResponse resultado = albumService.criar(requestExemplo);
 
         // Assert
         assertNotNull(resultado);
-        verify(artistaRepository).findByIdOptional(1L);
+        verify(artistaRepository).buscarPorIds(List.of(1L));
+        verify(artistaRepository, never()).findByIdOptional(anyLong());
         verify(albumRepository).persist(any(Album.class));
     }
 
@@ -240,7 +431,7 @@ class AlbumServiceTest {
                 .artistaIds(Arrays.asList(999L))
                 .build();
 
-        when(artistaRepository.findByIdOptional(999L)).thenReturn(Optional.empty());
+        when(artistaRepository.buscarPorIds(List.of(999L))).thenReturn(Map.of());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(
@@ -250,6 +441,26 @@ class AlbumServiceTest {
         assertTrue(exception.getMessage().contains("999"));
     }
 
+    @Test
+    void deveInformarTodosArtistasInexistentesComUmaUnicaBusca() {
+        // Arrange
+        AlbumRequest requestComArtistasInvalidos = AlbumRequest.builder()
+                .titulo("Album Teste")
+                .artistaIds(Arrays.asList(1L, 998L, 999L))
+                .build();
+
+        when(artistaRepository.buscarPorIds(List.of(1L, 998L, 999L))).thenReturn(Map.of(1L, artistaExemplo));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> albumService.criar(requestComArtistasInvalidos));
+
+        assertTrue(exception.getMessage().contains("[998, 999]"));
+        verify(artistaRepository, times(1)).buscarPorIds(anyCollection());
+        verify(albumRepository, never()).persist(any(Album.class));
+    }
+
     // =================================================================
     // TESTES - ATUALIZAR
     // =================================================================
@@ -269,6 +480,7 @@ class AlbumServiceTest {
 
         // Assert
         assertTrue(resultado.isPresent());
+        verify(eventoCatalogoService).registrar(TipoEventoCatalogo.ALBUM_ATUALIZADO, 1L, resultado.get());
     }
 
     @Test
@@ -281,6 +493,7 @@ class AlbumServiceTest {
 
         // Assert
         assertTrue(resultado.isEmpty());
+        verifyNoInteractions(eventoCatalogoService);
     }
 
     @Test
@@ -299,14 +512,14 @@ class AlbumServiceTest {
                 .build();
 
         when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
-        when(artistaRepository.findByIdOptional(2L)).thenReturn(Optional.of(novoArtista));
+        when(artistaRepository.buscarPorIds(List.of(2L))).thenReturn(Map.of(2L, novoArtista));
 
         // Act
         Optional<AlbumResponse> resultado = albumService.atualizar(1L, requestComNovoArtista);
 
         // Assert
         assertTrue(resultado.isPresent());
-        verify(artistaRepository).findByIdOptional(2L);
+        verify(artistaRepository).buscarPorIds(List.of(2L));
     }
 
     @Test
@@ -333,6 +546,7 @@ class AlbumServiceTest {
     @Test
     void deveRemoverAlbumExistente() {
         // Arrange
+        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
         when(albumRepository.deleteById(1L)).thenReturn(true);
 
         // Act
@@ -341,6 +555,13 @@ class AlbumServiceTest {
         // Assert
         assertTrue(resultado);
         verify(albumRepository).deleteById(1L);
+        ArgumentCaptor<Object> resumo = ArgumentCaptor.forClass(Object.class);
+        verify(eventoCatalogoService).registrar(eq(TipoEventoCatalogo.ALBUM_REMOVIDO), eq(1L), resumo.capture());
+        AlbumResponse removido = (AlbumResponse) resumo.getValue();
+        assertEquals("Hybrid Theory", removido.getTitulo());
+        assertEquals(1L, removido.getArtistas().get(0).getId());
+        assertEquals(TipoArtista.BANDA, removido.getArtistas().get(0).getTipo());
+        assertTrue(artistaExemplo.getAlbuns().isEmpty());
     }
 
     @Test
@@ -353,5 +574,6 @@ class AlbumServiceTest {
 
         // Assert
         assertFalse(resultado);
+        verifyNoInteractions(eventoCatalogoService);
     }
 }
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.projetoseletivo.domain.entity.Album;
 import org.projetoseletivo.domain.entity.Artista;
+import org.projetoseletivo.domain.enums.ModoTotal;
 import org.projetoseletivo.domain.enums.Ordem;
 import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
 import org.projetoseletivo.dto.request.ArtistaRequest;
+import org.projetoseletivo.dto.request.CursorPaginacao;
 import org.projetoseletivo.dto.response.ArtistaResponse;
 import org.projetoseletivo.dto.response.PaginacaoResponse;
 import org.projetoseletivo.repository.AlbumRepository;
@@ -19,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +42,9 @@ class ArtistaServiceTest {
     @InjectMock
     AlbumRepository albumRepository;
 
+    @InjectMock
+    EventoCatalogoService eventoCatalogoService;
+
     @Inject
     ArtistaService artistaService;
 
@@ -83,7 +90,8 @@ class ArtistaServiceTest {
         when(artistaRepository.contarTodos()).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(null, null, Ordem.ASC, 0, 10);
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                null, null, Ordem.ASC, 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -101,7 +109,8 @@ class ArtistaServiceTest {
         when(artistaRepository.contarPorNome("Serj")).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar("Serj", null, Ordem.ASC, 0, 10);
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                "Serj", null, Ordem.ASC, 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -117,7 +126,8 @@ class ArtistaServiceTest {
         when(artistaRepository.contarPorTipo(TipoArtista.SOLO)).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(null, TipoArtista.SOLO, Ordem.ASC, 0, 10);
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                null, TipoArtista.SOLO, Ordem.ASC, 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -133,13 +143,30 @@ class ArtistaServiceTest {
         when(artistaRepository.contarTodos()).thenReturn(1L);
 
         // Act
-        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(null, null, Ordem.DESC, 0, 10);
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                null, null, Ordem.DESC, 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
         verify(artistaRepository).listarTodos(Ordem.DESC, 0, 10);
     }
 
+    @Test
+    void deveListarArtistasSemTotalNaUltimaPagina() {
+        // Arrange
+        when(artistaRepository.listarTodos(eq(Ordem.ASC), eq(10), eq(11))).thenReturn(Arrays.asList(artistaExemplo));
+
+        // Act
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                null, null, Ordem.ASC, 1, 10, ModoTotal.NENHUM, false);
+
+        // Assert
+        assertEquals(1, resultado.getConteudo().size());
+        assertTrue(resultado.isUltima());
+        assertNull(resultado.getTotalElementos());
+        verify(artistaRepository, never()).contarTodos();
+    }
+
     @Test
     void deveRetornarListaVaziaQuandoNaoHouverArtistas() {
         // Arrange
@@ -147,7 +174,8 @@ class ArtistaServiceTest {
         when(artistaRepository.contarTodos()).thenReturn(0L);
 
         // Act
-        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(null, null, Ordem.ASC, 0, 10);
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listar(
+                null, null, Ordem.ASC, 0, 10, ModoTotal.EXATO, false);
 
         // Assert
         assertNotNull(resultado);
@@ -155,6 +183,23 @@ class ArtistaServiceTest {
         assertEquals(0, resultado.getTotalElementos());
     }
 
+    @Test
+    void deveListarArtistasPorCursorNaOrdemInformada() {
+        // Arrange
+        String cursor = new CursorPaginacao("Serj Tankian", 1L).codificar();
+        when(artistaRepository.listarAposCursor(eq(Ordem.DESC), eq("Serj Tankian"), eq(1L), eq(11)))
+                .thenReturn(Arrays.asList(artistaExemplo));
+
+        // Act
+        PaginacaoResponse<ArtistaResponse> resultado = artistaService.listarPorCursor(cursor, Ordem.DESC, 10);
+
+        // Assert
+        assertEquals(1, resultado.getConteudo().size());
+        assertFalse(resultado.isPrimeira());
+        assertTrue(resultado.isUltima());
+        assertNull(resultado.getProximoCursor());
+    }
+
     // =================================================================
     // TESTES - BUSCAR POR ID
     // =================================================================
@@ -200,6 +245,7 @@ class ArtistaServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(artistaRepository).persist(any(Artista.class));
+        verify(eventoCatalogoService).registrar(eq(TipoEventoCatalogo.ARTISTA_CRIADO), any(), same(resultado));
     }
 
     @Test
@@ -211,7 +257,7 @@ class ArtistaServiceTest {
                 .albumIds(Arrays.asList(1L))
                 .build();
 
-        when(albumRepository.findByIdOptional(1L)).thenReturn(Optional.of(albumExemplo));
+        when(albumRepository.buscarPorIds(List.of(1L))).thenReturn(Map.of(1L, albumExemplo));
         doNothing().when(artistaRepository).persist(any(Artista.class));
 
         // Act
@@ -219,7 +265,8 @@ class ArtistaServiceTest {
 
         // Assert
         assertNotNull(resultado);
-        verify(albumRepository).findByIdOptional(1L);
+        verify(albumRepository).buscarPorIds(List.of(1L));
+        verify(albumRepository, never()).findByIdOptional(anyLong());
         verify(artistaRepository).persist(any(Artista.class));
     }
 
@@ -233,7 +280,7 @@ class ArtistaServiceTest {
                 .albumIds(Arrays.asList(999L))
                 .build();
 
-        when(albumRepository.findByIdOptional(999L)).thenReturn(Optional.empty());
+        when(albumRepository.buscarPorIds(List.of(999L))).thenReturn(Map.of());
         doNothing().when(artistaRepository).persist(any(Artista.class));
 
         // Act - não lança exceção, apenas ignora
@@ -263,6 +310,7 @@ class ArtistaServiceTest {
 
         // Assert
         assertTrue(resultado.isPresent());
+        verify(eventoCatalogoService).registrar(TipoEventoCatalogo.ARTISTA_ATUALIZADO, 1L, resultado.get());
     }
 
     @Test
@@ -275,6 +323,7 @@ class ArtistaServiceTest {
 
         // Assert
         assertTrue(resultado.isEmpty());
+        verifyNoInteractions(eventoCatalogoService);
     }
 
     @Test
@@ -294,14 +343,14 @@ class ArtistaServiceTest {
                 .build();
 
         when(artistaRepository.findByIdOptional(1L)).thenReturn(Optional.of(artistaExemplo));
-        when(albumRepository.findByIdOptional(2L)).thenReturn(Optional.of(novoAlbum));
+        when(albumRepository.buscarPorIds(List.of(2L))).thenReturn(Map.of(2L, novoAlbum));
 
         // Act
         Optional<ArtistaResponse> resultado = artistaService.atualizar(1L, requestComNovoAlbum);
 
         // Assert
         assertTrue(resultado.isPresent());
-        verify(albumRepository).findByIdOptional(2L);
+        verify(albumRepository).buscarPorIds(List.of(2L));
     }
 
     @Test
@@ -354,6 +403,7 @@ class ArtistaServiceTest {
         // Assert
         assertTrue(resultado);
         verify(artistaRepository).deleteById(1L);
+        verify(eventoCatalogoService).registrar(TipoEventoCatalogo.ARTISTA_REMOVIDO, 1L, null);
     }
 
     @Test
@@ -366,5 +416,6 @@ class ArtistaServiceTest {
 
         // Assert
         assertFalse(resultado);
+        verifyNoInteractions(eventoCatalogoService);
     }
 }
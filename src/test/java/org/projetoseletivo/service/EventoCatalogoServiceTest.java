@@ -0,0 +1,130 @@
+package org.projetoseletivo.service;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.EventoCatalogo;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+import org.projetoseletivo.dto.response.FeedEventosResponse;
+import org.projetoseletivo.repository.EventoCatalogoRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para EventoCatalogoService.
+ */
+@QuarkusTest
+class EventoCatalogoServiceTest {
+
+    @InjectMock
+    EventoCatalogoRepository eventoCatalogoRepository;
+
+    @Inject
+    EventoCatalogoService eventoCatalogoService;
+
+    @BeforeEach
+    void setup() {
+        when(eventoCatalogoRepository.buscarTransacao(10L)).thenReturn(Optional.of("900"));
+    }
+
+    @Test
+    void deveResponderNaHoraQuandoHouverEventos() {
+        // Arrange
+        when(eventoCatalogoRepository.buscarApos("900", 10L, 100)).thenReturn(List.of(evento(11L), evento(12L)));
+
+        // Act
+        FeedEventosResponse feed = eventoCatalogoService.buscar(10L, 100, Duration.ofSeconds(30)).orElseThrow();
+
+        // Assert
+        assertEquals(2, feed.getEventos().size());
+        assertEquals(12L, feed.getProximoOffset());
+        verify(eventoCatalogoRepository, times(1)).buscarApos(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void deveResponderVazioComOMesmoOffsetAposAEspera() {
+        // Arrange
+        when(eventoCatalogoRepository.buscarApos("900", 10L, 100)).thenReturn(List.of());
+
+        // Act
+        FeedEventosResponse feed = eventoCatalogoService.buscar(10L, 100, Duration.ofMillis(200)).orElseThrow();
+
+        // Assert
+        assertTrue(feed.getEventos().isEmpty());
+        assertEquals(10L, feed.getProximoOffset());
+    }
+
+    @Test
+    void deveAcordarLeituraEmEsperaQuandoEventoForConfirmado() throws Exception {
+        // Arrange
+        when(eventoCatalogoRepository.buscarApos("900", 10L, 100)).thenReturn(List.of());
+
+        // Act
+        CompletableFuture<Optional<FeedEventosResponse>> leitura = CompletableFuture
+                .supplyAsync(() -> eventoCatalogoService.buscar(10L, 100, Duration.ofSeconds(30)));
+        verify(eventoCatalogoRepository, timeout(5000)).buscarApos("900", 10L, 100);
+        when(eventoCatalogoRepository.buscarApos("900", 10L, 100)).thenReturn(List.of(evento(11L)));
+        eventoCatalogoService.aoConfirmar(evento(11L));
+
+        // Assert
+        FeedEventosResponse feed = leitura.get(5, TimeUnit.SECONDS).orElseThrow();
+        assertEquals(11L, feed.getProximoOffset());
+    }
+
+    @Test
+    void deveRecusarOffsetJaDescartadoPelaRetencao() {
+        // Arrange
+        when(eventoCatalogoRepository.buscarTransacao(10L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<FeedEventosResponse> feed = eventoCatalogoService.buscar(10L, 100, Duration.ZERO);
+
+        // Assert
+        assertTrue(feed.isEmpty());
+        verify(eventoCatalogoRepository, never()).buscarApos(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void deveLerDoInicioComOffsetZero() {
+        // Arrange
+        when(eventoCatalogoRepository.buscarApos("0", 0L, 100)).thenReturn(List.of(evento(3L)));
+
+        // Act
+        Optional<FeedEventosResponse> feed = eventoCatalogoService.buscar(0L, 100, Duration.ZERO);
+
+        // Assert
+        assertEquals(3L, feed.orElseThrow().getProximoOffset());
+        verify(eventoCatalogoRepository, never()).buscarTransacao(anyLong());
+    }
+
+    @Test
+    void deveSeguirAPosicaoDoOffsetMesmoComIdsForaDeOrdem() {
+        // Arrange: o evento 8 foi confirmado depois do 10, por outra transação
+        when(eventoCatalogoRepository.buscarApos("900", 10L, 100)).thenReturn(List.of(evento(8L)));
+
+        // Act
+        Optional<FeedEventosResponse> feed = eventoCatalogoService.buscar(10L, 100, Duration.ZERO);
+
+        // Assert
+        assertEquals(8L, feed.orElseThrow().getProximoOffset());
+    }
+
+    private static EventoCatalogo evento(Long id) {
+        return EventoCatalogo.builder()
+                .id(id)
+                .tipo(TipoEventoCatalogo.ALBUM_ATUALIZADO)
+                .entidadeId(1L)
+                .dados("{\"id\":1}")
+                .build();
+    }
+}
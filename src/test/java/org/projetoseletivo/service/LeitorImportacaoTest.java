@@ -0,0 +1,84 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.enums.FormatoImportacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários da leitura dos arquivos de importação.
+ */
+class LeitorImportacaoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deveLerCsvComAspasEListas() throws IOException {
+        // Arrange
+        String csv = "titulo,anoLancamento,artistaIds\n"
+                + "\"Hybrid Theory, Live\",2000,1|2\n"
+                + "\n"
+                + "Meteora,,3\n";
+
+        // Act
+        LeitorImportacao.Registro primeiro;
+        LeitorImportacao.Registro segundo;
+        try (LeitorImportacao leitor = leitor(csv, FormatoImportacao.CSV)) {
+            primeiro = leitor.proximo();
+            segundo = leitor.proximo();
+            assertNull(leitor.proximo());
+        }
+
+        // Assert
+        assertEquals(2, primeiro.linha());
+        assertEquals("Hybrid Theory, Live", primeiro.dados().get("titulo").asText());
+        assertEquals(2, primeiro.dados().get("artistaIds").size());
+        assertEquals(4, segundo.linha());
+        assertFalse(segundo.dados().has("anoLancamento"));
+    }
+
+    @Test
+    void deveReportarErroSemInterromperALeitura() throws IOException {
+        // Arrange
+        String ndjson = "{\"titulo\": \"A\"}\n{invalido\n[1, 2]\n{\"titulo\": \"B\"}\n";
+
+        // Act
+        List<LeitorImportacao.Registro> registros;
+        try (LeitorImportacao leitor = leitor(ndjson, FormatoImportacao.NDJSON)) {
+            registros = List.of(leitor.proximo(), leitor.proximo(), leitor.proximo(), leitor.proximo());
+        }
+
+        // Assert
+        assertNull(registros.get(0).erro());
+        assertTrue(registros.get(1).erro().startsWith("JSON inválido"));
+        assertEquals("Linha não é um objeto JSON", registros.get(2).erro());
+        assertEquals("B", registros.get(3).dados().get("titulo").asText());
+    }
+
+    @Test
+    void deveRecusarLinhaCsvComQuantidadeDeCamposDiferente() throws IOException {
+        // Arrange
+        String csv = "nome,tipo\nLinkin Park\n";
+
+        // Act
+        LeitorImportacao.Registro registro;
+        try (LeitorImportacao leitor = leitor(csv, FormatoImportacao.CSV)) {
+            registro = leitor.proximo();
+        }
+
+        // Assert
+        assertEquals("Esperados 2 campos, encontrados 1", registro.erro());
+    }
+
+    private LeitorImportacao leitor(String conteudo, FormatoImportacao formato) {
+        return new LeitorImportacao(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), formato,
+                objectMapper, Set.of("artistaIds"));
+    }
+}
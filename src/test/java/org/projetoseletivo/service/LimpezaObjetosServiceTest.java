@@ -0,0 +1,75 @@
+package org.projetoseletivo.service;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.ObjetoRemovido;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.ObjetoRemovidoRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para LimpezaObjetosService.
+ */
+@QuarkusTest
+class LimpezaObjetosServiceTest {
+
+    @InjectMock
+    MinioService minioService;
+
+    @InjectMock
+    AlbumImagemRepository albumImagemRepository;
+
+    @InjectMock
+    ObjetoRemovidoRepository objetoRemovidoRepository;
+
+    @Inject
+    LimpezaObjetosService limpezaObjetosService;
+
+    @Test
+    void deveRemoverEmLoteApenasObjetosSemReferencia() {
+        // Arrange
+        ObjetoRemovido orfao = objeto(1L, "album-1/a.jpg");
+        ObjetoRemovido compartilhado = objeto(2L, "conteudo/abc");
+        when(objetoRemovidoRepository.bloquearLote(anyInt(), anyInt())).thenReturn(List.of(orfao, compartilhado));
+        when(albumImagemRepository.buscarObjectKeysReferenciadas(anyCollection())).thenReturn(Set.of("conteudo/abc"));
+        when(minioService.removerEmLote(anyCollection())).thenReturn(Set.of());
+
+        // Act
+        int concluidos = limpezaObjetosService.processarLote();
+
+        // Assert
+        assertEquals(2, concluidos);
+        verify(minioService).removerEmLote(List.of("album-1/a.jpg"));
+        verify(objetoRemovidoRepository).delete(orfao);
+        verify(objetoRemovidoRepository).delete(compartilhado);
+    }
+
+    @Test
+    void deveManterNaFilaObjetosQueFalharam() {
+        // Arrange
+        ObjetoRemovido objeto = objeto(1L, "album-1/a.jpg");
+        when(objetoRemovidoRepository.bloquearLote(anyInt(), anyInt())).thenReturn(List.of(objeto));
+        when(albumImagemRepository.buscarObjectKeysReferenciadas(anyCollection())).thenReturn(Set.of());
+        when(minioService.removerEmLote(anyCollection())).thenReturn(Set.of("album-1/a.jpg"));
+
+        // Act
+        int concluidos = limpezaObjetosService.processarLote();
+
+        // Assert
+        assertEquals(0, concluidos);
+        assertEquals(1, objeto.getTentativas());
+        verify(objetoRemovidoRepository, never()).delete(any(ObjetoRemovido.class));
+    }
+
+    private ObjetoRemovido objeto(Long id, String objectKey) {
+        return ObjetoRemovido.builder().id(id).objectKey(objectKey).build();
+    }
+}
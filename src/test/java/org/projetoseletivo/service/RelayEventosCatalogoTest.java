@@ -0,0 +1,137 @@
+package org.projetoseletivo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.enterprise.event.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.projetoseletivo.domain.entity.EventoCatalogo;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do payload, da deduplicação e da entrega do RelayEventosCatalogo,
+ * sem conexão com o banco. A entrega é assíncrona, daí o timeout nas
+ * verificações.
+ */
+class RelayEventosCatalogoTest {
+
+    private RelayEventosCatalogo relay;
+
+    private Event<EventoCatalogoConfirmado> eventoConfirmado;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        eventoConfirmado = mock(Event.class);
+        relay = new RelayEventosCatalogo();
+        relay.eventoConfirmado = eventoConfirmado;
+        relay.objectMapper = new ObjectMapper();
+        relay.registry = new SimpleMeterRegistry();
+        relay.capacidadeDeduplicacao = 3;
+        relay.tamanhoFila = 10;
+        relay.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.encerrar();
+    }
+
+    @Test
+    void deveRepassarOsDadosQueCabemNoAviso() throws SQLException {
+        // Arrange
+        String aviso = relay.aviso(evento(10L, "{\"id\":5,\"titulo\":\"Meteora\"}"));
+
+        // Act
+        relay.receber(null, aviso);
+
+        // Assert
+        ArgumentCaptor<EventoCatalogoConfirmado> captor = ArgumentCaptor.forClass(EventoCatalogoConfirmado.class);
+        verify(eventoConfirmado, timeout(1000)).fire(captor.capture());
+        assertEquals(10L, captor.getValue().id());
+        assertEquals(TipoEventoCatalogo.ALBUM_CRIADO, captor.getValue().tipo());
+        assertEquals(5L, captor.getValue().entidadeId());
+        assertEquals("{\"id\":5,\"titulo\":\"Meteora\"}", captor.getValue().dados());
+    }
+
+    @Test
+    void deveOmitirDadosQueNaoCabemNoLimiteDoNotify() {
+        // Arrange
+        String dados = "{\"titulo\":\"" + "á".repeat(RelayEventosCatalogo.LIMITE_PAYLOAD / 2) + "\"}";
+
+        // Act
+        String aviso = relay.aviso(evento(10L, dados));
+
+        // Assert - em UTF-8 o título passa do limite, embora tenha menos caracteres
+        assertFalse(aviso.contains("titulo"));
+        assertTrue(aviso.contains("\"dadosOmitidos\":true"));
+        assertTrue(aviso.contains("\"id\":10"));
+    }
+
+    @Test
+    void deveRepassarCadaEventoUmaUnicaVez() throws SQLException {
+        // Arrange
+        String aviso = relay.aviso(evento(10L, "{}"));
+
+        // Act
+        relay.receber(null, aviso);
+        relay.receber(null, aviso);
+
+        // Assert
+        verify(eventoConfirmado, timeout(1000).times(1)).fire(any());
+        assertEquals(1, relay.registry.get("eventos.relay.duplicados").counter().count());
+    }
+
+    @Test
+    void deveRepassarNoCommitEDescartarOAvisoQueVoltaDoCanal() throws SQLException {
+        // Arrange
+        EventoCatalogo evento = evento(10L, "{}");
+
+        // Act
+        relay.aoConfirmar(evento);
+        relay.receber(null, relay.aviso(evento));
+
+        // Assert
+        verify(eventoConfirmado, timeout(1000).times(1)).fire(any());
+        verify(eventoConfirmado, after(200).times(1)).fire(any());
+        assertEquals(1, relay.registry.get("eventos.relay.duplicados").counter().count());
+    }
+
+    @Test
+    void deveIgnorarNoCommitOAvisoDeLote() {
+        // Act
+        relay.aoConfirmar(EventoCatalogo.builder().tipo(TipoEventoCatalogo.ALBUM_CRIADO).build());
+
+        // Assert
+        verify(eventoConfirmado, after(200).never()).fire(any());
+    }
+
+    @Test
+    void deveLimitarAJanelaDeDeduplicacao() {
+        // Act
+        for (long id = 1; id <= 4; id++) {
+            relay.marcarEntregue(id);
+        }
+
+        // Assert - o id 1 saiu da janela; os mais recentes continuam nela
+        assertTrue(relay.marcarEntregue(1L));
+        assertFalse(relay.marcarEntregue(4L));
+    }
+
+    private static EventoCatalogo evento(Long id, String dados) {
+        return EventoCatalogo.builder()
+                .id(id)
+                .tipo(TipoEventoCatalogo.ALBUM_CRIADO)
+                .entidadeId(5L)
+                .dados(dados)
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+package org.projetoseletivo.service;
+
+import io.minio.messages.Part;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.Album;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.UploadMultipart;
+import org.projetoseletivo.dto.response.ImagemResponse;
+import org.projetoseletivo.dto.response.ParteResponse;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+import org.projetoseletivo.repository.AlbumRepository;
+import org.projetoseletivo.repository.UploadMultipartRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para UploadMultipartService.
+ */
+@QuarkusTest
+class UploadMultipartServiceTest {
+
+    private static final String UPLOAD_ID = "upload-1";
+
+    private static final String OBJECT_KEY = "album-1/capa.tiff";
+
+    @InjectMock
+    MinioService minioService;
+
+    @InjectMock
+    AlbumRepository albumRepository;
+
+    @InjectMock
+    AlbumImagemRepository albumImagemRepository;
+
+    @InjectMock
+    UploadMultipartRepository uploadMultipartRepository;
+
+    @InjectMock
+    VarianteImagemService varianteImagemService;
+
+    @Inject
+    UploadMultipartService uploadMultipartService;
+
+    private Album albumExemplo;
+
+    private UploadMultipart uploadExemplo;
+
+    @BeforeEach
+    void setup() {
+        albumExemplo = Album.builder()
+                .id(1L)
+                .titulo("Hybrid Theory")
+                .artistas(new HashSet<>())
+                .imagens(new ArrayList<>())
+                .build();
+        uploadExemplo = UploadMultipart.builder()
+                .id(10L)
+                .album(albumExemplo)
+                .uploadId(UPLOAD_ID)
+                .objectKey(OBJECT_KEY)
+                .contentType("image/tiff")
+                .build();
+        when(uploadMultipartRepository.buscarPorUploadId(1L, UPLOAD_ID)).thenReturn(Optional.of(uploadExemplo));
+        when(uploadMultipartRepository.marcarFinalizacao(eq(10L), any())).thenReturn(true);
+        when(minioService.getBucketName()).thenReturn("album-capas");
+    }
+
+    @Test
+    void deveRepassarParteAoMinio() throws IOException {
+        // Arrange
+        byte[] conteudo = new byte[1024];
+        when(minioService.enviarParte(eq(OBJECT_KEY), eq(UPLOAD_ID), eq(2), any(byte[].class), eq(1024)))
+                .thenReturn("etag-2");
+
+        // Act
+        Optional<ParteResponse> parte = uploadMultipartService.enviarParte(1L, UPLOAD_ID, 2,
+                new ByteArrayInputStream(conteudo), 1024);
+
+        // Assert
+        assertTrue(parte.isPresent());
+        assertEquals(2, parte.get().getNumero());
+        assertEquals("etag-2", parte.get().getEtag());
+    }
+
+    @Test
+    void deveRejeitarParteIncompletaSemEnviarAoMinio() {
+        // Arrange
+        ByteArrayInputStream conexaoInterrompida = new ByteArrayInputStream(new byte[100]);
+
+        // Act & Assert
+        IOException erro = assertThrows(IOException.class,
+                () -> uploadMultipartService.enviarParte(1L, UPLOAD_ID, 1, conexaoInterrompida, 1024));
+        assertTrue(erro.getMessage().contains("incompleta"));
+        verify(minioService, never()).enviarParte(anyString(), anyString(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    void deveConcluirComAsPartesRecebidasERegistrarImagem() {
+        // Arrange
+        List<Part> partes = List.of(new Part(1, "etag-1"), new Part(2, "etag-2"));
+        when(minioService.listarPartes(OBJECT_KEY, UPLOAD_ID)).thenReturn(partes);
+
+        // Act
+        Optional<ImagemResponse> imagem = uploadMultipartService.concluir(1L, UPLOAD_ID);
+
+        // Assert
+        assertTrue(imagem.isPresent());
+        assertEquals(OBJECT_KEY, imagem.get().getObjectKey());
+        verify(minioService).concluirMultipart(OBJECT_KEY, UPLOAD_ID, partes);
+        verify(uploadMultipartRepository).delete(any(UploadMultipart.class));
+        assertEquals(1, albumExemplo.getImagens().size());
+    }
+
+    @Test
+    void deveRecusarConclusaoSemPartes() {
+        // Arrange
+        when(minioService.listarPartes(OBJECT_KEY, UPLOAD_ID)).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> uploadMultipartService.concluir(1L, UPLOAD_ID));
+        verify(minioService, never()).concluirMultipart(anyString(), anyString(), anyList());
+        verify(uploadMultipartRepository).liberarFinalizacao(10L);
+    }
+
+    @Test
+    void deveRecusarConclusaoConcorrenteSemTocarNoObjeto() {
+        // Arrange - outra chamada já marcou a finalização
+        when(uploadMultipartRepository.marcarFinalizacao(eq(10L), any())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> uploadMultipartService.concluir(1L, UPLOAD_ID));
+        verify(minioService, never()).concluirMultipart(anyString(), anyString(), anyList());
+        verify(minioService, never()).remover(anyString());
+    }
+
+    @Test
+    void deveRemoverOObjetoCriadoQuandoAGravacaoDaImagemFalha() {
+        // Arrange
+        List<Part> partes = List.of(new Part(1, "etag-1"));
+        when(minioService.listarPartes(OBJECT_KEY, UPLOAD_ID)).thenReturn(partes);
+        doThrow(new IllegalStateException("banco fora")).when(albumImagemRepository).persist(any(AlbumImagem.class));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> uploadMultipartService.concluir(1L, UPLOAD_ID));
+        verify(minioService).remover(OBJECT_KEY);
+        verify(uploadMultipartRepository, never()).liberarFinalizacao(anyLong());
+    }
+
+    @Test
+    void deveAbortarUploadsAbandonados() {
+        // Arrange
+        when(uploadMultipartRepository.buscarCriadosAntesDe(any(), anyInt())).thenReturn(List.of(uploadExemplo));
+
+        // Act
+        uploadMultipartService.expirarAbandonados();
+
+        // Assert
+        verify(minioService).abortarMultipart(OBJECT_KEY, UPLOAD_ID);
+        verify(minioService, never()).remover(anyString());
+        verify(uploadMultipartRepository).deleteById(10L);
+    }
+
+    @Test
+    void deveManterUploadAbandonadoQuandoOAbortoFalha() {
+        // Arrange
+        when(uploadMultipartRepository.buscarCriadosAntesDe(any(), anyInt())).thenReturn(List.of(uploadExemplo));
+        doThrow(new RuntimeException("MinIO fora")).when(minioService).abortarMultipart(OBJECT_KEY, UPLOAD_ID);
+
+        // Act
+        uploadMultipartService.expirarAbandonados();
+
+        // Assert - nova tentativa na próxima execução
+        verify(uploadMultipartRepository).liberarFinalizacao(10L);
+        verify(uploadMultipartRepository, never()).deleteById(anyLong());
+    }
+}
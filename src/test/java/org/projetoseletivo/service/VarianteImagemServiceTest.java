@@ -0,0 +1,99 @@
+package org.projetoseletivo.service;
+
+import io.minio.StatObjectResponse;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.entity.AlbumImagem;
+import org.projetoseletivo.domain.entity.AlbumImagemVariante;
+import org.projetoseletivo.domain.enums.VarianteImagem;
+import org.projetoseletivo.repository.AlbumImagemRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para VarianteImagemService.
+ */
+@QuarkusTest
+class VarianteImagemServiceTest {
+
+    @InjectMock
+    MinioService minioService;
+
+    @InjectMock
+    AlbumImagemRepository albumImagemRepository;
+
+    @Inject
+    VarianteImagemService varianteImagemService;
+
+    @Test
+    void deveGerarVariantesMantendoAProporcao() throws IOException {
+        // Arrange
+        AlbumImagem imagem = AlbumImagem.builder()
+                .id(7L)
+                .objectKey("album-1/capa.png")
+                .contentType("image/png")
+                .build();
+        when(albumImagemRepository.findByIdOptional(7L)).thenReturn(Optional.of(imagem));
+        when(minioService.download("album-1/capa.png")).thenReturn(png(2000, 1000));
+        when(minioService.consultar(anyString())).thenReturn(Optional.of(mock(StatObjectResponse.class)));
+
+        // Act
+        varianteImagemService.gerarVariantes(7L);
+
+        // Assert
+        verify(minioService).upload(eq("album-1/capa-miniatura.jpg"), any(InputStream.class), anyLong(),
+                eq("image/jpeg"));
+        verify(minioService).upload(eq("album-1/capa-media.jpg"), any(InputStream.class), anyLong(),
+                eq("image/jpeg"));
+        assertEquals(2, imagem.getVariantes().size());
+        AlbumImagemVariante miniatura = imagem.getVariantes().get(0);
+        assertEquals(VarianteImagem.MINIATURA, miniatura.getVariante());
+        assertEquals(160, miniatura.getLargura());
+        assertEquals(80, miniatura.getAltura());
+        assertEquals(640, imagem.getVariantes().get(1).getLargura());
+    }
+
+    @Test
+    void deveIgnorarFormatoNaoSuportado() {
+        // Arrange
+        AlbumImagem imagem = AlbumImagem.builder().id(8L).objectKey("album-1/capa.bin").build();
+        when(albumImagemRepository.findByIdOptional(8L)).thenReturn(Optional.of(imagem));
+        when(minioService.download("album-1/capa.bin")).thenReturn(new ByteArrayInputStream(new byte[64]));
+
+        // Act
+        varianteImagemService.gerarVariantes(8L);
+
+        // Assert
+        verify(minioService, never()).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+        assertTrue(imagem.getVariantes().isEmpty());
+    }
+
+    @Test
+    void naoDeveAmpliarImagemMenorQueAVariante() {
+        // Act
+        BufferedImage reduzida = VarianteImagemService.redimensionar(
+                new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), VarianteImagem.MEDIA.getLado());
+
+        // Assert
+        assertEquals(100, reduzida.getWidth());
+        assertEquals(50, reduzida.getHeight());
+    }
+
+    private InputStream png(int largura, int altura) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB), "png", saida);
+        return new ByteArrayInputStream(saida.toByteArray());
+    }
+}
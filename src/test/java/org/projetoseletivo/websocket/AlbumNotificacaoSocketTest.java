@@ -0,0 +1,145 @@
+package org.projetoseletivo.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.enums.PoliticaFilaCheia;
+import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.domain.enums.TipoEventoCatalogo;
+import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.service.EventoCatalogoConfirmado;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes das notificações geradas pelo AlbumNotificacaoSocket a partir dos
+ * eventos do catálogo.
+ */
+class AlbumNotificacaoSocketTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private AlbumNotificacaoSocket socket;
+
+    private FanoutNotificacoes fanout;
+
+    @BeforeEach
+    void setUp() {
+        fanout = new FanoutNotificacoes();
+        fanout.registry = new SimpleMeterRegistry();
+        fanout.capacidade = 4;
+        fanout.politica = PoliticaFilaCheia.COALESCER;
+        fanout.maximoAssinaturas = 4;
+        fanout.capacidadeHistorico = 10;
+        fanout.init();
+        socket = new AlbumNotificacaoSocket();
+        socket.objectMapper = objectMapper;
+        socket.fanout = fanout;
+    }
+
+    @Test
+    void deveNotificarAlteracaoSoParaAssinantesDoAlbum() throws Exception {
+        // Arrange
+        List<String> assinante = registrar("assinante");
+        List<String> outro = registrar("outro");
+        fanout.assinar("assinante", List.of(Topico.artista(5L)));
+        fanout.assinar("outro", List.of(Topico.artista(6L)));
+
+        // Act
+        socket.aoConfirmar(evento(TipoEventoCatalogo.ALBUM_ATUALIZADO, 1L, album(1L, 5L)));
+
+        // Assert
+        assertEquals(1, assinante.size());
+        assertEquals("ALBUM_ATUALIZADO", objectMapper.readTree(assinante.get(0)).get("tipo").asText());
+        assertEquals(1L, objectMapper.readTree(assinante.get(0)).at("/album/id").asLong());
+        assertTrue(outro.isEmpty());
+    }
+
+    @Test
+    void deveNotificarRemocaoSoParaAssinantesDoAlbum() throws Exception {
+        // Arrange
+        List<String> semAssinatura = registrar("todas");
+        List<String> assinante = registrar("assinante");
+        List<String> outro = registrar("outro");
+        fanout.assinar("assinante", List.of(Topico.artista(5L)));
+        fanout.assinar("outro", List.of(Topico.artista(6L)));
+
+        // Act
+        socket.aoConfirmar(evento(TipoEventoCatalogo.ALBUM_REMOVIDO, 1L, album(1L, 5L)));
+
+        // Assert
+        assertEquals(List.of("{\"tipo\":\"ALBUM_REMOVIDO\",\"albumId\":1}"), semAssinatura);
+        assertEquals(semAssinatura, assinante);
+        assertTrue(outro.isEmpty());
+    }
+
+    @Test
+    void deveNotificarRemocaoSemDadosParaTodasAsSessoes() throws Exception {
+        // Arrange
+        List<String> semAssinatura = registrar("todas");
+        List<String> assinante = registrar("assinante");
+        fanout.assinar("assinante", List.of(Topico.artista(6L)));
+
+        // Act
+        socket.aoConfirmar(new EventoCatalogoConfirmado(20L, TipoEventoCatalogo.ALBUM_REMOVIDO, 1L, null));
+
+        // Assert
+        assertEquals(List.of("{\"tipo\":\"ALBUM_REMOVIDO\",\"albumId\":1}"), semAssinatura);
+        assertEquals(semAssinatura, assinante);
+    }
+
+    @Test
+    void deveIgnorarEventosDeArtistasEAvisosDeLote() throws Exception {
+        // Arrange
+        List<String> sessao = registrar("todas");
+
+        // Act
+        socket.aoConfirmar(new EventoCatalogoConfirmado(20L, TipoEventoCatalogo.ARTISTA_CRIADO, 5L, "{}"));
+        socket.aoConfirmar(new EventoCatalogoConfirmado(null, TipoEventoCatalogo.ALBUM_CRIADO, null, null));
+
+        // Assert
+        assertTrue(sessao.isEmpty());
+    }
+
+    private List<String> registrar(String id) {
+        List<String> recebidas = new ArrayList<>();
+        fanout.registrar(new DestinoNotificacao() {
+            @Override
+            public String id() {
+                return id;
+            }
+
+            @Override
+            public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+                recebidas.add(mensagem.texto());
+                aoConcluir.accept(null);
+            }
+
+            @Override
+            public void fechar(String motivo) {
+            }
+        });
+        return recebidas;
+    }
+
+    private EventoCatalogoConfirmado evento(TipoEventoCatalogo tipo, Long albumId, AlbumResponse album)
+            throws Exception {
+        return new EventoCatalogoConfirmado(10L, tipo, albumId, objectMapper.writeValueAsString(album));
+    }
+
+    private static AlbumResponse album(Long id, Long artistaId) {
+        return AlbumResponse.builder()
+                .id(id)
+                .titulo("Meteora")
+                .artistas(List.of(AlbumResponse.ArtistaResumoResponse.builder()
+                        .id(artistaId)
+                        .tipo(TipoArtista.BANDA)
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,479 @@
+package org.projetoseletivo.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.projetoseletivo.domain.enums.PoliticaFilaCheia;
+import org.projetoseletivo.domain.enums.TipoArtista;
+import org.projetoseletivo.dto.response.AlbumResponse;
+import org.projetoseletivo.dto.response.SessaoNotificacaoResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do FanoutNotificacoes com sessões simuladas: clientes rápidos
+ * concluem cada envio na hora; clientes lentos só quando o teste libera.
+ */
+class FanoutNotificacoesTest {
+
+    private static final int CAPACIDADE = 4;
+
+    @Test
+    void deveEntregarTodasAsMensagensAoClienteRapido() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        SessaoSimulada sessao = new SessaoSimulada("rapida", true);
+        fanout.registrar(sessao);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            fanout.publicar("m" + i, "album:" + i);
+        }
+
+        // Assert
+        assertEquals(100, sessao.recebidas.size());
+        assertEquals(0, fanout.sessoes().get(0).getPendentes());
+    }
+
+    @Test
+    void deveDescartarAsMaisAntigasDoClienteLento() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        SessaoSimulada lenta = new SessaoSimulada("lenta", false);
+        fanout.registrar(lenta);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            fanout.publicar("m" + i, "album:" + i);
+        }
+        lenta.liberar();
+
+        // Assert - m0 estava em envio; da fila sobram as 4 mais recentes
+        assertEquals(List.of("m0", "m6", "m7", "m8", "m9"), lenta.recebidas);
+        assertEquals(5, fanout.sessoes().get(0).getDescartadas());
+    }
+
+    @Test
+    void deveCoalescerNotificacoesPendentesDaMesmaEntidade() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.COALESCER);
+        SessaoSimulada lenta = new SessaoSimulada("lenta", false);
+        fanout.registrar(lenta);
+
+        // Act
+        fanout.publicar("a1", "album:1");
+        fanout.publicar("b1", "album:2");
+        fanout.publicar("c1", "album:3");
+        fanout.publicar("b2", "album:2");
+        fanout.publicar("b3", "album:2");
+        lenta.liberar();
+
+        // Assert - a1 já estava em envio; b3 ocupa a posição de b1
+        assertEquals(List.of("a1", "b3", "c1"), lenta.recebidas);
+    }
+
+    @Test
+    void deveDesconectarClienteLentoComFilaCheia() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCONECTAR);
+        SessaoSimulada lenta = new SessaoSimulada("lenta", false);
+        SessaoSimulada rapida = new SessaoSimulada("rapida", true);
+        fanout.registrar(lenta);
+        fanout.registrar(rapida);
+
+        // Act - 1 em envio + 4 na fila; a sexta não cabe
+        for (int i = 0; i < 6; i++) {
+            fanout.publicar("m" + i, "album:" + i);
+        }
+
+        // Assert
+        assertTrue(lenta.fechada);
+        assertFalse(rapida.fechada);
+        assertEquals(1, fanout.quantidadeSessoes());
+        assertEquals(6, rapida.recebidas.size());
+    }
+
+    @Test
+    void deveMedirAtrasoPorSessao() throws InterruptedException {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        fanout.registrar(new SessaoSimulada("lenta", false));
+        fanout.registrar(new SessaoSimulada("rapida", true));
+
+        // Act
+        fanout.publicar("m0", "album:0");
+        fanout.publicar("m1", "album:1");
+        Thread.sleep(50);
+        List<SessaoNotificacaoResponse> sessoes = fanout.sessoes();
+
+        // Assert - mais atrasada primeiro
+        assertEquals("lenta", sessoes.get(0).getSessaoId());
+        assertEquals(2, sessoes.get(0).getPendentes());
+        assertTrue(sessoes.get(0).getAtrasoMs() >= 50);
+        assertEquals(0, sessoes.get(1).getAtrasoMs());
+        assertEquals(2, fanout.registry.get("notificacoes.pendentes").gauge().value());
+    }
+
+    @Test
+    void deveEntregarSoParaSessoesInteressadasNoAlbum() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        SessaoSimulada semAssinatura = registrar(fanout, "todas");
+        SessaoSimulada porArtista = registrar(fanout, "artista");
+        SessaoSimulada porTipo = registrar(fanout, "tipo");
+        SessaoSimulada porPrefixo = registrar(fanout, "prefixo");
+        SessaoSimulada outroArtista = registrar(fanout, "outro");
+        fanout.assinar("artista", List.of(Topico.artista(5L)));
+        fanout.assinar("tipo", List.of(Topico.tipoArtista(TipoArtista.SOLO)));
+        fanout.assinar("prefixo", List.of(Topico.prefixoTitulo("  HYB")));
+        fanout.assinar("outro", List.of(Topico.artista(6L)));
+        AlbumResponse album = album(1L, "Hybrid Theory", 5L, TipoArtista.BANDA);
+
+        // Act
+        int alcancadas = fanout.publicar("novo", "album:1", AlbumNotificacaoSocket.topicos(album));
+
+        // Assert
+        assertEquals(3, alcancadas);
+        assertEquals(List.of("novo"), semAssinatura.recebidas);
+        assertEquals(List.of("novo"), porArtista.recebidas);
+        assertEquals(List.of("novo"), porPrefixo.recebidas);
+        assertTrue(porTipo.recebidas.isEmpty());
+        assertTrue(outroArtista.recebidas.isEmpty());
+    }
+
+    @Test
+    void deveEntregarUmaVezParaSessaoQueAssinouVariosTopicosDoAlbum() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        SessaoSimulada sessao = registrar(fanout, "s");
+        fanout.assinar("s", List.of(Topico.artista(5L), Topico.tipoArtista(TipoArtista.BANDA),
+                Topico.prefixoTitulo("h")));
+
+        // Act
+        fanout.publicar("novo", "album:1", AlbumNotificacaoSocket.topicos(album(1L, "Hybrid Theory", 5L,
+                TipoArtista.BANDA)));
+
+        // Assert
+        assertEquals(List.of("novo"), sessao.recebidas);
+    }
+
+    @Test
+    void deveVoltarAReceberTudoAoCancelarAsAssinaturas() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        SessaoSimulada sessao = registrar(fanout, "s");
+        fanout.assinar("s", List.of(Topico.artista(5L), Topico.artista(6L)));
+        List<Topico> outroAlbum = AlbumNotificacaoSocket.topicos(album(2L, "Meteora", 7L, TipoArtista.SOLO));
+
+        // Act
+        fanout.publicar("antes", "album:2", outroAlbum);
+        Set<Topico> restantes = fanout.cancelar("s", List.of(Topico.artista(5L)));
+        fanout.publicar("parcial", "album:2", outroAlbum);
+        fanout.cancelar("s", null);
+        fanout.publicar("depois", "album:2", outroAlbum);
+
+        // Assert
+        assertEquals(Set.of(Topico.artista(6L)), restantes);
+        assertEquals(List.of("depois"), sessao.recebidas);
+    }
+
+    @Test
+    void deveLimparOIndiceAoRemoverSessao() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        registrar(fanout, "s");
+        fanout.assinar("s", List.of(Topico.artista(5L), Topico.prefixoTitulo("hy")));
+
+        // Act
+        fanout.remover("s");
+
+        // Assert
+        assertEquals(0, fanout.registry.get("notificacoes.topicos").gauge().value());
+        assertTrue(fanout.assinaturas("s").isEmpty());
+    }
+
+    @Test
+    void deveRecusarAssinaturasAlemDoMaximoPorSessao() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        registrar(fanout, "s");
+        fanout.assinar("s", List.of(Topico.artista(1L), Topico.artista(2L), Topico.artista(3L)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> fanout.assinar("s", List.of(Topico.artista(4L), Topico.artista(5L))));
+        assertEquals(3, fanout.assinaturas("s").size());
+    }
+
+    /**
+     * Com milhares de sessões assinando artistas diferentes, a publicação só
+     * oferece a mensagem às filas dos assinantes do álbum.
+     */
+    @Test
+    void devePublicarSoParaAssinantesSemPercorrerTodasAsSessoes() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        List<SessaoSimulada> sessoes = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            SessaoSimulada sessao = registrar(fanout, "s" + i);
+            fanout.assinar(sessao.id(), List.of(Topico.artista(i % 1_000)));
+            sessoes.add(sessao);
+        }
+
+        // Act
+        int alcancadas = fanout.publicar("novo", "album:1", AlbumNotificacaoSocket.topicos(album(1L, "Meteora",
+                42L, TipoArtista.BANDA)));
+
+        // Assert
+        assertEquals(5, alcancadas);
+        assertEquals(5, sessoes.stream().filter(sessao -> !sessao.recebidas.isEmpty()).count());
+    }
+
+    @Test
+    void deveReporAoReconectarOQueFoiPublicadoDepoisDoUltimoId() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCONECTAR);
+        for (long id = 1; id <= 8; id++) {
+            fanout.publicarEvento(id, "m" + id, "album:" + id, null);
+        }
+        SessaoSimulada stream = new SessaoSimulada("sse", false);
+
+        // Act
+        boolean completo = fanout.registrar(stream, 5L, List.of());
+        fanout.publicarEvento(9L, "m9", "album:9", null);
+        stream.liberar();
+
+        // Assert
+        assertTrue(completo);
+        assertFalse(stream.fechada);
+        assertEquals(List.of("m6", "m7", "m8", "m9"), stream.recebidas);
+    }
+
+    @Test
+    void deveAvisarParaRessincronizarQuandoAReposicaoNaoCabeNaFila() {
+        // Arrange - 6 notificações após o id 2, fila de 4
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCONECTAR);
+        for (long id = 1; id <= 8; id++) {
+            fanout.publicarEvento(id, "m" + id, "album:" + id, null);
+        }
+        SessaoSimulada stream = new SessaoSimulada("sse", true);
+
+        // Act
+        boolean completo = fanout.registrar(stream, 2L, List.of());
+        fanout.publicarEvento(9L, "m9", "album:9", null);
+
+        // Assert
+        assertFalse(completo);
+        assertFalse(stream.fechada);
+        assertEquals(List.of(FanoutNotificacoes.RESSINCRONIZAR, "m9"), stream.recebidas);
+    }
+
+    @Test
+    void deveReporSoOQueInteressaAsAssinaturasDoStream() {
+        // Arrange
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        fanout.publicarEvento(1L, "artista5", "album:1", List.of(Topico.artista(5L)));
+        fanout.publicarEvento(2L, "artista6", "album:2", List.of(Topico.artista(6L)));
+        fanout.publicarEvento(3L, "remocao", "album:3", null);
+        SessaoSimulada stream = new SessaoSimulada("sse", true);
+
+        // Act
+        fanout.registrar(stream, 0L, List.of(Topico.artista(5L)));
+
+        // Assert
+        assertEquals(List.of("artista5", "remocao"), stream.recebidas);
+    }
+
+    @Test
+    void deveAvisarParaRessincronizarQuandoOUltimoIdSaiuDoHistorico() {
+        // Arrange - histórico de 10: os ids 1 a 5 já saíram
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA);
+        for (long id = 1; id <= 15; id++) {
+            fanout.publicarEvento(id, "m" + id, "album:" + id, null);
+        }
+        List<FilaSessao.Mensagem> recebidas = new ArrayList<>();
+
+        // Act
+        boolean completo = fanout.registrar(new DestinoNotificacao() {
+            @Override
+            public String id() {
+                return "sse";
+            }
+
+            @Override
+            public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+                recebidas.add(mensagem);
+                aoConcluir.accept(null);
+            }
+
+            @Override
+            public void fechar(String motivo) {
+            }
+        }, 3L, List.of());
+
+        // Assert - o id leva o cliente ao ponto atual
+        assertFalse(completo);
+        assertEquals(List.of(new FilaSessao.Mensagem(FanoutNotificacoes.RESSINCRONIZAR, null, 15L)), recebidas);
+    }
+
+    /**
+     * Carga: milhares de sessões, uma fração delas sem concluir nenhum envio.
+     * A memória retida pelas filas dos clientes lentos fica limitada pela
+     * capacidade, não pelo número de mensagens publicadas, e o payload é
+     * compartilhado entre as sessões.
+     */
+    @Test
+    void deveManterHeapEstavelComMilharesDeSessoesEClientesLentos() {
+        // Arrange
+        int sessoes = 5_000;
+        int lentas = 500;
+        int mensagens = 2_000;
+        int capacidade = 64;
+        FanoutNotificacoes fanout = criar(PoliticaFilaCheia.DESCARTAR_MAIS_ANTIGA, capacidade);
+        for (int i = 0; i < sessoes; i++) {
+            fanout.registrar(new SessaoContadora("s" + i, i >= lentas));
+        }
+        String base = "x".repeat(2_048);
+        long heapAntes = heapUsado();
+
+        // Act - cada mensagem é um payload novo de 2 KB
+        for (int i = 0; i < mensagens; i++) {
+            fanout.publicar(i + base, "album:" + i);
+        }
+        long crescimento = heapUsado() - heapAntes;
+
+        // Assert
+        List<SessaoNotificacaoResponse> situacao = fanout.sessoes();
+        assertTrue(situacao.stream().allMatch(sessao -> sessao.getPendentes() <= capacidade + 1));
+        assertEquals(lentas * (long) (capacidade + 1), (long) fanout.registry.get("notificacoes.pendentes")
+                .gauge().value());
+        assertEquals((sessoes - lentas) * (long) mensagens, situacao.stream()
+                .mapToLong(SessaoNotificacaoResponse::getEnviadas).sum());
+        // Sem limite, as filas lentas reteriam 500 x 2.000 referências e os 4 MB
+        // de payloads; limitadas, retêm 65 payloads e 500 x 65 referências
+        assertTrue(crescimento < 16L * 1024 * 1024,
+                "Heap cresceu " + crescimento / 1024 + " KB com " + sessoes + " sessões");
+    }
+
+    private static FanoutNotificacoes criar(PoliticaFilaCheia politica) {
+        return criar(politica, CAPACIDADE);
+    }
+
+    private static FanoutNotificacoes criar(PoliticaFilaCheia politica, int capacidade) {
+        FanoutNotificacoes fanout = new FanoutNotificacoes();
+        fanout.registry = new SimpleMeterRegistry();
+        fanout.capacidade = capacidade;
+        fanout.politica = politica;
+        fanout.maximoAssinaturas = 4;
+        fanout.capacidadeHistorico = 10;
+        fanout.init();
+        return fanout;
+    }
+
+    private static SessaoSimulada registrar(FanoutNotificacoes fanout, String id) {
+        SessaoSimulada sessao = new SessaoSimulada(id, true);
+        fanout.registrar(sessao);
+        return sessao;
+    }
+
+    private static AlbumResponse album(Long id, String titulo, Long artistaId, TipoArtista tipo) {
+        return AlbumResponse.builder()
+                .id(id)
+                .titulo(titulo)
+                .artistas(List.of(AlbumResponse.ArtistaResumoResponse.builder().id(artistaId).tipo(tipo).build()))
+                .build();
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Sessão que guarda as mensagens recebidas. A lenta segura a conclusão
+     * dos envios até {@link #liberar()}.
+     */
+    private static final class SessaoSimulada implements DestinoNotificacao {
+
+        private final String id;
+
+        private final boolean rapida;
+
+        private final List<String> recebidas = new ArrayList<>();
+
+        private Consumer<Throwable> emEspera;
+
+        private boolean fechada;
+
+        SessaoSimulada(String id, boolean rapida) {
+            this.id = id;
+            this.rapida = rapida;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+            recebidas.add(mensagem.texto());
+            if (rapida) {
+                aoConcluir.accept(null);
+            } else {
+                emEspera = aoConcluir;
+            }
+        }
+
+        @Override
+        public void fechar(String motivo) {
+            fechada = true;
+        }
+
+        void liberar() {
+            while (emEspera != null) {
+                Consumer<Throwable> concluir = emEspera;
+                emEspera = null;
+                concluir.accept(null);
+            }
+        }
+    }
+
+    /**
+     * Sessão da carga: só conta, para não reter as mensagens no teste.
+     */
+    private static final class SessaoContadora implements DestinoNotificacao {
+
+        private final String id;
+
+        private final boolean rapida;
+
+        SessaoContadora(String id, boolean rapida) {
+            this.id = id;
+            this.rapida = rapida;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public void enviar(FilaSessao.Mensagem mensagem, Consumer<Throwable> aoConcluir) {
+            if (rapida) {
+                aoConcluir.accept(null);
+            }
+        }
+
+        @Override
+        public void fechar(String motivo) {
+        }
+    }
+}
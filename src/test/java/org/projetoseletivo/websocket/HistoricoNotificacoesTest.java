@@ -0,0 +1,92 @@
+package org.projetoseletivo.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do buffer circular de notificações usado na reposição do SSE.
+ */
+class HistoricoNotificacoesTest {
+
+    @Test
+    void deveReporAsNotificacoesPosterioresAoUltimoId() {
+        // Arrange
+        HistoricoNotificacoes historico = historico(5, 10L, 11L, 12L, 13L);
+
+        // Act
+        List<HistoricoNotificacoes.Entrada> reposicao = historico.apos(11L).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(12L, 13L), ids(reposicao));
+    }
+
+    @Test
+    void deveReporPelaPosicaoQuandoEventosChegaramForaDeOrdem() {
+        // Arrange - o 12 chegou antes do 11
+        HistoricoNotificacoes historico = historico(5, 10L, 12L, 11L, 13L);
+
+        // Act
+        List<HistoricoNotificacoes.Entrada> reposicao = historico.apos(12L).orElseThrow();
+
+        // Assert - o 11 não é perdido
+        assertEquals(List.of(11L, 13L), ids(reposicao));
+    }
+
+    @Test
+    void deveCompararIdsQuandoOUltimoIdNaoPassouPorEstaInstancia() {
+        // Arrange - eventos de artistas também consomem ids do outbox
+        HistoricoNotificacoes historico = historico(5, 10L, 14L, 20L);
+
+        // Act
+        List<HistoricoNotificacoes.Entrada> reposicao = historico.apos(12L).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(14L, 20L), ids(reposicao));
+    }
+
+    @Test
+    void deveExigirRessincronizacaoQuandoOUltimoIdSaiuDoBuffer() {
+        // Arrange - capacidade 3: o 10 e o 11 saíram
+        HistoricoNotificacoes historico = historico(3, 10L, 11L, 12L, 13L, 14L);
+
+        // Act & Assert
+        assertTrue(historico.apos(10L).isEmpty());
+        assertEquals(List.of(12L, 13L, 14L), ids(historico.apos(11L).orElseThrow()));
+        assertEquals(14L, historico.ultimoId(0L));
+    }
+
+    @Test
+    void deveExigirRessincronizacaoParaIdAnteriorASubidaDaInstancia() {
+        // Arrange
+        HistoricoNotificacoes historico = historico(5, 100L, 101L);
+
+        // Act & Assert
+        assertTrue(historico.apos(50L).isEmpty());
+        assertEquals(List.of(100L, 101L), ids(historico.apos(99L).orElseThrow()));
+    }
+
+    @Test
+    void deveReporNadaAntesDaPrimeiraPublicacao() {
+        // Arrange
+        HistoricoNotificacoes historico = new HistoricoNotificacoes(5);
+
+        // Act & Assert
+        assertEquals(List.of(), historico.apos(42L).orElseThrow());
+        assertEquals(42L, historico.ultimoId(42L));
+    }
+
+    private static HistoricoNotificacoes historico(int capacidade, Long... ids) {
+        HistoricoNotificacoes historico = new HistoricoNotificacoes(capacidade);
+        for (Long id : ids) {
+            historico.adicionar(new HistoricoNotificacoes.Entrada(new FilaSessao.Mensagem("m" + id, null, id), null));
+        }
+        return historico;
+    }
+
+    private static List<Long> ids(List<HistoricoNotificacoes.Entrada> entradas) {
+        return entradas.stream().map(entrada -> entrada.mensagem().id()).toList();
+    }
+}